@@ -1,10 +1,12 @@
 package com.example.signlanguageinterpreter;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 
 import android.content.Context;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.camera.view.PreviewView;
 import androidx.test.platform.app.InstrumentationRegistry;
 
@@ -13,6 +15,7 @@ import com.example.signlanguageinterpreter.singleton.CameraXManager;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+@RunWith(AndroidJUnit4.class)
 public class CameraXManagerInitializationTest {
 
     @Test
@@ -1,10 +1,12 @@
 package com.example.signlanguageinterpreter;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 
 import android.content.Context;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.camera.view.PreviewView;
 import androidx.test.platform.app.InstrumentationRegistry;
 
@@ -13,6 +15,7 @@ import com.example.signlanguageinterpreter.singleton.CameraXManager;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+@RunWith(AndroidJUnit4.class)
 public class CameraXManagerPhotoCaptureTest {
 
     @Test
@@ -23,7 +26,8 @@ public class CameraXManagerPhotoCaptureTest {
         CameraXManager manager = CameraXManager.getInstance(context, previewView);
 
         try {
-            manager.imageCapture.takePicture(context);
+            // Without a bound camera the capture is skipped rather than failing
+            manager.takePhoto(context);
         } catch (Exception e) {
             fail("Photo capture should not throw an exception");
         }
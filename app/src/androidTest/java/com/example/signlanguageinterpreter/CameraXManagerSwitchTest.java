@@ -0,0 +1,41 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.camera.core.CameraSelector;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.camera.view.PreviewView;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.signlanguageinterpreter.singleton.CameraXManager;
+
+@RunWith(AndroidJUnit4.class)
+public class CameraXManagerSwitchTest {
+
+    @Test
+    public void testSwitchWhileUnboundIsUsedForNextBinding() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        PreviewView previewView = new PreviewView(context);
+        CameraXManager manager = CameraXManager.getInstance(context, previewView);
+        int original = manager.getLensFacing();
+        int other = original == CameraSelector.LENS_FACING_FRONT
+                ? CameraSelector.LENS_FACING_BACK
+                : CameraSelector.LENS_FACING_FRONT;
+
+        try {
+            assertFalse(manager.isBound());
+            // Without a bound camera nothing is rebound, the lens is only remembered
+            assertEquals(manager.hasCamera(other), manager.switchCamera(null, other));
+            if (manager.hasCamera(other)) {
+                assertEquals(other, manager.getLensFacing());
+            }
+            assertEquals(-1, manager.getLastSwitchMillis());
+        } finally {
+            manager.switchCamera(null, original);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+import com.example.signlanguageinterpreter.governor.QualityLadder;
+import com.example.signlanguageinterpreter.governor.QualityLevel;
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+import com.example.signlanguageinterpreter.replay.FrameRecorder;
+import com.example.signlanguageinterpreter.replay.FrameReplayer;
+import com.example.signlanguageinterpreter.replay.GoldenSet;
+import com.example.signlanguageinterpreter.replay.RegressionSuite;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs the RegressionSuite over every model at every level of the default quality ladder, so
+ * each thread count, delegate and analysis size the governor can pick is scored. The golden
+ * set lives in the androidTest assets under golden/: the GoldenSet files, labels.txt with the
+ * models' labels in score order and, once recorded, baseline.properties. Without a golden set
+ * the test is skipped. Runs headlessly on the managed emulator:
+ *
+ * <pre>
+ * ./gradlew pixel6Api34DebugAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.example.signlanguageinterpreter.GoldenRegressionTest
+ * </pre>
+ *
+ * Instrumentation arguments: models, a comma-separated list of model assets (detect.tflite by
+ * default), and update=true to write the results as the new baseline into the app's external
+ * files directory instead of failing on regressions.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GoldenRegressionTest {
+    private static final String TAG = "GoldenRegressionTest";
+    private static final String GOLDEN_ASSETS = "golden";
+
+    @Test
+    public void testNoConfigurationRegresses() throws IOException {
+        // The test APK's own context holds the assets, the app's context the writable directories
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        Context targetContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        AssetManager assets = context.getAssets();
+        assumeTrue("No golden set under " + GOLDEN_ASSETS + "/ in the androidTest assets",
+                Arrays.asList(assets.list(GOLDEN_ASSETS)).contains(GoldenSet.MANIFEST));
+
+        File directory = new File(targetContext.getCacheDir(), GOLDEN_ASSETS);
+        copyAssets(assets, directory);
+        GoldenSet golden = GoldenSet.load(directory);
+        List<String> labels = readLines(new File(directory, "labels.txt"));
+        Properties baseline = new Properties();
+        File baselineFile = new File(directory, "baseline.properties");
+        if (baselineFile.exists()) {
+            try (InputStream in = new FileInputStream(baselineFile)) {
+                baseline.load(in);
+            }
+        }
+        boolean update = Boolean.parseBoolean(arguments.getString("update", "false"));
+        String[] models = arguments.getString("models", "detect.tflite").split(",");
+
+        Properties results = new Properties();
+        results.putAll(baseline);
+        List<String> regressions = new ArrayList<>();
+        Map<String, GoldenSet> scaledSets = new HashMap<>(); // Golden frames per analysis size
+        QualityLadder ladder = QualityLadder.defaultLadder();
+        for (String modelPath : models) {
+            TensorFlowModelBuilder builder = new TensorFlowModelBuilder(context)
+                    .setModelPath(modelPath.trim())
+                    .setLabels(labels);
+            for (int i = 0; i < ladder.size(); i++) {
+                QualityLevel level = ladder.get(i);
+                // Built and run on this thread, which a GPU delegate requires
+                TensorFlowModel model = builder.setNumThreads(level.getNumThreads())
+                        .setDelegate(level.getDelegate())
+                        .build();
+                try {
+                    // A level without an analysis size streams frames at the model's input size
+                    int width = level.getAnalysisWidth() > 0 ? level.getAnalysisWidth() : model.getInputWidth();
+                    int height = level.getAnalysisHeight() > 0 ? level.getAnalysisHeight() : model.getInputHeight();
+                    String size = width + "x" + height;
+                    GoldenSet frames = scaledSets.get(size);
+                    if (frames == null) {
+                        frames = scaled(golden, width, height, new File(directory, "frames-" + size + ".rec"));
+                        scaledSets.put(size, frames);
+                    }
+                    RegressionSuite suite = new RegressionSuite(frames, RegressionSuite.Tolerance.defaults(), true);
+                    RegressionSuite.Result result = suite.evaluate(new RegressionSuite.Configuration(
+                            modelPath.trim() + "@" + level.getName(), labels, model::classifyScores));
+                    Log.i(TAG, result.getReport());
+                    regressions.addAll(suite.compare(result, baseline));
+                    RegressionSuite.record(result, results);
+                } finally {
+                    model.close();
+                }
+            }
+        }
+
+        if (update) {
+            File out = new File(targetContext.getExternalFilesDir(null), "baseline.properties");
+            try (OutputStream stream = new FileOutputStream(out)) {
+                results.store(stream, "Golden set regression baseline");
+            }
+            Log.i(TAG, "Baseline written to " + out + "; copy it to the androidTest assets under " + GOLDEN_ASSETS + "/");
+            return;
+        }
+        assertTrue("Regressions:\n" + TextUtils.join("\n", regressions), regressions.isEmpty());
+    }
+
+    // Copies the golden set out of the APK, since recordings are replayed from files
+    private static void copyAssets(AssetManager assets, File directory) throws IOException {
+        assertTrue(directory.isDirectory() || directory.mkdirs());
+        byte[] buffer = new byte[64 * 1024];
+        for (String name : assets.list(GOLDEN_ASSETS)) {
+            try (InputStream in = assets.open(GOLDEN_ASSETS + "/" + name);
+                 OutputStream out = new FileOutputStream(new File(directory, name))) {
+                int count;
+                while ((count = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, count);
+                }
+            }
+        }
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), Charset.forName("UTF-8")))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line.trim());
+                }
+            }
+        }
+        return lines;
+    }
+
+    // Re-records the golden frames at the size the camera would deliver them, before any timing
+    private static GoldenSet scaled(GoldenSet golden, int width, int height, File file) throws IOException {
+        ByteBuffer scaledPixels = ByteBuffer.allocateDirect(width * height * 4);
+        Bitmap[] source = new Bitmap[1];
+        boolean[] resized = new boolean[1];
+        try (FrameRecorder recorder = new FrameRecorder(file, 4 * 1024 * 1024, Integer.MAX_VALUE)) {
+            new FrameReplayer(golden.getRecording()).replay((rgba, frameWidth, frameHeight, rotation, timestampNanos) -> {
+                if (frameWidth == width && frameHeight == height) {
+                    recorder.record(rgba, width, height, rotation, timestampNanos);
+                    return;
+                }
+                resized[0] = true;
+                if (source[0] == null || source[0].getWidth() != frameWidth || source[0].getHeight() != frameHeight) {
+                    source[0] = Bitmap.createBitmap(frameWidth, frameHeight, Bitmap.Config.ARGB_8888);
+                }
+                source[0].copyPixelsFromBuffer(rgba);
+                Bitmap frame = Bitmap.createScaledBitmap(source[0], width, height, true);
+                scaledPixels.clear();
+                frame.copyPixelsToBuffer(scaledPixels);
+                frame.recycle();
+                recorder.record(scaledPixels, width, height, rotation, timestampNanos);
+            }, false);
+        }
+        if (!resized[0]) {
+            assertTrue(file.delete());
+            return golden;
+        }
+        return new GoldenSet(golden.getVersion(), file, golden.getExpectedLabels());
+    }
+}
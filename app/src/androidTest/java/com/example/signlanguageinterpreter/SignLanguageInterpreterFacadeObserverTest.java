@@ -1,11 +1,13 @@
 package com.example.signlanguageinterpreter;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 
 import android.content.Context;
 import android.widget.TextView;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.camera.view.PreviewView;
 import androidx.test.platform.app.InstrumentationRegistry;
 
@@ -17,6 +19,7 @@ import com.example.signlanguageinterpreter.observer.UIObserver;
 import java.util.List;
 import java.util.ArrayList;
 
+@RunWith(AndroidJUnit4.class)
 public class SignLanguageInterpreterFacadeObserverTest {
 
     @Test
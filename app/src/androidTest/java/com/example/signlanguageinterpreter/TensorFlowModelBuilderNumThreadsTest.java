@@ -1,18 +1,24 @@
 package com.example.signlanguageinterpreter;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 
 import android.content.Context;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
 import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
 
+@RunWith(AndroidJUnit4.class)
 public class TensorFlowModelBuilderNumThreadsTest {
 
     @Test
     public void testSetNumThreads() {
-        Context mockContext = null; // Assuming context is not needed for this simple test
-        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(mockContext);
+        // The test APK's own context, whose assets hold detect.tflite
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(context).setModelPath("detect.tflite");
         int numThreads = 4;
         builder.setNumThreads(numThreads);
         assertEquals(numThreads, builder.build().getNumThreads());
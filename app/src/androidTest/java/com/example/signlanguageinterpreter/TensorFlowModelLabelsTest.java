@@ -1,8 +1,12 @@
 package com.example.signlanguageinterpreter;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
 import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
 import com.example.signlanguageinterpreter.model.TensorFlowModel;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 
 import android.content.Context;
 
@@ -11,12 +15,13 @@ import java.util.List;
 
 import static org.junit.Assert.*;
 
+@RunWith(AndroidJUnit4.class)
 public class TensorFlowModelLabelsTest {
 
     @Test
     public void testSetLabels() {
-        Context mockContext = null;
-        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(mockContext);
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(context).setModelPath("detect.tflite");
         List<String> labels = Arrays.asList("Label1", "Label2", "Label3");
 
         builder.setLabels(labels);
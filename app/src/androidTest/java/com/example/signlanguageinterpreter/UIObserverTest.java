@@ -1,16 +1,23 @@
 package com.example.signlanguageinterpreter;
 
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import static org.junit.Assert.*;
 import android.widget.TextView;
 
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
 import com.example.signlanguageinterpreter.observer.UIObserver;
 
+@RunWith(AndroidJUnit4.class)
 public class UIObserverTest {
 
     @Test
+    @UiThreadTest // Updates are applied synchronously on the main thread
     public void testUIObserverUpdate() {
-        TextView mockTextView = new TextView(null); // Simple TextView for testing
+        TextView mockTextView = new TextView(InstrumentationRegistry.getInstrumentation().getTargetContext());
         UIObserver observer = new UIObserver(mockTextView);
         String testResult = "Test result";
 
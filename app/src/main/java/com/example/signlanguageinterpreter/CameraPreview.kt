@@ -1,16 +1,13 @@
 package com.example.signlanguageinterpreter
 
-import android.content.Context
 import androidx.camera.view.PreviewView
 import androidx.compose.runtime.Composable
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.viewinterop.AndroidView
-import com.example.signlanguageinterpreter.singleton.CameraXManager
-import java.util.concurrent.ExecutorService
 
+// Only hosts the PreviewView; binding is owned by the InterpreterSession so recomposition
+// never rebinds the camera use cases.
 @Composable
-fun CameraPreview(modifier: Modifier, context: Context, previewView: PreviewView, cameraExecutor: ExecutorService) {
-    val cameraManager = CameraXManager.getInstance(context, previewView)
+fun CameraPreview(modifier: Modifier, previewView: PreviewView) {
     AndroidView(factory = { previewView }, modifier = modifier)
-    cameraManager.startCamera(context)
 }
\ No newline at end of file
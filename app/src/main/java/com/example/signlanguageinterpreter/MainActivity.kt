@@ -4,39 +4,45 @@ import android.Manifest
 import android.content.pm.PackageManager
 import android.os.Build
 import android.os.Bundle
-import android.widget.TextView
 import android.widget.Toast
 import androidx.activity.compose.setContent
 import androidx.activity.result.contract.ActivityResultContracts
 import androidx.appcompat.app.AppCompatActivity
-import androidx.camera.core.ImageCapture
 import androidx.camera.view.PreviewView
+import androidx.compose.foundation.layout.Box
 import androidx.compose.foundation.layout.fillMaxSize
 import androidx.compose.foundation.layout.padding
+import androidx.compose.material3.Button
 import androidx.compose.material3.Scaffold
+import androidx.compose.material3.Text
+import androidx.compose.material3.TextButton
+import androidx.compose.runtime.mutableStateOf
+import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
+import androidx.compose.ui.res.stringResource
+import androidx.compose.ui.unit.dp
 import androidx.core.content.ContextCompat
-import com.example.signlanguageinterpreter.databinding.ActivityMainBinding
 import com.example.signlanguageinterpreter.facade.SignLanguageInterpreterFacade
 import com.example.signlanguageinterpreter.observer.LogObserver
-import com.example.signlanguageinterpreter.observer.UIObserver
-import com.example.signlanguageinterpreter.singleton.CameraXManager
+import com.example.signlanguageinterpreter.observer.PerformanceHudObserver
+import com.example.signlanguageinterpreter.ui.PerformanceHud
+import com.example.signlanguageinterpreter.ui.ResultState
+import com.example.signlanguageinterpreter.ui.ResultText
 import com.example.signlanguageinterpreter.ui.theme.SignLanguageInterpreterTheme
-import java.util.concurrent.ExecutorService
-import java.util.concurrent.Executors
 
 
 class MainActivity : AppCompatActivity() {
-    // View binding instance to access UI elements
-    private lateinit var viewBinding: ActivityMainBinding
     // Facade instance for sign language interpretation
     private lateinit var interpreterFacade: SignLanguageInterpreterFacade
-    // Image capture use case for taking photos
-    private var imageCapture: ImageCapture? = null
-    // Singleton instance for managing CameraX operations
-    private lateinit var cameraXManager: CameraXManager
-    // Executor service for handling camera operations in a background thread
-    private lateinit var cameraExecutor: ExecutorService
+    // The single preview view of this activity; Compose only hosts it
+    private lateinit var previewView: PreviewView
+    // Result display state, updated at most once per display frame
+    private val resultState = ResultState()
+    // Performance overlay for field diagnostics, hidden until toggled
+    private lateinit var performanceHud: PerformanceHudObserver
+    private val hudText = mutableStateOf("")
+    // Whether the overlay was showing when the activity was paused
+    private var hudEnabledBeforePause = false
 
     // Activity result launcher for requesting multiple permissions
     private val activityResultLauncher =
@@ -64,17 +70,19 @@ class MainActivity : AppCompatActivity() {
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
-        cameraExecutor = Executors.newSingleThreadExecutor()
-        // Inflate the layout using view binding
-        viewBinding = ActivityMainBinding.inflate(layoutInflater)
-        setContentView(viewBinding.root)
+        // Created once per activity instance, outside composition, so recomposing never
+        // replaces the view the preview use case renders into
+        previewView = PreviewView(this)
 
         // Initialize the SignLanguageInterpreterFacade with the context and preview view
-        val previewView = viewBinding.previewView
         interpreterFacade = SignLanguageInterpreterFacade(this, previewView)
+        // The session binds the camera on resume and releases it on pause
+        lifecycle.addObserver(interpreterFacade.getSession())
 
-        // Initialize CameraXManager with the context, preview view, and executor
-        cameraXManager = CameraXManager.getInstance(this, previewView)
+        // Adding observers to the interpreter facade
+        interpreterFacade.addObserver(resultState)
+        interpreterFacade.addObserver(LogObserver())
+        performanceHud = interpreterFacade.createPerformanceHud { text -> hudText.value = text }
 
         // Check if all permissions are granted, if not, request permissions
         if (allPermissionsGranted()) {
@@ -83,41 +91,61 @@ class MainActivity : AppCompatActivity() {
             requestPermissions()
         }
 
-        setContent{
-
+        setContent {
             SignLanguageInterpreterTheme {
                 Scaffold(modifier = Modifier.fillMaxSize()) { innerPadding ->
-                    CameraPreview(
-                        modifier = Modifier.padding(innerPadding),
-                        context = this,
-                        previewView = PreviewView(this),
-                        cameraExecutor = cameraExecutor
-                    )
+                    Box(modifier = Modifier.fillMaxSize().padding(innerPadding)) {
+                        CameraPreview(
+                            modifier = Modifier.fillMaxSize(),
+                            previewView = previewView
+                        )
+                        ResultText(
+                            state = resultState,
+                            modifier = Modifier.align(Alignment.TopCenter).padding(16.dp)
+                        )
+                        PerformanceHud(
+                            text = { hudText.value },
+                            modifier = Modifier.align(Alignment.TopStart).padding(8.dp)
+                        )
+                        TextButton(
+                            onClick = { performanceHud.toggle() },
+                            modifier = Modifier.align(Alignment.TopEnd)
+                        ) {
+                            Text("HUD")
+                        }
+                        TextButton(
+                            onClick = { switchCamera() },
+                            modifier = Modifier.align(Alignment.BottomEnd).padding(bottom = 50.dp)
+                        ) {
+                            Text("Flip")
+                        }
+                        Button(
+                            onClick = { takePhoto() },
+                            modifier = Modifier.align(Alignment.BottomCenter).padding(bottom = 50.dp)
+                        ) {
+                            Text(stringResource(R.string.take_photo))
+                        }
+                    }
                 }
             }
         }
-
-
-
-        // Set up the listeners for take photo and video capture buttons
-        viewBinding.imageCaptureButton.setOnClickListener { takePhoto() }
-
-        // Adding observers to the interpreter facade
-        val resultText = findViewById<TextView>(R.id.result_text)
-        val uiObserver = UIObserver(resultText)
-        val logObserver = LogObserver()
-        interpreterFacade.addObserver(uiObserver)
-        interpreterFacade.addObserver(logObserver)
     }
 
-    // Function to take a photo using CameraXManager
+    // Function to take a photo; observers are notified when it is saved
     private fun takePhoto() {
-        cameraXManager.takePhoto(this)
+        interpreterFacade.takePhoto(this)
+    }
+
+    // Function to flip between the front and back camera, keeping the model and pipeline loaded
+    private fun switchCamera() {
+        if (!interpreterFacade.switchCamera()) {
+            Toast.makeText(baseContext, "Cannot switch camera now", Toast.LENGTH_SHORT).show()
+        }
     }
 
-    // Function to start the camera using CameraXManager
+    // Function to request the camera binding; the session binds it once per resume
     private fun startCamera() {
-        cameraXManager.startCamera(this)
+        interpreterFacade.startCamera(this)
     }
 
     // Function to request permissions using the activity result launcher
@@ -125,27 +153,29 @@ class MainActivity : AppCompatActivity() {
         activityResultLauncher.launch(REQUIRED_PERMISSIONS)
     }
 
-
-
-
-
-
     // Function to check if all required permissions are granted
     private fun allPermissionsGranted() = REQUIRED_PERMISSIONS.all {
         ContextCompat.checkSelfPermission(
             baseContext, it) == PackageManager.PERMISSION_GRANTED
     }
 
-    override fun onDestroy() {
-        super.onDestroy()
-        // Shut down the camera executor service
-        cameraExecutor.shutdown()
+    override fun onResume() {
+        super.onResume()
+        if (hudEnabledBeforePause) {
+            performanceHud.setEnabled(true)
+        }
+    }
+
+    override fun onPause() {
+        super.onPause()
+        // Stop sampling while nothing is visible, so the main thread handler does not keep
+        // waking up or keep the pipeline alive
+        hudEnabledBeforePause = performanceHud.isEnabled
+        performanceHud.setEnabled(false)
     }
 
     companion object {
         private const val TAG = "CameraXApp"
-        private const val FILENAME_FORMAT = "yyyy-MM-dd-HH-mm-ss-SSS"
-        private const val REQUEST_CODE_PERMISSIONS = 10
         // List of required permissions
         private val REQUIRED_PERMISSIONS =
             mutableListOf(
@@ -2,27 +2,65 @@ package com.example.signlanguageinterpreter.builder;
 
 import android.content.Context;
 import android.content.res.AssetFileDescriptor;
+import android.util.Log;
 
+import com.example.signlanguageinterpreter.landmark.KnnIndex;
+import com.example.signlanguageinterpreter.model.CascadeModel;
+import com.example.signlanguageinterpreter.model.LandmarkModel;
 import com.example.signlanguageinterpreter.model.TensorFlowModel;
 
 import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.gpu.GpuDelegate;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Builder class to construct and configure a TensorFlowModel.
  * This uses the Builder design pattern to provide a flexible way to build the model.
  */
 public class TensorFlowModelBuilder {
+    private static final String TAG = "TensorFlowModelBuilder";
+
+    /**
+     * Hardware the interpreter runs the model on.
+     */
+    public enum Delegate {
+        CPU,
+        GPU
+    }
+
+    /**
+     * How frames are classified.
+     */
+    public enum Engine {
+        CNN, // The model maps the frame straight to label scores
+        LANDMARK_KNN // The model finds hand landmarks, matched against reference samples
+    }
+
     private Interpreter.Options options; // Options for the TensorFlow Lite interpreter
     private String modelPath; // Path to the TensorFlow Lite model file
     private Context context; // Android context to access assets
     private List<String> labels; // Labels corresponding to the model's output
     private int numThreads; // Number of threads for the interpreter
+    private Delegate delegate = Delegate.CPU; // Hardware delegate for the interpreter
+    private Engine engine = Engine.CNN; // How frames are classified
+    private String referenceSamplesPath; // KnnIndex asset used by the LANDMARK_KNN engine
+    private KnnIndex referenceIndex; // Loaded on the first build and shared by every later one, so added samples survive rebuilds
+    private int neighbors = 5; // Neighbors voting per frame in the LANDMARK_KNN engine
+    private int quantizerLists; // Coarse quantizer centroids, 0 to search every sample
+    private int quantizerProbes = 1; // Centroid lists searched per frame
+    private final Map<String, MappedByteBuffer> modelBuffers = new HashMap<>(); // Model files mapped on the first build and reused after
+    private final List<String> cascadePaths = new ArrayList<>(); // Cheaper models run before the main one
+    private final List<Float> cascadeMargins = new ArrayList<>(); // Top-1 margin at which each cheaper model answers
 
     /**
      * Constructor for TensorFlowModelBuilder.
@@ -41,6 +79,7 @@ public class TensorFlowModelBuilder {
      * @return The current instance of TensorFlowModelBuilder.
      */
     public TensorFlowModelBuilder setNumThreads(int numThreads) {
+        this.numThreads = numThreads;
         this.options.setNumThreads(numThreads); // Configure the number of threads
         return this;
     }
@@ -54,6 +93,27 @@ public class TensorFlowModelBuilder {
         return this.numThreads;
     }
 
+    /**
+     * Sets the hardware delegate the interpreter runs on. Falls back to the CPU if the
+     * delegate cannot run the model.
+     *
+     * @param delegate The delegate to use.
+     * @return The current instance of TensorFlowModelBuilder.
+     */
+    public TensorFlowModelBuilder setDelegate(Delegate delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    /**
+     * Gets the hardware delegate set for the interpreter.
+     *
+     * @return The delegate.
+     */
+    public Delegate getDelegate() {
+        return delegate;
+    }
+
     /**
      * Sets the path to the TensorFlow Lite model file.
      *
@@ -61,7 +121,68 @@ public class TensorFlowModelBuilder {
      * @return The current instance of TensorFlowModelBuilder.
      */
     public TensorFlowModelBuilder setModelPath(String modelPath) {
-        this.modelPath = "/assets/.tflite"; // Set the model file path
+        this.modelPath = modelPath; // Set the model file path, relative to the assets folder
+        return this;
+    }
+
+    /**
+     * Sets how frames are classified. With LANDMARK_KNN the model path must point to a
+     * hand-landmark model and reference samples must be set.
+     *
+     * @param engine The classification engine.
+     * @return The current instance of TensorFlowModelBuilder.
+     */
+    public TensorFlowModelBuilder setEngine(Engine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    /**
+     * Sets the labeled landmark samples the LANDMARK_KNN engine matches frames against.
+     *
+     * @param assetPath The path to a file written by KnnIndex.writeTo, relative to the assets folder.
+     * @return The current instance of TensorFlowModelBuilder.
+     */
+    public TensorFlowModelBuilder setReferenceSamples(String assetPath) {
+        if (!assetPath.equals(referenceSamplesPath)) {
+            referenceIndex = null;
+        }
+        this.referenceSamplesPath = assetPath;
+        return this;
+    }
+
+    /**
+     * Configures the nearest-neighbor search of the LANDMARK_KNN engine.
+     *
+     * @param neighbors      The number of neighbors voting per frame.
+     * @param quantizerLists The number of coarse quantizer centroids for large reference sets,
+     *                       or 0 to search every sample.
+     * @param probes         The number of centroid lists searched per frame.
+     * @return The current instance of TensorFlowModelBuilder.
+     */
+    public TensorFlowModelBuilder setNearestNeighbors(int neighbors, int quantizerLists, int probes) {
+        this.neighbors = neighbors;
+        this.quantizerLists = quantizerLists;
+        this.quantizerProbes = probes;
+        return this;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Adds a cheaper model that runs before the main model. If its top-1 score beats its
+     * top-2 score by at least minMargin, its answer is used and the later models are skipped.
+     * Stages run in the order they are added; the model must use the same labels.
+     *
+     * @param modelPath The path to the stage's model file, relative to the assets folder.
+     * @param minMargin The top-1 margin at which the stage's answer is accepted.
+     * @return The current instance of TensorFlowModelBuilder.
+     */
+    public TensorFlowModelBuilder addCascadeStage(String modelPath, float minMargin) {
+        cascadePaths.add(modelPath);
+        cascadeMargins.add(minMargin);
         return this;
     }
 
@@ -77,15 +198,97 @@ public class TensorFlowModelBuilder {
     }
 
     /**
-     * Builds and returns a configured TensorFlowModel instance.
+     * Builds and returns a configured TensorFlowModel instance. If cascade stages were added,
+     * the result is a CascadeModel running them before the main model; with the LANDMARK_KNN
+     * engine it is a LandmarkModel, and cascade stages are ignored. With the GPU delegate, call
+     * this on the thread that will run the model, since the delegate is bound to the thread
+     * that creates it.
      *
      * @return A new instance of TensorFlowModel.
      */
     public TensorFlowModel build() {
-        // Load the model file from the specified path
-        Interpreter interpreter = new Interpreter(loadModelFile(modelPath), options);
+        if (engine == Engine.LANDMARK_KNN) {
+            return buildLandmarkModel();
+        }
+        if (cascadePaths.isEmpty()) {
+            return buildModel(modelPath);
+        }
+        List<TensorFlowModel> stages = new ArrayList<>();
+        List<String> names = new ArrayList<>(cascadePaths);
+        float[] margins = new float[cascadeMargins.size()];
+        try {
+            for (int i = 0; i < cascadePaths.size(); i++) {
+                stages.add(buildModel(cascadePaths.get(i)));
+                margins[i] = cascadeMargins.get(i);
+            }
+            stages.add(buildModel(modelPath));
+        } catch (RuntimeException e) {
+            for (TensorFlowModel stage : stages) {
+                stage.close();
+            }
+            throw e;
+        }
+        names.add(modelPath);
+        return new CascadeModel(stages, names, margins);
+    }
+
+    private LandmarkModel buildLandmarkModel() {
+        if (referenceSamplesPath == null) {
+            throw new IllegalStateException("The LANDMARK_KNN engine needs reference samples");
+        }
+        KnnIndex index = getReferenceIndex();
+        if (quantizerLists > 0 && !index.hasQuantizer()) {
+            index.buildQuantizer(quantizerLists, 10, 0);
+        }
+        Interpreter interpreter = new Interpreter(getModelBuffer(modelPath), options);
+        return new LandmarkModel(interpreter, labels, numThreads, index, neighbors, quantizerProbes);
+    }
+
+    // Load the reference samples; later builds reuse the index, including samples added since
+    private KnnIndex getReferenceIndex() {
+        if (referenceIndex == null) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    context.getAssets().open(referenceSamplesPath)))) {
+                referenceIndex = KnnIndex.readFrom(in);
+            } catch (IOException e) {
+                throw new RuntimeException("Error loading reference samples", e);
+            }
+        }
+        return referenceIndex;
+    }
+
+    // Load the model file from the specified path; later builds reuse the mapping
+    private MappedByteBuffer getModelBuffer(String path) {
+        MappedByteBuffer modelBuffer = modelBuffers.get(path);
+        if (modelBuffer == null) {
+            modelBuffer = loadModelFile(path);
+            modelBuffers.put(path, modelBuffer);
+        }
+        return modelBuffer;
+    }
+
+    private TensorFlowModel buildModel(String path) {
+        MappedByteBuffer modelBuffer = getModelBuffer(path);
+        if (delegate == Delegate.GPU) {
+            GpuDelegate gpuDelegate = new GpuDelegate();
+            try {
+                Interpreter.Options gpuOptions = new Interpreter.Options()
+                        .setNumThreads(numThreads)
+                        .addDelegate(gpuDelegate);
+                Interpreter interpreter = new Interpreter(modelBuffer, gpuOptions);
+                TensorFlowModel model = new TensorFlowModel(interpreter, labels, numThreads, Delegate.GPU, gpuDelegate);
+                model.setModelPath(path);
+                return model;
+            } catch (RuntimeException e) {
+                Log.w(TAG, "GPU delegate cannot run " + path + ", falling back to CPU", e);
+                gpuDelegate.close();
+            }
+        }
+        Interpreter interpreter = new Interpreter(modelBuffer, options);
         // Return a new TensorFlowModel instance with the interpreter and labels
-        return new TensorFlowModel(interpreter, labels, numThreads);
+        TensorFlowModel model = new TensorFlowModel(interpreter, labels, numThreads);
+        model.setModelPath(path);
+        return model;
     }
 
     /**
@@ -0,0 +1,254 @@
+package com.example.signlanguageinterpreter.decoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix tree over a word list, packed into flat int arrays. Node 0 is the root.
+ * The children of node n are the edges childStart[n] to childStart[n + 1] - 1, and every
+ * node except the root records the label index of the letter leading to it, so a decoder
+ * can walk the children of a prefix in O(alphabet) without any object per node.
+ */
+public class LexiconTrie {
+    public static final int ROOT = 0;
+    public static final int NO_WORD = -1; // No word ends at, or is reachable from, the node
+    public static final int MANY_WORDS = -2; // More than one word is reachable from the node
+
+    private final int[] childStart; // Offset of each node's first edge, nodeCount + 1 entries
+    private final int[] childNode; // Target node of each edge
+    private final int[] parent; // Parent of each node, -1 for the root
+    private final int[] symbol; // Label index leading to each node, -1 for the root
+    private final int[] wordAt; // Word ending at each node, or NO_WORD
+    private final int[] onlyWord; // The single word reachable from each node, NO_WORD or MANY_WORDS
+    private final String[] words; // Words by id
+    private final int alphabetSize; // Number of labels
+
+    private LexiconTrie(int[] childStart, int[] childNode, int[] parent, int[] symbol,
+                        int[] wordAt, int[] onlyWord, String[] words, int alphabetSize) {
+        this.childStart = childStart;
+        this.childNode = childNode;
+        this.parent = parent;
+        this.symbol = symbol;
+        this.wordAt = wordAt;
+        this.onlyWord = onlyWord;
+        this.words = words;
+        this.alphabetSize = alphabetSize;
+    }
+
+    /**
+     * Builds a trie over the words that can be spelled with the given labels. Each letter of a
+     * word is matched case-insensitively against the single-character labels; words with any
+     * other character are skipped.
+     *
+     * @param words  The lexicon.
+     * @param labels The model's labels in score order.
+     * @return The packed trie.
+     */
+    public static LexiconTrie build(List<String> words, List<String> labels) {
+        int[] letterToLabel = new int[Character.MAX_VALUE + 1];
+        Arrays.fill(letterToLabel, -1);
+        for (int i = 0; i < labels.size(); i++) {
+            String label = labels.get(i);
+            if (label != null && label.length() == 1) {
+                letterToLabel[Character.toUpperCase(label.charAt(0))] = i;
+                letterToLabel[Character.toLowerCase(label.charAt(0))] = i;
+            }
+        }
+
+        // Build with growable per-node child lists, then pack breadth-first
+        List<int[]> children = new ArrayList<>(); // Per node: pairs of (label, child)
+        List<Integer> wordOf = new ArrayList<>();
+        List<String> accepted = new ArrayList<>();
+        children.add(new int[0]);
+        wordOf.add(NO_WORD);
+        for (String word : words) {
+            String trimmed = word.trim().toUpperCase(Locale.US);
+            if (trimmed.isEmpty() || !isSpellable(trimmed, letterToLabel)) {
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < trimmed.length(); i++) {
+                int label = letterToLabel[trimmed.charAt(i)];
+                int next = findChild(children.get(node), label);
+                if (next < 0) {
+                    next = children.size();
+                    children.add(new int[0]);
+                    wordOf.add(NO_WORD);
+                    int[] edges = children.get(node);
+                    int[] grown = Arrays.copyOf(edges, edges.length + 2);
+                    grown[edges.length] = label;
+                    grown[edges.length + 1] = next;
+                    children.set(node, grown);
+                }
+                node = next;
+            }
+            if (wordOf.get(node) == NO_WORD) {
+                wordOf.set(node, accepted.size());
+                accepted.add(trimmed);
+            }
+        }
+
+        int nodeCount = children.size();
+        int[] order = new int[nodeCount]; // Breadth-first order, so a node's children are contiguous
+        int[] packedId = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        order[tail++] = ROOT;
+        while (head < tail) {
+            int[] edges = children.get(order[head++]);
+            for (int e = 0; e < edges.length; e += 2) {
+                order[tail++] = edges[e + 1];
+            }
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            packedId[order[i]] = i;
+        }
+
+        int[] childStart = new int[nodeCount + 1];
+        int[] childNode = new int[nodeCount - 1];
+        int[] parent = new int[nodeCount];
+        int[] symbol = new int[nodeCount];
+        int[] wordAt = new int[nodeCount];
+        parent[ROOT] = -1;
+        symbol[ROOT] = -1;
+        int edgeCount = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            int original = order[i];
+            wordAt[i] = wordOf.get(original);
+            childStart[i] = edgeCount;
+            int[] edges = children.get(original);
+            for (int e = 0; e < edges.length; e += 2) {
+                int child = packedId[edges[e + 1]];
+                childNode[edgeCount++] = child;
+                parent[child] = i;
+                symbol[child] = edges[e];
+            }
+        }
+        childStart[nodeCount] = edgeCount;
+
+        // Children come after their parents, so a reverse pass sees every subtree complete
+        int[] onlyWord = new int[nodeCount];
+        for (int i = nodeCount - 1; i >= 0; i--) {
+            int reachable = wordAt[i];
+            for (int e = childStart[i]; e < childStart[i + 1]; e++) {
+                reachable = merge(reachable, onlyWord[childNode[e]]);
+            }
+            onlyWord[i] = reachable;
+        }
+        return new LexiconTrie(childStart, childNode, parent, symbol, wordAt, onlyWord,
+                accepted.toArray(new String[0]), labels.size());
+    }
+
+    public int getNodeCount() {
+        return parent.length;
+    }
+
+    public int getWordCount() {
+        return words.length;
+    }
+
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+
+    // First edge of the node's children
+    public int getChildStart(int node) {
+        return childStart[node];
+    }
+
+    // One past the last edge of the node's children
+    public int getChildEnd(int node) {
+        return childStart[node + 1];
+    }
+
+    public int getEdgeTarget(int edge) {
+        return childNode[edge];
+    }
+
+    // Label index of the letter leading to the node, -1 for the root
+    public int getSymbol(int node) {
+        return symbol[node];
+    }
+
+    // Id of the word ending at the node, or NO_WORD
+    public int getWordAt(int node) {
+        return wordAt[node];
+    }
+
+    // Id of the only word that completing this prefix can produce, NO_WORD or MANY_WORDS
+    public int getOnlyWord(int node) {
+        return onlyWord[node];
+    }
+
+    public String getWord(int wordId) {
+        return words[wordId];
+    }
+
+    /**
+     * Returns the letters leading to a node.
+     *
+     * @param node   The node.
+     * @param labels The model's labels in score order.
+     * @return The prefix spelled by the path from the root.
+     */
+    public String getPrefix(int node, List<String> labels) {
+        StringBuilder prefix = new StringBuilder();
+        for (int n = node; n != ROOT; n = parent[n]) {
+            prefix.append(labels.get(symbol[n]));
+        }
+        return prefix.reverse().toString();
+    }
+
+    /**
+     * Finds the node reached by spelling a word from the root.
+     *
+     * @param word   The letters to follow.
+     * @param labels The model's labels in score order.
+     * @return The node, or -1 if the trie has no such prefix.
+     */
+    public int find(String word, List<String> labels) {
+        int node = ROOT;
+        for (int i = 0; i < word.length() && node >= 0; i++) {
+            String letter = String.valueOf(word.charAt(i));
+            int next = -1;
+            for (int e = childStart[node]; e < childStart[node + 1]; e++) {
+                if (labels.get(symbol[childNode[e]]).equalsIgnoreCase(letter)) {
+                    next = childNode[e];
+                    break;
+                }
+            }
+            node = next;
+        }
+        return node;
+    }
+
+    private static boolean isSpellable(String word, int[] letterToLabel) {
+        for (int i = 0; i < word.length(); i++) {
+            if (letterToLabel[word.charAt(i)] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int findChild(int[] edges, int label) {
+        for (int e = 0; e < edges.length; e += 2) {
+            if (edges[e] == label) {
+                return edges[e + 1];
+            }
+        }
+        return -1;
+    }
+
+    private static int merge(int a, int b) {
+        if (a == NO_WORD) {
+            return b;
+        }
+        if (b == NO_WORD) {
+            return a;
+        }
+        return MANY_WORDS;
+    }
+}
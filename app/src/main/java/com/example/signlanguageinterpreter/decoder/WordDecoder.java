@@ -0,0 +1,303 @@
+package com.example.signlanguageinterpreter.decoder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental beam search that turns per-frame letter scores into words from a lexicon.
+ * Each hypothesis is a node of the LexiconTrie, i.e. a prefix of at least one word, with the
+ * probability of having just seen a blank and of still holding the prefix's last letter, as in
+ * CTC prefix search: a held letter extends the prefix once, and a doubled letter needs a blank
+ * in between. Per frame every hypothesis is extended by the letters that can follow it, so the
+ * work is O(beam x alphabet), and only the best beamWidth hypotheses are kept. All buffers are
+ * allocated up front, so memory does not grow with the length of the session.
+ *
+ * A word is emitted as soon as it is unambiguous: it is fully spelled, no longer word in the
+ * lexicon starts with it, and its hypothesis holds commitThreshold of the probability mass.
+ * Other words are emitted on a word boundary: the boundary label winning a frame,
+ * blankPauseFrames blank frames in a row, or flush(). A boundary emits the most probable
+ * complete word if it holds at least 1 - commitThreshold of the mass, and nothing otherwise.
+ */
+public class WordDecoder {
+
+    /**
+     * Receives decoded words on the thread that calls onScores.
+     */
+    public interface WordListener {
+        void onWord(String word, float confidence, long timestampNanos);
+    }
+
+    private final LexiconTrie trie; // Words the decoder can emit
+    private final List<String> labels; // Model labels in score order
+    private final int blankIndex; // Label meaning no letter, -1 if the model has none
+    private final int boundaryIndex; // Label ending a word, -1 if the model has none
+    private final int beamWidth; // Maximum hypotheses kept per frame
+    private final float commitThreshold; // Mass a complete, unambiguous word needs to be emitted
+    private final float minLetterProbability; // Letters scored lower are not explored
+    private final int blankPauseFrames; // Blank frames in a row that end a word, 0 to disable
+    private final WordListener listener;
+
+    // Current beam
+    private final int[] beamNode;
+    private final double[] beamBlank; // Probability the last frame was a blank
+    private final double[] beamLetter; // Probability the last frame held the prefix's last letter
+    private int beamSize;
+    private int rootLastSymbol = -1; // Letter still held at the root after a word was emitted
+
+    // Per-frame scratch, sized for beamWidth x (alphabet + 1) candidates
+    private final int[] candidateNode;
+    private final double[] candidateBlank;
+    private final double[] candidateLetter;
+    private final int[] slotOfNode; // Candidate index of each trie node, -1 if none this frame
+    private final int[] heap; // Min-heap of candidate indices by total probability
+    private int blankRun; // Consecutive frames won by the blank label
+
+    /**
+     * Constructor for WordDecoder.
+     *
+     * @param trie                 The lexicon.
+     * @param labels               The model's labels in score order.
+     * @param blankIndex           The label meaning no letter, or -1.
+     * @param boundaryIndex        The label ending a word, e.g. "space", or -1.
+     * @param beamWidth            The number of hypotheses kept per frame.
+     * @param commitThreshold      The probability a complete, unambiguous word needs to be emitted.
+     * @param minLetterProbability The score below which a letter is not explored.
+     * @param blankPauseFrames     The number of blank frames in a row that end a word, or 0.
+     * @param listener             Receives the decoded words.
+     */
+    public WordDecoder(LexiconTrie trie, List<String> labels, int blankIndex, int boundaryIndex,
+                       int beamWidth, float commitThreshold, float minLetterProbability,
+                       int blankPauseFrames, WordListener listener) {
+        this.trie = trie;
+        this.labels = labels;
+        this.blankIndex = blankIndex;
+        this.boundaryIndex = boundaryIndex;
+        this.beamWidth = beamWidth;
+        this.commitThreshold = commitThreshold;
+        this.minLetterProbability = minLetterProbability;
+        this.blankPauseFrames = blankPauseFrames;
+        this.listener = listener;
+        this.beamNode = new int[beamWidth];
+        this.beamBlank = new double[beamWidth];
+        this.beamLetter = new double[beamWidth];
+        int maxCandidates = beamWidth * (trie.getAlphabetSize() + 1);
+        this.candidateNode = new int[maxCandidates];
+        this.candidateBlank = new double[maxCandidates];
+        this.candidateLetter = new double[maxCandidates];
+        this.slotOfNode = new int[trie.getNodeCount()];
+        Arrays.fill(slotOfNode, -1);
+        this.heap = new int[beamWidth];
+        reset(-1);
+    }
+
+    /**
+     * Advances the search by one frame.
+     *
+     * @param scores         The frame's probabilities in label order.
+     * @param timestampNanos The frame time, passed on with emitted words.
+     */
+    public void onScores(float[] scores, long timestampNanos) {
+        int best = argmax(scores);
+        if (best == boundaryIndex) {
+            commitBest(timestampNanos);
+            return;
+        }
+        blankRun = best == blankIndex ? blankRun + 1 : 0;
+        if (blankPauseFrames > 0 && blankRun == blankPauseFrames && commitBest(timestampNanos)) {
+            return;
+        }
+
+        int candidates = 0;
+        double blank = blankIndex >= 0 ? scores[blankIndex] : 0;
+        for (int i = 0; i < beamSize; i++) {
+            int node = beamNode[i];
+            double total = beamBlank[i] + beamLetter[i];
+            int last = lastSymbol(node);
+            // Stay on the prefix: a blank, or the same letter held
+            candidates = add(candidates, node, total * blank, last >= 0 ? beamLetter[i] * scores[last] : 0);
+            // Extend the prefix by every letter that keeps it in the lexicon
+            for (int e = trie.getChildStart(node), end = trie.getChildEnd(node); e < end; e++) {
+                int child = trie.getEdgeTarget(e);
+                int letter = trie.getSymbol(child);
+                float probability = scores[letter];
+                if (probability < minLetterProbability) {
+                    continue;
+                }
+                // A repeated letter only counts as a new one after a blank
+                double extended = (letter == last ? beamBlank[i] : total) * probability;
+                candidates = add(candidates, child, 0, extended);
+            }
+        }
+        prune(candidates);
+
+        // A complete word that no longer word extends is unambiguous once it holds enough of the mass
+        for (int i = 0; i < beamSize; i++) {
+            int word = trie.getWordAt(beamNode[i]);
+            double mass = beamBlank[i] + beamLetter[i];
+            if (word != LexiconTrie.NO_WORD && trie.getOnlyWord(beamNode[i]) == word && mass >= commitThreshold) {
+                emit(word, beamNode[i], (float) mass, timestampNanos);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Emits the most probable complete word in the beam, if it is plausible, and starts a new word.
+     * Call at the end of signing.
+     *
+     * @param timestampNanos The time passed on with the emitted word.
+     * @return True if a word was emitted.
+     */
+    public boolean flush(long timestampNanos) {
+        return commitBest(timestampNanos);
+    }
+
+    /**
+     * Returns the most probable prefix, e.g. to show the word being spelled.
+     *
+     * @return The letters of the best hypothesis.
+     */
+    public String getPartial() {
+        return trie.getPrefix(beamNode[0], labels);
+    }
+
+    public int getBeamSize() {
+        return beamSize;
+    }
+
+    private boolean commitBest(long timestampNanos) {
+        // The beam is sorted, so the first complete word is the most probable one
+        for (int i = 0; i < beamSize; i++) {
+            int word = trie.getWordAt(beamNode[i]);
+            double mass = beamBlank[i] + beamLetter[i];
+            if (word != LexiconTrie.NO_WORD && mass >= 1 - commitThreshold) {
+                emitAfterBoundary(word, (float) mass, timestampNanos);
+                return true;
+            }
+        }
+        reset(-1);
+        return false;
+    }
+
+    private void emit(int word, int wordNode, float confidence, long timestampNanos) {
+        // The word's last letter may still be held; it must not start the next word
+        reset(trie.getSymbol(wordNode));
+        listener.onWord(trie.getWord(word), confidence, timestampNanos);
+    }
+
+    private void emitAfterBoundary(int word, float confidence, long timestampNanos) {
+        reset(-1);
+        listener.onWord(trie.getWord(word), confidence, timestampNanos);
+    }
+
+    private void reset(int heldSymbol) {
+        rootLastSymbol = heldSymbol;
+        beamNode[0] = LexiconTrie.ROOT;
+        // A held letter keeps its mass on the letter path so it is not spelled again
+        beamBlank[0] = heldSymbol >= 0 ? 0 : 1;
+        beamLetter[0] = heldSymbol >= 0 ? 1 : 0;
+        beamSize = 1;
+        blankRun = 0;
+    }
+
+    private int lastSymbol(int node) {
+        return node == LexiconTrie.ROOT ? rootLastSymbol : trie.getSymbol(node);
+    }
+
+    private int add(int candidates, int node, double blank, double letter) {
+        if (blank <= 0 && letter <= 0) {
+            return candidates;
+        }
+        int slot = slotOfNode[node];
+        if (slot < 0) {
+            slot = candidates++;
+            slotOfNode[node] = slot;
+            candidateNode[slot] = node;
+            candidateBlank[slot] = 0;
+            candidateLetter[slot] = 0;
+        }
+        candidateBlank[slot] += blank;
+        candidateLetter[slot] += letter;
+        return candidates;
+    }
+
+    // Keeps the best beamWidth candidates, normalized and sorted best first
+    private void prune(int candidates) {
+        int heapSize = 0;
+        for (int c = 0; c < candidates; c++) {
+            slotOfNode[candidateNode[c]] = -1;
+            if (heapSize < beamWidth) {
+                heap[heapSize] = c;
+                siftUp(heapSize++);
+            } else if (mass(c) > mass(heap[0])) {
+                heap[0] = c;
+                siftDown(0, heapSize);
+            }
+        }
+        if (heapSize == 0) {
+            // Every path fell below the letter threshold; start over
+            reset(-1);
+            return;
+        }
+        double total = 0;
+        for (int i = 0; i < heapSize; i++) {
+            total += mass(heap[i]);
+        }
+        // Pop the min-heap into the beam from the back, leaving it sorted best first
+        beamSize = heapSize;
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int c = heap[0];
+            heap[0] = heap[i];
+            siftDown(0, i);
+            beamNode[i] = candidateNode[c];
+            beamBlank[i] = candidateBlank[c] / total;
+            beamLetter[i] = candidateLetter[c] / total;
+        }
+    }
+
+    private double mass(int candidate) {
+        return candidateBlank[candidate] + candidateLetter[candidate];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (mass(heap[i]) >= mass(heap[parent])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int size) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && mass(heap[left + 1]) < mass(heap[left]) ? left + 1 : left;
+            if (mass(heap[i]) <= mass(heap[smallest])) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private static int argmax(float[] scores) {
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
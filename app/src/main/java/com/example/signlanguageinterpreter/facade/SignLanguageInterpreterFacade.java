@@ -1,48 +1,624 @@
 package com.example.signlanguageinterpreter.facade;
 
+import android.app.ActivityManager;
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+import com.example.signlanguageinterpreter.decoder.LexiconTrie;
+import com.example.signlanguageinterpreter.decoder.WordDecoder;
+import com.example.signlanguageinterpreter.governor.AndroidDeviceConditions;
+import com.example.signlanguageinterpreter.governor.DeviceConditions;
+import com.example.signlanguageinterpreter.governor.QualityGovernor;
+import com.example.signlanguageinterpreter.governor.QualityLadder;
+import com.example.signlanguageinterpreter.governor.QualityLevel;
+import com.example.signlanguageinterpreter.model.LandmarkModel;
+import com.example.signlanguageinterpreter.model.Recognition;
 import com.example.signlanguageinterpreter.model.TensorFlowModel;
+import com.example.signlanguageinterpreter.session.InterpreterSession;
+import com.example.signlanguageinterpreter.shadow.ShadowEvaluator;
+import com.example.signlanguageinterpreter.shadow.ShadowMetrics;
 import com.example.signlanguageinterpreter.singleton.CameraXManager;
 import com.example.signlanguageinterpreter.observer.Observer;
+import com.example.signlanguageinterpreter.observer.PerformanceHudObserver;
+import com.example.signlanguageinterpreter.observer.SubtitleObserver;
+import com.example.signlanguageinterpreter.observer.SyncObserver;
+import com.example.signlanguageinterpreter.observer.TranscriptObserver;
+import com.example.signlanguageinterpreter.pipeline.DropPolicy;
+import com.example.signlanguageinterpreter.pipeline.FramePipeline;
+import com.example.signlanguageinterpreter.pool.BitmapPool;
+import com.example.signlanguageinterpreter.pool.BufferPool;
+import com.example.signlanguageinterpreter.pool.SizeClassPool;
+import com.example.signlanguageinterpreter.replay.FrameRecorder;
+import com.example.signlanguageinterpreter.replay.FrameReplayer;
+import com.example.signlanguageinterpreter.replay.ReplayReport;
+import com.example.signlanguageinterpreter.sync.ResultSyncer;
+import com.example.signlanguageinterpreter.trace.FrameTracer;
+import com.example.signlanguageinterpreter.sync.SyncBackend;
+import com.example.signlanguageinterpreter.sync.SyncQueue;
+import com.example.signlanguageinterpreter.transcript.TranscriptLog;
 
 import android.graphics.Bitmap;
+import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.camera.core.CameraSelector;
+import androidx.camera.video.Quality;
 import androidx.camera.view.PreviewView;
 
+import org.tensorflow.lite.support.common.FileUtil;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class SignLanguageInterpreterFacade {
-    private TensorFlowModel model;
+    private static final String TAG = "InterpreterFacade";
+    private static final long MODEL_THREAD_TIMEOUT_SECONDS = 10; // Longest wait for a model thread run
+    private InterpreterSession session;
     private CameraXManager cameraManager;
     private List<Observer> observers;
+    private FramePipeline framePipeline;
+    private volatile WordDecoder wordDecoder; // Only used on the dispatch thread once set
+    private FrameRecorder frameRecorder; // Recording in progress, null when not recording
+    private FrameTracer frameTracer; // Trace in progress, null when not tracing
 
     public SignLanguageInterpreterFacade(Context context, PreviewView previewView) {
-        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(context);
-        this.model = builder.setModelPath("detect.tflite").setNumThreads(4).build();
+        TensorFlowModelBuilder builder = createModelBuilder(context);
         this.cameraManager = CameraXManager.getInstance(context, previewView);
-        this.observers = new ArrayList<>();
+        this.session = new InterpreterSession(builder, cameraManager);
+        // Observers are notified from the analysis thread while the UI may still add them
+        this.observers = new CopyOnWriteArrayList<>();
+        // Frame and capture buffers are recycled by size class; the idle budget scales with the
+        // app's heap class, and debuggable builds report leases that are never closed
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long budget = activityManager.getMemoryClass() * 1024L * 1024L / 16;
+        boolean leakDetection = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        SizeClassPool.LeakReporter leakReporter = (poolName, origin) ->
+                Log.e(TAG, poolName + " lease was never closed", origin);
+        BufferPool bufferPool = new BufferPool(budget, true, leakDetection);
+        BitmapPool bitmapPool = new BitmapPool(budget, leakDetection);
+        BufferPool capturePool = new BufferPool(budget, false, leakDetection);
+        bufferPool.setLeakReporter(leakReporter);
+        bitmapPool.setLeakReporter(leakReporter);
+        capturePool.setLeakReporter(leakReporter);
+        cameraManager.setPools(capturePool, bitmapPool);
+        // Live frames: camera -> inference -> dispatch, each stage on its own thread. Stale frames
+        // are dropped so the camera never waits; results are never dropped
+        this.framePipeline = new FramePipeline(session, this::publishFrameScores,
+                2, DropPolicy.DROP_OLDEST, 8, DropPolicy.BLOCK, bufferPool);
+        framePipeline.start();
+        session.setFramePipeline(framePipeline);
+        session.addCloseable(framePipeline);
+        cameraManager.setAnalyzer(framePipeline::submitFrame);
+    }
+
+    /**
+     * Returns a builder configured with the app's production model, labels and engine, so
+     * every interpreter the app creates, in process or in InterpreterService, classifies alike.
+     * The labels are read from labels.txt in the assets folder; if it cannot be read, the
+     * builder has no labels and the failure is logged.
+     *
+     * @param context The context used to load the model and labels from the assets folder.
+     * @return A new builder; callers may still adjust threads and delegate.
+     */
+    public static TensorFlowModelBuilder createModelBuilder(Context context) {
+        TensorFlowModelBuilder builder = new TensorFlowModelBuilder(context)
+                .setModelPath("detect.tflite")
+                .setNumThreads(4);
+        try {
+            builder.setLabels(FileUtil.loadLabels(context, "labels.txt"));
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to load the model labels", e);
+        }
+        return builder;
+    }
+
+    // Exposes the stage queue depths and drop counters
+    public FramePipeline getFramePipeline() {
+        return framePipeline;
+    }
+
+    // Register the returned session with the host lifecycle to get pause/resume handling
+    public InterpreterSession getSession() {
+        return session;
     }
 
     public void addObserver(Observer observer) {
         observers.add(observer);
     }
 
+    // Snapshot-safe view of the registered observers
+    public List<Observer> getObservers() {
+        return Collections.unmodifiableList(observers);
+    }
+
     public void startCamera(Context context) {
-        cameraManager.startCamera(context);
+        session.startCamera();
+    }
+
+    /**
+     * Flips between the front and the back camera. The model, the frame pipeline, the pools
+     * and the observers stay as they are; only the camera use cases are rebound.
+     *
+     * @return False if the other camera does not exist or a recording is running.
+     */
+    public boolean switchCamera() {
+        int lensFacing = cameraManager.getLensFacing() == CameraSelector.LENS_FACING_FRONT
+                ? CameraSelector.LENS_FACING_BACK
+                : CameraSelector.LENS_FACING_FRONT;
+        return session.switchCamera(lensFacing);
     }
 
     public List<String> classifyImage(Bitmap bitmap, int rotation) {
-        List<String> results = model.classify(bitmap, rotation);
+        return classifyImage(bitmap, rotation, SystemClock.elapsedRealtimeNanos());
+    }
+
+    /**
+     * Classifies a frame and notifies observers with both the formatted results and the
+     * structured top-1 Recognition. The model runs on the session's model thread, which a GPU
+     * delegate requires, and this call waits for it, so the Bitmap may be reused on return.
+     * Must not be called on the model thread itself.
+     *
+     * @param bitmap         The frame to classify.
+     * @param rotation       The frame rotation in degrees.
+     * @param timestampNanos The time the frame was taken, on the elapsedRealtimeNanos timebase.
+     * @return The formatted results, best first.
+     * @throws IllegalStateException If the model thread does not run the frame in time.
+     */
+    public List<String> classifyImage(Bitmap bitmap, int rotation, long timestampNanos) {
+        FutureTask<float[]> inference = new FutureTask<>(() -> session.getModel().classifyScores(bitmap, rotation));
+        session.runOnModelThread(inference);
+        float[] scores = awaitModelThread(inference);
+        return publishScores(scores, timestampNanos);
+    }
+
+    // Waits for a task posted to the model thread, rethrowing what it threw
+    private static <T> T awaitModelThread(FutureTask<T> task) {
+        try {
+            return task.get(MODEL_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            // E.g. the pipeline was closed; a task not started yet never reads the frame
+            task.cancel(false);
+            throw new IllegalStateException("Model thread did not run the frame", e);
+        } catch (InterruptedException e) {
+            task.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the model thread", e);
+        }
+    }
+
+    // Formats the scores and notifies all observers; runs on the dispatch thread for live frames
+    private List<String> publishScores(float[] scores, long timestampNanos) {
+        TensorFlowModel model = session.getModel();
+        List<String> results = model.formatResults(scores);
         notifyObservers(results.toString());
+        notifyRecognitionObservers(Recognition.fromScores(timestampNanos, scores, model.getLabels()));
         return results;
     }
 
+    /**
+     * Teaches the landmark engine the current user's version of a handshape. Only supported
+     * when the session's model was built with the LANDMARK_KNN engine. The sample stays in the
+     * builder's reference set, so it survives the rebuilds of the quality governor.
+     *
+     * @param bitmap     A frame showing the handshape.
+     * @param rotation   The clockwise rotation in degrees that makes the frame upright.
+     * @param labelIndex The label the handshape stands for.
+     * @return True if a hand was found and the sample added.
+     * @throws IllegalArgumentException If the label index is not one of the model's labels.
+     */
+    public boolean addUserSample(Bitmap bitmap, int rotation, int labelIndex) {
+        TensorFlowModel model = session.getModel();
+        if (!(model instanceof LandmarkModel)) {
+            throw new IllegalStateException("User samples need the LANDMARK_KNN engine");
+        }
+        return ((LandmarkModel) model).addSample(bitmap, rotation, labelIndex);
+    }
+
+    // Live frames also feed the word decoder, which needs them in order on a single thread
+    private void publishFrameScores(float[] scores, long timestampNanos, long frameId) {
+        FrameTracer.begin(FrameTracer.Stage.DISPATCH, frameId);
+        try {
+            publishScores(scores, timestampNanos);
+            WordDecoder decoder = wordDecoder;
+            if (decoder != null) {
+                decoder.onScores(scores, timestampNanos);
+            }
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.DISPATCH, frameId);
+        }
+    }
+
     public void takePhoto(Context context) {
         cameraManager.takePhoto(context);
         cameraManager.setOnPhotoSavedCallback(this::notifyPhotoObservers);
     }
 
+    /**
+     * Captures a photo straight into classification at model resolution. Used by drill mode,
+     * where the disk round-trip of takePhoto would dominate latency. If the model is not
+     * loaded yet, the capture is taken once it is. Must be called on the main thread.
+     *
+     * @param context          The context used for the capture.
+     * @param saveToMediaStore Whether to also save the JPEG, asynchronously in the background.
+     */
+    public void takePhotoForClassification(Context context, boolean saveToMediaStore) {
+        TensorFlowModel model = session.getLoadedModel();
+        if (model == null) {
+            // Never load the model here on the main thread: capture once the model thread has
+            session.runOnModelThread(() -> {
+                try {
+                    session.getModel();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Failed to load the model", e);
+                    return;
+                }
+                new Handler(Looper.getMainLooper()).post(() ->
+                        takePhotoForClassification(context, saveToMediaStore));
+            });
+            return;
+        }
+        cameraManager.setOnPhotoSavedCallback(this::notifyPhotoObservers);
+        // The Bitmap is pooled and returned by the camera manager after the callback
+        cameraManager.setOnPhotoCapturedCallback(this::classifyImage);
+        cameraManager.takePhotoInMemory(context, model.getInputWidth(), model.getInputHeight(), saveToMediaStore);
+    }
+
+    /**
+     * Switches between photo mode and recording with concurrent live analysis. Takes effect
+     * immediately when the camera is bound, otherwise on the next resume. Refused while a
+     * recording is running; stop it with captureVideo first.
+     *
+     * @param enabled      Whether to record video alongside the analysis stream.
+     * @param videoQuality The preferred recording quality; lower qualities are used as fallback.
+     * @return False if a recording is running and nothing was changed.
+     */
+    public boolean setRecordingMode(boolean enabled, Quality videoQuality) {
+        if (cameraManager.isRecording()) {
+            Log.w(TAG, "Recording in progress, keeping the current binding mode");
+            return false;
+        }
+        cameraManager.setVideoQuality(videoQuality);
+        cameraManager.setBindingMode(enabled
+                ? CameraXManager.BindingMode.RECORD_AND_ANALYZE
+                : CameraXManager.BindingMode.PHOTO);
+        session.rebindCamera();
+        return true;
+    }
+
+    /**
+     * Streams committed results into a WebVTT file next to every recording, written
+     * incrementally while recording and finalized together with the MP4.
+     *
+     * @param context The context used to resolve the app's movies directory.
+     * @return The subtitle observer, already registered with this facade and closed with the session.
+     */
+    public SubtitleObserver enableSubtitles(Context context) {
+        SubtitleObserver subtitleObserver = new SubtitleObserver(
+                context.getExternalFilesDir(Environment.DIRECTORY_MOVIES),
+                SubtitleObserver.Format.WEBVTT, 0.5f);
+        subtitleObserver.setListener(new SubtitleObserver.Listener() {
+            @Override
+            public void onTrackFinished(File track) {
+                Log.d(TAG, "Subtitles written to " + track);
+            }
+
+            @Override
+            public void onWriteFailed(File track, IOException error) {
+                Log.e(TAG, "Failed to write subtitle track " + track, error);
+            }
+        });
+        addObserver(subtitleObserver);
+        cameraManager.setOnRecordEventCallback(subtitleObserver::onRecordEvent);
+        session.addCloseable(subtitleObserver);
+        return subtitleObserver;
+    }
+
+    /**
+     * Persists every recognition of this session to a memory-mapped transcript under
+     * files/transcripts/<session start>, readable later with TranscriptReader.
+     *
+     * @param context The context used to resolve the app's files directory.
+     * @return The transcript observer, already registered and closed with the session.
+     * @throws IOException If the transcript cannot be created.
+     */
+    public TranscriptObserver enableTranscript(Context context) throws IOException {
+        String name = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss-SSS", Locale.US)
+                .format(System.currentTimeMillis());
+        File directory = new File(new File(context.getFilesDir(), "transcripts"), name);
+        TranscriptObserver transcriptObserver = new TranscriptObserver(new TranscriptLog(directory));
+        addObserver(transcriptObserver);
+        session.addCloseable(transcriptObserver);
+        return transcriptObserver;
+    }
+
+    /**
+     * Syncs this session's results to a backend in batches of up to 100 records or every
+     * 30 seconds. Records are queued durably under files/sync first, so results from offline
+     * sessions are delivered on a later run.
+     *
+     * @param context   The context used to resolve the app's files directory.
+     * @param backend   The backend receiving the batches, e.g. a FirestoreSyncBackend.
+     * @param sessionId The id the results are stored under.
+     * @return The running syncer, also usable for telemetry; stopped with the session.
+     * @throws IOException If the durable queue cannot be opened.
+     */
+    public ResultSyncer enableSync(Context context, SyncBackend backend, String sessionId) throws IOException {
+        SyncQueue queue = new SyncQueue(new File(context.getFilesDir(), "sync"));
+        ResultSyncer syncer = new ResultSyncer(queue, backend, sessionId, 100, 30_000, 1_000, 5 * 60_000);
+        syncer.setListener(new ResultSyncer.Listener() {
+            @Override
+            public void onUploadFailed(int consecutiveFailures, long retryMillis, Exception error) {
+                Log.w(TAG, "Sync failed " + consecutiveFailures + " times, retrying in " + retryMillis + " ms", error);
+            }
+
+            @Override
+            public void onPersistFailed(IOException error) {
+                Log.e(TAG, "Failed to persist pending sync records", error);
+            }
+        });
+        syncer.start();
+        addObserver(new SyncObserver(syncer));
+        session.addCloseable(syncer);
+        return syncer;
+    }
+
+    /**
+     * Adapts inference rate, analysis resolution, interpreter threads and delegate to the
+     * device's thermal status, battery saver and measured latency, using the default ladder.
+     *
+     * @param context The context used to read the power state.
+     * @return The running governor, stopped with the session.
+     */
+    public QualityGovernor enableQualityGovernor(Context context) {
+        return enableQualityGovernor(new AndroidDeviceConditions(context), QualityLadder.defaultLadder());
+    }
+
+    /**
+     * Adapts the pipeline along a custom ladder, re-evaluated every second.
+     *
+     * @param conditions The platform signals to watch.
+     * @param ladder     The levels from best to lowest quality.
+     * @return The running governor, stopped with the session.
+     */
+    public QualityGovernor enableQualityGovernor(DeviceConditions conditions, QualityLadder ladder) {
+        QualityGovernor governor = new QualityGovernor(conditions, ladder, (level, index, reason) -> {
+            Log.i(TAG, "Quality " + level + ": " + reason);
+            applyQualityLevel(level);
+        });
+        // Only posts work, so this is safe on the main thread
+        applyQualityLevel(governor.getLevel());
+        governor.start(framePipeline::getAverageInferenceMillis, 1_000);
+        session.addCloseable(governor);
+        return governor;
+    }
+
+    // Never blocks: the interpreter is rebuilt on the inference worker that runs it, and camera
+    // rebinding has to happen on the main thread
+    private void applyQualityLevel(QualityLevel level) {
+        framePipeline.setMinFrameIntervalNanos(level.getMinFrameIntervalNanos());
+        session.runOnModelThread(() -> session.reconfigureModel(level.getNumThreads(), level.getDelegate()));
+        new Handler(Looper.getMainLooper()).post(() ->
+                session.setAnalysisSize(level.getAnalysisWidth(), level.getAnalysisHeight()));
+    }
+
+    /**
+     * Runs a candidate model in shadow next to the production model on a sampled fraction of
+     * live frames, on a single low-priority thread capped at the given share of one core.
+     * Results of the candidate are only recorded in the evaluator's metrics, never published.
+     *
+     * @param context    The context used to load the candidate from the assets folder.
+     * @param modelPath  The candidate's model file, relative to the assets folder.
+     * @param sampleRate The share of frames to classify with the candidate, e.g. 0.1.
+     * @param cpuBudget  The share of one core the candidate may use, e.g. 0.15.
+     * @return The evaluator; its report is logged when the session is destroyed.
+     */
+    public ShadowEvaluator enableShadowModel(Context context, String modelPath, double sampleRate, double cpuBudget) {
+        Context appContext = context.getApplicationContext();
+        // Built on the shadow thread, which runs every candidate inference
+        ShadowEvaluator evaluator = new ShadowEvaluator(() -> new TensorFlowModelBuilder(appContext)
+                .setModelPath(modelPath)
+                .setLabels(session.getModel().getLabels())
+                .setNumThreads(1)
+                .build(), sampleRate, cpuBudget);
+        evaluator.setListener(new ShadowEvaluator.Listener() {
+            @Override
+            public void onCandidateFailed(Exception error) {
+                Log.e(TAG, "Shadow model " + modelPath + " failed", error);
+            }
+
+            @Override
+            public void onClosed(ShadowMetrics metrics) {
+                Log.i(TAG, metrics.getReport());
+            }
+        });
+        evaluator.start();
+        framePipeline.setShadowEvaluator(evaluator);
+        session.addCloseable(evaluator);
+        return evaluator;
+    }
+
+    /**
+     * Creates a performance overlay fed from the live pipeline's counters and registers it as
+     * an observer. It starts hidden; show it with setEnabled or toggle on the main thread.
+     *
+     * @param display Shows the overlay text on the main thread.
+     * @return The overlay observer.
+     */
+    public PerformanceHudObserver createPerformanceHud(PerformanceHudObserver.Display display) {
+        // Two samples per second keep the numbers readable and the cost negligible
+        PerformanceHudObserver hud = new PerformanceHudObserver(framePipeline, session, display, 500);
+        addObserver(hud);
+        return hud;
+    }
+
+    /**
+     * Starts recording the live frames that reach inference, at analysis resolution with their
+     * timestamps and rotation, e.g. to attach a reproducible trace to a performance report.
+     * Replaces any recording in progress.
+     *
+     * @param file The file to record into.
+     * @return The recorder, e.g. to check its dropped frame count.
+     * @throws IOException If the file cannot be created.
+     */
+    public synchronized FrameRecorder startRecording(File file) throws IOException {
+        stopRecording();
+        // 4 MiB chunks hold about 20 frames at 224x224; up to 4 may wait for the disk
+        FrameRecorder recorder = new FrameRecorder(file, 4 * 1024 * 1024, 4);
+        frameRecorder = recorder;
+        framePipeline.setFrameRecorder(recorder);
+        session.addCloseable(recorder);
+        return recorder;
+    }
+
+    /**
+     * Stops the recording in progress, if any, and finishes its file.
+     */
+    public synchronized void stopRecording() {
+        if (frameRecorder == null) {
+            return;
+        }
+        FrameRecorder recorder = frameRecorder;
+        frameRecorder = null;
+        framePipeline.setFrameRecorder(null);
+        session.removeCloseable(recorder);
+        try {
+            recorder.close();
+            Log.d(TAG, "Recorded " + recorder.getRecordedCount() + " frames, dropped "
+                    + recorder.getDroppedCount() + ", " + recorder.getWrittenBytes() + " bytes");
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to finish the frame recording", e);
+        }
+    }
+
+    /**
+     * Starts per-frame tracing of the live pipeline: trace sections for Perfetto or systrace
+     * and, if a file is given, a binary trace for TraceConverter. Replaces any running trace.
+     *
+     * @param file The binary trace to write, or null for trace sections only.
+     * @return The tracer, e.g. to check its dropped event count.
+     * @throws IOException If the file cannot be created.
+     */
+    public synchronized FrameTracer startTracing(File file) throws IOException {
+        stopTracing();
+        FrameTracer tracer = FrameTracer.start(file, true, new FrameTracer.Listener() {
+            @Override
+            public void onWriteFailed(IOException error) {
+                Log.e(TAG, "Failed to write trace " + file, error);
+            }
+
+            @Override
+            public void onClosed(long droppedEvents) {
+                if (droppedEvents > 0) {
+                    Log.w(TAG, droppedEvents + " trace events dropped from " + file);
+                }
+            }
+        });
+        frameTracer = tracer;
+        session.addCloseable(tracer);
+        return tracer;
+    }
+
+    /**
+     * Stops per-frame tracing and finishes the binary trace, if any.
+     */
+    public synchronized void stopTracing() {
+        if (frameTracer == null) {
+            return;
+        }
+        FrameTracer tracer = frameTracer;
+        frameTracer = null;
+        session.removeCloseable(tracer);
+        tracer.close();
+    }
+
+    /**
+     * Replays a recording through the session's model and the observers, as if the frames
+     * came from the camera. Each frame runs on the session's model thread, like live frames.
+     * Blocks until done; call off the main thread and off the model thread.
+     *
+     * @param file     A recording from startRecording.
+     * @param realTime Whether to pace the frames by their recorded timestamps.
+     * @return The throughput and latency of the replay.
+     * @throws IOException If the recording cannot be read.
+     */
+    public ReplayReport replayRecording(File file, boolean realTime) throws IOException {
+        FrameReplayer.FrameTarget target = (rgba, width, height, rotation, timestampNanos) -> {
+            // The replayer reuses the buffer after this returns, so wait for the model
+            FutureTask<float[]> inference = new FutureTask<>(() ->
+                    session.getModel().classifyScores(rgba, width, height, rotation));
+            session.runOnModelThread(inference);
+            publishScores(awaitModelThread(inference), timestampNanos);
+        };
+        ReplayReport report = new FrameReplayer(file).replay(target, realTime);
+        Log.d(TAG, "Replayed " + file.getName() + "\n" + report.getReport());
+        return report;
+    }
+
+    /**
+     * Decodes the live letter scores into words from a lexicon and notifies observers through
+     * onWord. The lexicon is a text asset with one word per line. The model's labels must
+     * include the letters; a "nothing" label is used as the blank between letters and a
+     * "space" label, if present, ends a word.
+     *
+     * @param context      The context used to read the lexicon from the assets folder.
+     * @param lexiconAsset The lexicon's path, relative to the assets folder.
+     * @return The decoder, e.g. to show the word being spelled with getPartial.
+     * @throws IOException If the lexicon cannot be read.
+     */
+    public WordDecoder enableWordDecoding(Context context, String lexiconAsset) throws IOException {
+        List<String> labels = session.getModel().getLabels();
+        if (labels == null) {
+            throw new IllegalStateException("Word decoding needs a model with labels");
+        }
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                context.getAssets().open(lexiconAsset), Charset.forName("UTF-8")))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        }
+        // 16 hypotheses is plenty for one word; a pause of about half a second also ends a word
+        WordDecoder decoder = new WordDecoder(LexiconTrie.build(words, labels), labels,
+                indexOfLabel(labels, "nothing"), indexOfLabel(labels, "space"),
+                16, 0.8f, 0.01f, 15, this::notifyWordObservers);
+        wordDecoder = decoder;
+        return decoder;
+    }
+
+    private static int indexOfLabel(List<String> labels, String name) {
+        for (int i = 0; i < labels.size(); i++) {
+            if (name.equalsIgnoreCase(labels.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public void captureVideo(Context context) {
         cameraManager.captureVideo(context);
         cameraManager.setOnVideoSavedCallback(this::notifyVideoObservers);
@@ -50,7 +626,34 @@ public class SignLanguageInterpreterFacade {
 
     private void notifyObservers(String result) {
         for (Observer observer : observers) {
-            observer.update(result);
+            FrameTracer.begin(FrameTracer.Stage.OBSERVER);
+            try {
+                observer.update(result);
+            } finally {
+                FrameTracer.end(FrameTracer.Stage.OBSERVER);
+            }
+        }
+    }
+
+    private void notifyRecognitionObservers(Recognition recognition) {
+        for (Observer observer : observers) {
+            FrameTracer.begin(FrameTracer.Stage.OBSERVER);
+            try {
+                observer.onRecognition(recognition);
+            } finally {
+                FrameTracer.end(FrameTracer.Stage.OBSERVER);
+            }
+        }
+    }
+
+    private void notifyWordObservers(String word, float confidence, long timestampNanos) {
+        for (Observer observer : observers) {
+            FrameTracer.begin(FrameTracer.Stage.OBSERVER);
+            try {
+                observer.onWord(word, confidence);
+            } finally {
+                FrameTracer.end(FrameTracer.Stage.OBSERVER);
+            }
         }
     }
 
@@ -0,0 +1,35 @@
+package com.example.signlanguageinterpreter.governor;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+
+/**
+ * DeviceConditions read from the system PowerManager. Thermal status is only reported from
+ * Android 10; older devices are treated as never throttling and rely on measured latency.
+ */
+public class AndroidDeviceConditions implements DeviceConditions {
+    private final PowerManager powerManager; // Source of the thermal and battery saver state
+
+    /**
+     * Constructor for AndroidDeviceConditions.
+     *
+     * @param context The context used to get the PowerManager.
+     */
+    public AndroidDeviceConditions(Context context) {
+        this.powerManager = (PowerManager) context.getApplicationContext().getSystemService(Context.POWER_SERVICE);
+    }
+
+    @Override
+    public int getThermalStatus() {
+        if (powerManager == null || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return THERMAL_NONE;
+        }
+        return powerManager.getCurrentThermalStatus();
+    }
+
+    @Override
+    public boolean isPowerSaveMode() {
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.signlanguageinterpreter.governor;
+
+/**
+ * Platform signals the QualityGovernor reacts to. Kept behind an interface so tests can
+ * drive the governor without a device.
+ */
+public interface DeviceConditions {
+    // Thermal levels, matching the PowerManager.THERMAL_STATUS_* constants
+    int THERMAL_NONE = 0;
+    int THERMAL_LIGHT = 1;
+    int THERMAL_MODERATE = 2;
+    int THERMAL_SEVERE = 3;
+    int THERMAL_CRITICAL = 4;
+    int THERMAL_EMERGENCY = 5;
+    int THERMAL_SHUTDOWN = 6;
+
+    /**
+     * Returns the current thermal status.
+     *
+     * @return One of the THERMAL_* levels; THERMAL_NONE if the platform does not report it.
+     */
+    int getThermalStatus();
+
+    /**
+     * Returns whether battery saver is on.
+     *
+     * @return True if the device is in power save mode.
+     */
+    boolean isPowerSaveMode();
+}
@@ -0,0 +1,194 @@
+package com.example.signlanguageinterpreter.governor;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves the pipeline along a QualityLadder as the device heats up, enters battery saver or
+ * falls behind. Thermal status and battery saver set a ceiling that is applied immediately;
+ * below it the governor steps down one level when the measured inference latency exceeds the
+ * current level's frame budget, and back up one level when latency has stayed well under
+ * budget for a while. Steps are separated by dwell times so the level does not oscillate.
+ */
+public class QualityGovernor implements Closeable {
+    private static final String TAG = "QualityGovernor";
+    private static final long DEFAULT_DOWN_DWELL_MILLIS = 2_000;
+    private static final long DEFAULT_UP_DWELL_MILLIS = 10_000;
+    private static final double DEFAULT_HEADROOM_RATIO = 0.5;
+
+    /**
+     * Applies a new level; called on the thread that ran evaluate. The reason is meant for
+     * logs, which the governor leaves to the listener.
+     */
+    public interface Listener {
+        void onLevelChanged(QualityLevel level, int index, String reason);
+    }
+
+    /**
+     * Provides the recent average inference latency.
+     */
+    public interface LatencySource {
+        // Returns a negative value while no latency has been measured
+        double getAverageLatencyMillis();
+    }
+
+    private final DeviceConditions conditions; // Thermal and battery saver state
+    private final QualityLadder ladder; // Levels from best to lowest
+    private final Listener listener; // Applies level changes
+    private long downDwellMillis = DEFAULT_DOWN_DWELL_MILLIS; // Minimum time between latency step downs
+    private long upDwellMillis = DEFAULT_UP_DWELL_MILLIS; // Minimum time at a level before stepping up
+    private double headroomRatio = DEFAULT_HEADROOM_RATIO; // Latency share of the budget that allows a step up
+    private int levelIndex; // Index of the current level
+    private long lastChangeMillis; // Time of the last level change
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor for QualityGovernor. Starts at the best level of the ladder.
+     *
+     * @param conditions The platform signals to watch.
+     * @param ladder     The levels to move along.
+     * @param listener   Applies level changes to the pipeline.
+     */
+    public QualityGovernor(DeviceConditions conditions, QualityLadder ladder, Listener listener) {
+        this.conditions = conditions;
+        this.ladder = ladder;
+        this.listener = listener;
+    }
+
+    /**
+     * Sets how long the governor waits between latency-driven steps.
+     *
+     * @param downDwellMillis The minimum time between steps down.
+     * @param upDwellMillis   The minimum time at a level before stepping up.
+     * @return The current instance of QualityGovernor.
+     */
+    public synchronized QualityGovernor setDwellMillis(long downDwellMillis, long upDwellMillis) {
+        this.downDwellMillis = downDwellMillis;
+        this.upDwellMillis = upDwellMillis;
+        return this;
+    }
+
+    /**
+     * Sets the latency, as a share of the frame budget, under which the governor steps up.
+     *
+     * @param headroomRatio A ratio between 0 and 1.
+     * @return The current instance of QualityGovernor.
+     */
+    public synchronized QualityGovernor setHeadroomRatio(double headroomRatio) {
+        this.headroomRatio = headroomRatio;
+        return this;
+    }
+
+    public synchronized int getLevelIndex() {
+        return levelIndex;
+    }
+
+    public synchronized QualityLevel getLevel() {
+        return ladder.get(levelIndex);
+    }
+
+    public QualityLadder getLadder() {
+        return ladder;
+    }
+
+    /**
+     * Returns the best level index the device currently allows.
+     *
+     * @return The ceiling imposed by thermal status and battery saver.
+     */
+    public int getCeilingIndex() {
+        int lowest = ladder.getLowestIndex();
+        int thermal = conditions.getThermalStatus();
+        // Spread the levels over NONE..CRITICAL; CRITICAL and above pin the lowest level
+        int ceiling = thermal >= DeviceConditions.THERMAL_CRITICAL
+                ? lowest
+                : Math.max(0, thermal) * lowest / DeviceConditions.THERMAL_CRITICAL;
+        if (conditions.isPowerSaveMode()) {
+            ceiling = Math.max(ceiling, ladder.getPowerSaveIndex());
+        }
+        return ceiling;
+    }
+
+    /**
+     * Re-evaluates the level. Called periodically by start; tests call it directly.
+     *
+     * @param nowMillis     The current time in milliseconds.
+     * @param latencyMillis The recent average inference latency, or a negative value if unknown.
+     * @return The index of the level in effect after this evaluation.
+     */
+    public int evaluate(long nowMillis, double latencyMillis) {
+        QualityLevel changed;
+        int index;
+        String reason;
+        synchronized (this) {
+            int ceiling = getCeilingIndex();
+            int target = levelIndex;
+            long sinceChange = nowMillis - lastChangeMillis;
+            double budget = ladder.get(levelIndex).getFrameBudgetMillis();
+            if (levelIndex < ceiling) {
+                target = ceiling;
+                reason = conditions.isPowerSaveMode() ? "power save" : "thermal " + conditions.getThermalStatus();
+            } else if (latencyMillis > budget && sinceChange >= downDwellMillis) {
+                target = Math.min(levelIndex + 1, ladder.getLowestIndex());
+                reason = "latency " + Math.round(latencyMillis) + " ms over " + Math.round(budget) + " ms budget";
+            } else if (latencyMillis >= 0 && latencyMillis < budget * headroomRatio
+                    && sinceChange >= upDwellMillis && levelIndex > ceiling) {
+                target = levelIndex - 1;
+                reason = "latency " + Math.round(latencyMillis) + " ms under " + Math.round(budget) + " ms budget";
+            } else {
+                return levelIndex;
+            }
+            if (target == levelIndex) {
+                return levelIndex;
+            }
+            levelIndex = target;
+            lastChangeMillis = nowMillis;
+            changed = ladder.get(target);
+            index = target;
+        }
+        // Outside the lock: applying a level may rebuild the interpreter
+        listener.onLevelChanged(changed, index, reason);
+        return index;
+    }
+
+    /**
+     * Starts evaluating on a background thread at a fixed period.
+     *
+     * @param latencySource The source of the measured inference latency.
+     * @param periodMillis  The time between evaluations.
+     */
+    public synchronized void start(LatencySource latencySource, long periodMillis) {
+        if (executor != null) {
+            return;
+        }
+        lastChangeMillis = SystemClock.elapsedRealtime();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "quality-governor");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                evaluate(SystemClock.elapsedRealtime(), latencySource.getAverageLatencyMillis());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Failed to apply quality level", e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic evaluation.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.signlanguageinterpreter.governor;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of QualityLevels from the highest quality (index 0) to the lowest. The
+ * governor only ever moves one rung at a time, except when thermal status or battery saver
+ * impose a ceiling.
+ */
+public class QualityLadder {
+    private final List<QualityLevel> levels; // Highest quality first
+    private final int powerSaveIndex; // Best level allowed while battery saver is on
+
+    private QualityLadder(List<QualityLevel> levels, int powerSaveIndex) {
+        this.levels = Collections.unmodifiableList(levels);
+        this.powerSaveIndex = powerSaveIndex;
+    }
+
+    /**
+     * Returns the ladder used when none is configured: full rate on four CPU threads down to
+     * five frames per second on one thread at the model's own input size.
+     *
+     * @return The default ladder.
+     */
+    public static QualityLadder defaultLadder() {
+        return new Builder()
+                .addLevel(new QualityLevel("full", 30, 640, 480, 4, TensorFlowModelBuilder.Delegate.CPU))
+                .addLevel(new QualityLevel("reduced", 15, 480, 360, 2, TensorFlowModelBuilder.Delegate.CPU))
+                .addLevel(new QualityLevel("low", 10, 0, 0, 2, TensorFlowModelBuilder.Delegate.CPU))
+                .addLevel(new QualityLevel("minimal", 5, 0, 0, 1, TensorFlowModelBuilder.Delegate.CPU))
+                .setPowerSaveIndex(2)
+                .build();
+    }
+
+    public QualityLevel get(int index) {
+        return levels.get(index);
+    }
+
+    public int size() {
+        return levels.size();
+    }
+
+    public int getLowestIndex() {
+        return levels.size() - 1;
+    }
+
+    public int getPowerSaveIndex() {
+        return powerSaveIndex;
+    }
+
+    /**
+     * Builder for QualityLadder. Levels are added from the highest quality to the lowest.
+     */
+    public static class Builder {
+        private final List<QualityLevel> levels = new ArrayList<>();
+        private int powerSaveIndex = -1;
+
+        public Builder addLevel(QualityLevel level) {
+            levels.add(level);
+            return this;
+        }
+
+        /**
+         * Sets the best level allowed while battery saver is on. Defaults to the middle of
+         * the ladder.
+         *
+         * @param powerSaveIndex The level index.
+         * @return The current instance of Builder.
+         */
+        public Builder setPowerSaveIndex(int powerSaveIndex) {
+            this.powerSaveIndex = powerSaveIndex;
+            return this;
+        }
+
+        public QualityLadder build() {
+            if (levels.isEmpty()) {
+                throw new IllegalStateException("A quality ladder needs at least one level");
+            }
+            int index = powerSaveIndex < 0 ? levels.size() / 2 : Math.min(powerSaveIndex, levels.size() - 1);
+            return new QualityLadder(new ArrayList<>(levels), index);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.signlanguageinterpreter.governor;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+
+/**
+ * One rung of a QualityLadder: how often frames are classified, at what analysis resolution,
+ * and with which interpreter configuration.
+ */
+public class QualityLevel {
+    private final String name; // Used in logs
+    private final int maxFps; // Upper bound on classified frames per second
+    private final int analysisWidth; // Requested analysis width, 0 for the model's input size
+    private final int analysisHeight; // Requested analysis height, 0 for the model's input size
+    private final int numThreads; // Interpreter threads
+    private final TensorFlowModelBuilder.Delegate delegate; // Interpreter hardware
+
+    /**
+     * Constructor for QualityLevel.
+     *
+     * @param name           The level name.
+     * @param maxFps         The maximum number of frames classified per second.
+     * @param analysisWidth  The analysis width in pixels, or 0 to use the model's input size.
+     * @param analysisHeight The analysis height in pixels, or 0 to use the model's input size.
+     * @param numThreads     The number of interpreter threads.
+     * @param delegate       The interpreter delegate.
+     */
+    public QualityLevel(String name, int maxFps, int analysisWidth, int analysisHeight,
+                        int numThreads, TensorFlowModelBuilder.Delegate delegate) {
+        if (maxFps <= 0 || numThreads <= 0) {
+            throw new IllegalArgumentException("maxFps and numThreads must be positive");
+        }
+        this.name = name;
+        this.maxFps = maxFps;
+        this.analysisWidth = analysisWidth;
+        this.analysisHeight = analysisHeight;
+        this.numThreads = numThreads;
+        this.delegate = delegate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxFps() {
+        return maxFps;
+    }
+
+    public int getAnalysisWidth() {
+        return analysisWidth;
+    }
+
+    public int getAnalysisHeight() {
+        return analysisHeight;
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public TensorFlowModelBuilder.Delegate getDelegate() {
+        return delegate;
+    }
+
+    // Time available to classify one frame at this level
+    public long getFrameBudgetMillis() {
+        return 1000L / maxFps;
+    }
+
+    // Minimum spacing between classified frames
+    public long getMinFrameIntervalNanos() {
+        return 1_000_000_000L / maxFps;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + maxFps + " fps, " + analysisWidth + "x" + analysisHeight
+                + ", " + numThreads + " threads, " + delegate + ")";
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.signlanguageinterpreter.landmark;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Nearest-neighbor index over fixed-length feature vectors. All vectors live in one flat
+ * float array, so a search is a tight loop over contiguous memory that the runtime can
+ * vectorize. For large reference sets an optional coarse quantizer (k-means centroids with
+ * an inverted list per centroid) restricts a search to the vectors near the closest
+ * centroids. Vectors can be added at any time, e.g. user-specific samples; they are assigned
+ * to their nearest centroid if a quantizer is built. All methods are thread safe.
+ */
+public class KnnIndex {
+    private static final int MAGIC = 0x4B4E4E31; // "KNN1"
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_DIMENSION = 4096; // Larger stored dimensions are taken as corruption
+
+    private final int dimension; // Length of every vector
+    private float[] vectors; // size x dimension values, vector i starting at i * dimension
+    private int[] labels; // Label index of every vector
+    private int size; // Number of vectors
+
+    // Coarse quantizer, null until built
+    private float[] centroids; // listCount x dimension values
+    private int[][] lists; // Vector ids per centroid
+    private int[] listSizes; // Used entries of every list
+
+    /**
+     * Constructor for KnnIndex.
+     *
+     * @param dimension The length of the feature vectors, at least 1.
+     */
+    public KnnIndex(int dimension) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("Dimension must be at least 1, got " + dimension);
+        }
+        this.dimension = dimension;
+        this.vectors = new float[INITIAL_CAPACITY * dimension];
+        this.labels = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a reference vector.
+     *
+     * @param vector The feature vector; copied.
+     * @param label  The label index of the vector, at least 0.
+     * @return The id of the vector.
+     */
+    public synchronized int add(float[] vector, int label) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " values, got " + vector.length);
+        }
+        if (label < 0) {
+            throw new IllegalArgumentException("Invalid label " + label);
+        }
+        if (size == labels.length) {
+            labels = Arrays.copyOf(labels, size * 2);
+            vectors = Arrays.copyOf(vectors, size * 2 * dimension);
+        }
+        System.arraycopy(vector, 0, vectors, size * dimension, dimension);
+        labels[size] = label;
+        if (centroids != null) {
+            appendToList(nearestCentroid(vector), size);
+        }
+        return size++;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int getLabel(int id) {
+        return labels[id];
+    }
+
+    // The largest label index of any vector, or -1 if the index is empty
+    public synchronized int getMaxLabel() {
+        int max = -1;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, labels[i]);
+        }
+        return max;
+    }
+
+    public synchronized boolean hasQuantizer() {
+        return centroids != null;
+    }
+
+    /**
+     * Clusters the current vectors with k-means and builds an inverted list per centroid.
+     *
+     * @param listCount  The number of centroids, at most the number of vectors.
+     * @param iterations The number of k-means iterations.
+     * @param seed       The seed choosing the initial centroids.
+     */
+    public synchronized void buildQuantizer(int listCount, int iterations, long seed) {
+        listCount = Math.min(listCount, size);
+        if (listCount <= 0) {
+            return;
+        }
+        float[] means = new float[listCount * dimension];
+        // Start from distinct random vectors
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int c = 0; c < listCount; c++) {
+            int pick = c + random.nextInt(size - c);
+            int tmp = ids[c];
+            ids[c] = ids[pick];
+            ids[pick] = tmp;
+            System.arraycopy(vectors, ids[c] * dimension, means, c * dimension, dimension);
+        }
+        int[] assignment = new int[size];
+        int[] counts = new int[listCount];
+        for (int iteration = 0; iteration <= iterations; iteration++) {
+            for (int i = 0; i < size; i++) {
+                assignment[i] = nearest(means, listCount, vectors, i * dimension);
+            }
+            if (iteration == iterations) {
+                break;
+            }
+            Arrays.fill(means, 0f);
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                int c = assignment[i];
+                counts[c]++;
+                int base = i * dimension;
+                int mean = c * dimension;
+                for (int j = 0; j < dimension; j++) {
+                    means[mean + j] += vectors[base + j];
+                }
+            }
+            for (int c = 0; c < listCount; c++) {
+                int mean = c * dimension;
+                if (counts[c] == 0) {
+                    // Reseed an empty cluster with a random vector
+                    System.arraycopy(vectors, random.nextInt(size) * dimension, means, mean, dimension);
+                    continue;
+                }
+                float scale = 1f / counts[c];
+                for (int j = 0; j < dimension; j++) {
+                    means[mean + j] *= scale;
+                }
+            }
+        }
+        centroids = means;
+        lists = new int[listCount][];
+        listSizes = new int[listCount];
+        for (int c = 0; c < listCount; c++) {
+            lists[c] = new int[Math.max(4, counts[c])];
+        }
+        for (int i = 0; i < size; i++) {
+            appendToList(assignment[i], i);
+        }
+    }
+
+    /**
+     * Finds the k nearest vectors by squared Euclidean distance.
+     *
+     * @param query     The query vector.
+     * @param k         The number of neighbors, at least 1.
+     * @param probes    The number of closest centroids whose lists are searched; ignored
+     *                  without a quantizer, in which case every vector is searched.
+     * @param ids       Receives the neighbor ids, nearest first; at least k long.
+     * @param distances Receives the squared distances; at least k long.
+     * @return The number of neighbors found, at most k.
+     */
+    public synchronized int search(float[] query, int k, int probes, int[] ids, float[] distances) {
+        checkNeighbors(k);
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " values, got " + query.length);
+        }
+        int found = 0;
+        if (centroids == null) {
+            for (int i = 0; i < size; i++) {
+                found = offer(i, distance(query, vectors, i * dimension), k, found, ids, distances);
+            }
+            return found;
+        }
+        int listCount = listSizes.length;
+        probes = Math.max(1, Math.min(probes, listCount));
+        int[] probeIds = new int[probes];
+        float[] probeDistances = new float[probes];
+        int probeCount = 0;
+        for (int c = 0; c < listCount; c++) {
+            probeCount = offer(c, distance(query, centroids, c * dimension), probes, probeCount, probeIds, probeDistances);
+        }
+        for (int p = 0; p < probeCount; p++) {
+            int[] list = lists[probeIds[p]];
+            for (int e = 0, n = listSizes[probeIds[p]]; e < n; e++) {
+                int id = list[e];
+                found = offer(id, distance(query, vectors, id * dimension), k, found, ids, distances);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Scores every label by the inverse-distance weighted votes of the k nearest vectors.
+     *
+     * @param query      The query vector.
+     * @param k          The number of neighbors voting, at least 1.
+     * @param probes     The number of centroid lists searched when a quantizer is built.
+     * @param labelCount The number of labels, above every label in the index.
+     * @return The vote share of every label, summing to 1, or all zeros if the index is empty.
+     */
+    public float[] classify(float[] query, int k, int probes, int labelCount) {
+        checkNeighbors(k);
+        int[] ids = new int[k];
+        float[] distances = new float[k];
+        int found = search(query, k, probes, ids, distances);
+        float[] scores = new float[labelCount];
+        float total = 0;
+        for (int i = 0; i < found; i++) {
+            float weight = 1f / (float) (Math.sqrt(distances[i]) + 1e-6);
+            scores[getLabel(ids[i])] += weight;
+            total += weight;
+        }
+        if (total > 0) {
+            for (int i = 0; i < labelCount; i++) {
+                scores[i] /= total;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the vectors and labels; the quantizer is not stored and can be rebuilt on load.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(dimension);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(labels[i]);
+            int base = i * dimension;
+            for (int j = 0; j < dimension; j++) {
+                out.writeFloat(vectors[base + j]);
+            }
+        }
+    }
+
+    /**
+     * Reads an index written by writeTo.
+     *
+     * @param in The stream to read from.
+     * @return The index, without a quantizer.
+     * @throws IOException If the stream is not a KnnIndex, is truncated or holds an invalid header.
+     */
+    public static KnnIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a kNN reference set");
+        }
+        int dimension = in.readInt();
+        int count = in.readInt();
+        if (dimension < 1 || dimension > MAX_DIMENSION) {
+            throw new IOException("Invalid vector dimension " + dimension);
+        }
+        if (count < 0 || (long) count * dimension > Integer.MAX_VALUE) {
+            throw new IOException("Invalid vector count " + count);
+        }
+        KnnIndex index = new KnnIndex(dimension);
+        float[] vector = new float[dimension];
+        for (int i = 0; i < count; i++) {
+            int label = in.readInt();
+            if (label < 0) {
+                throw new IOException("Invalid label " + label + " of vector " + i);
+            }
+            for (int j = 0; j < dimension; j++) {
+                vector[j] = in.readFloat();
+            }
+            index.add(vector, label);
+        }
+        return index;
+    }
+
+    private static void checkNeighbors(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one neighbor is needed, got " + k);
+        }
+    }
+
+    private int nearestCentroid(float[] vector) {
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int c = 0, n = listSizes.length; c < n; c++) {
+            float d = distance(vector, centroids, c * dimension);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private int nearest(float[] means, int count, float[] source, int offset) {
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int c = 0; c < count; c++) {
+            int mean = c * dimension;
+            float sum = 0;
+            for (int j = 0; j < dimension; j++) {
+                float d = source[offset + j] - means[mean + j];
+                sum += d * d;
+            }
+            if (sum < bestDistance) {
+                bestDistance = sum;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void appendToList(int list, int id) {
+        if (listSizes[list] == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], lists[list].length * 2);
+        }
+        lists[list][listSizes[list]++] = id;
+    }
+
+    // Squared Euclidean distance to the vector at offset; a straight loop the JIT can vectorize
+    private float distance(float[] query, float[] data, int offset) {
+        float sum = 0;
+        for (int j = 0; j < dimension; j++) {
+            float d = query[j] - data[offset + j];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    // Inserts a candidate into the sorted top-k arrays, returning the new count
+    private static int offer(int id, float distance, int k, int count, int[] ids, float[] distances) {
+        if (count == k && distance >= distances[k - 1]) {
+            return count;
+        }
+        int position = count < k ? count++ : k - 1;
+        while (position > 0 && distances[position - 1] > distance) {
+            ids[position] = ids[position - 1];
+            distances[position] = distances[position - 1];
+            position--;
+        }
+        ids[position] = id;
+        distances[position] = distance;
+        return count;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.signlanguageinterpreter.landmark;
+
+/**
+ * Turns raw hand landmarks into a feature vector that does not depend on where the hand is
+ * in the frame or how large it appears: landmarks are taken relative to the wrist and scaled
+ * so the landmark farthest from the wrist is at distance 1.
+ */
+public final class LandmarkFeatures {
+    public static final int LANDMARK_COUNT = 21; // Hand landmarks, wrist first
+    public static final int COORDINATES = 3; // x, y, z per landmark
+    public static final int DIMENSION = LANDMARK_COUNT * COORDINATES;
+
+    private LandmarkFeatures() {
+    }
+
+    /**
+     * Normalizes landmarks in place.
+     *
+     * @param landmarks Interleaved x, y, z of the 21 landmarks, wrist first; overwritten with
+     *                  the feature vector.
+     * @return The same array.
+     */
+    public static float[] normalize(float[] landmarks) {
+        float wristX = landmarks[0];
+        float wristY = landmarks[1];
+        float wristZ = landmarks[2];
+        float maxDistance = 0;
+        for (int i = 0; i < DIMENSION; i += COORDINATES) {
+            float x = landmarks[i] - wristX;
+            float y = landmarks[i + 1] - wristY;
+            float z = landmarks[i + 2] - wristZ;
+            landmarks[i] = x;
+            landmarks[i + 1] = y;
+            landmarks[i + 2] = z;
+            maxDistance = Math.max(maxDistance, x * x + y * y + z * z);
+        }
+        if (maxDistance > 0) {
+            float scale = (float) (1 / Math.sqrt(maxDistance));
+            for (int i = 0; i < DIMENSION; i++) {
+                landmarks[i] *= scale;
+            }
+        }
+        return landmarks;
+    }
+}
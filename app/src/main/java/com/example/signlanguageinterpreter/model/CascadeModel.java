@@ -0,0 +1,223 @@
+package com.example.signlanguageinterpreter.model;
+
+import android.graphics.Bitmap;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A TensorFlowModel that runs a chain of models from cheapest to most expensive and stops at
+ * the first one that is confident. A stage is confident when the margin between its top-1 and
+ * top-2 scores reaches the stage's threshold; the last stage always answers. All stages must
+ * share the same label list. Per-stage hit rate and latency are recorded for every frame.
+ * One lock covers a whole frame across all stages, so close never closes a stage mid-frame.
+ */
+public class CascadeModel extends TensorFlowModel {
+
+    /**
+     * Counters of one cascade stage.
+     */
+    public static class StageStats {
+        private final String name; // Model path of the stage
+        private final AtomicLong invocations = new AtomicLong(); // Frames the stage ran on
+        private final AtomicLong exits = new AtomicLong(); // Frames the stage answered
+        private final AtomicLong totalNanos = new AtomicLong(); // Time spent in the stage
+
+        StageStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getInvocations() {
+            return invocations.get();
+        }
+
+        public long getExits() {
+            return exits.get();
+        }
+
+        // Share of the frames reaching this stage that it answered
+        public double getHitRate() {
+            long count = invocations.get();
+            return count == 0 ? 0 : (double) exits.get() / count;
+        }
+
+        public double getAverageLatencyMillis() {
+            long count = invocations.get();
+            return count == 0 ? 0 : totalNanos.get() / 1_000_000.0 / count;
+        }
+    }
+
+    private final List<TensorFlowModel> stages; // Cheapest first, the last one always answers
+    private final float[] minMargins; // Top-1 margin at which each stage but the last exits
+    private final List<StageStats> stats; // One entry per stage
+    private final AtomicLong frames = new AtomicLong(); // Frames classified by the cascade
+    private final AtomicLong frameNanos = new AtomicLong(); // Total time over all stages
+    private boolean closed; // Guarded by this
+
+    /**
+     * Constructor for CascadeModel.
+     *
+     * @param stages      The models, cheapest first; owned and closed by the cascade.
+     * @param stageNames  A name per stage used in reports, e.g. its model path.
+     * @param minMargins  For every stage but the last, the top-1 minus top-2 score at which the
+     *                    stage's answer is accepted.
+     */
+    public CascadeModel(List<TensorFlowModel> stages, List<String> stageNames, float[] minMargins) {
+        super(stages.get(stages.size() - 1).getLabels());
+        if (minMargins.length != stages.size() - 1 || stageNames.size() != stages.size()) {
+            throw new IllegalArgumentException("Expected a name per stage and a margin per stage but the last");
+        }
+        this.stages = new ArrayList<>(stages);
+        this.minMargins = minMargins.clone();
+        List<StageStats> stageStats = new ArrayList<>();
+        for (String name : stageNames) {
+            stageStats.add(new StageStats(name));
+        }
+        this.stats = Collections.unmodifiableList(stageStats);
+    }
+
+    /**
+     * Returns the difference between the best and the second best score.
+     *
+     * @param scores The scores in label order.
+     * @return The top-1 margin, or the top score if there is only one label.
+     */
+    public static float topMargin(float[] scores) {
+        if (scores.length == 0) {
+            return 0f;
+        }
+        float first = Float.NEGATIVE_INFINITY;
+        float second = Float.NEGATIVE_INFINITY;
+        for (float score : scores) {
+            if (score > first) {
+                second = first;
+                first = score;
+            } else if (score > second) {
+                second = score;
+            }
+        }
+        return scores.length == 1 ? first : first - second;
+    }
+
+    @Override
+    public synchronized float[] classifyScores(Bitmap bitmap, int rotation) {
+        return runStages(stage -> stage.classifyScores(bitmap, rotation));
+    }
+
+    @Override
+    public synchronized float[] classifyScores(ByteBuffer rgba, int width, int height, int rotation) {
+        return runStages(stage -> stage.classifyScores(rgba, width, height, rotation));
+    }
+
+    // Runs one stage on the current frame
+    private interface StageCall {
+        float[] run(TensorFlowModel stage);
+    }
+
+    // Must hold the lock for the whole frame
+    private float[] runStages(StageCall call) {
+        if (closed) {
+            throw new IllegalStateException("Model is closed");
+        }
+        long frameStart = System.nanoTime();
+        float[] scores = null;
+        int last = stages.size() - 1;
+        for (int i = 0; i <= last; i++) {
+            long start = System.nanoTime();
+            scores = call.run(stages.get(i));
+            StageStats stage = stats.get(i);
+            stage.invocations.incrementAndGet();
+            stage.totalNanos.addAndGet(System.nanoTime() - start);
+            if (i == last || topMargin(scores) >= minMargins[i]) {
+                stage.exits.incrementAndGet();
+                break;
+            }
+        }
+        frames.incrementAndGet();
+        frameNanos.addAndGet(System.nanoTime() - frameStart);
+        return scores;
+    }
+
+    public List<StageStats> getStageStats() {
+        return stats;
+    }
+
+    public List<TensorFlowModel> getStages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    // Average time per frame over all the stages that ran
+    public double getAverageFrameMillis() {
+        long count = frames.get();
+        return count == 0 ? 0 : frameNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Formats the per-stage hit rate and latency, one line per stage.
+     *
+     * @return The report.
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.US, "cascade: %d frames, %.2f ms/frame%n",
+                frames.get(), getAverageFrameMillis()));
+        for (StageStats stage : stats) {
+            report.append(String.format(Locale.US, "  %s: %d runs, %.1f%% hit rate, %.2f ms/run%n",
+                    stage.getName(), stage.getInvocations(), stage.getHitRate() * 100,
+                    stage.getAverageLatencyMillis()));
+        }
+        return report.toString();
+    }
+
+    // Every frame is converted by the first stage; later stages only add to frames they see
+    @Override
+    public double getAverageConvertMillis() {
+        return stages.get(0).getAverageConvertMillis();
+    }
+
+    // The camera is negotiated against the largest model, which sees the most detail
+    @Override
+    public int getInputWidth() {
+        return stages.get(stages.size() - 1).getInputWidth();
+    }
+
+    @Override
+    public int getInputHeight() {
+        return stages.get(stages.size() - 1).getInputHeight();
+    }
+
+    @Override
+    public int getNumThreads() {
+        return stages.get(stages.size() - 1).getNumThreads();
+    }
+
+    @Override
+    public TensorFlowModelBuilder.Delegate getDelegate() {
+        return stages.get(stages.size() - 1).getDelegate();
+    }
+
+    @Override
+    public synchronized void releaseBuffers() {
+        for (TensorFlowModel stage : stages) {
+            stage.releaseBuffers();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (TensorFlowModel stage : stages) {
+            stage.close();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.signlanguageinterpreter.model;
+
+import android.graphics.Bitmap;
+
+import com.example.signlanguageinterpreter.landmark.KnnIndex;
+import com.example.signlanguageinterpreter.landmark.LandmarkFeatures;
+import com.example.signlanguageinterpreter.trace.FrameTracer;
+
+import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Interpreter;
+import org.tensorflow.lite.support.common.ops.NormalizeOp;
+import org.tensorflow.lite.support.image.ImageProcessor;
+import org.tensorflow.lite.support.image.TensorImage;
+import org.tensorflow.lite.support.image.ops.ResizeOp;
+import org.tensorflow.lite.support.image.ops.Rot90Op;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TensorFlowModel for static handshapes that replaces the classification CNN with a
+ * nearest-neighbor lookup: a hand-landmark model locates the 21 hand landmarks, and the
+ * normalized landmarks are matched against labeled reference samples in a KnnIndex. New
+ * reference samples, e.g. of the current user's hand, can be added while the model runs.
+ */
+public class LandmarkModel extends TensorFlowModel {
+    private static final float MIN_HAND_PRESENCE = 0.5f; // Below this no hand is reported
+
+    private Interpreter landmarkInterpreter; // Hand-landmark model
+    private final KnnIndex index; // Labeled reference samples
+    private final int k; // Neighbors voting per frame
+    private final int probes; // Centroid lists searched when the index has a quantizer
+    private ImageProcessor landmarkProcessor; // Rotates upright, resizes and normalizes
+    private int processorRotation = -1; // Rotation landmarkProcessor was built for
+    private final int landmarkWidth;
+    private final int landmarkHeight;
+    // Reused across frames
+    private final float[][] landmarkOutput = new float[1][LandmarkFeatures.DIMENSION];
+    private final float[][] presenceOutput = new float[1][1];
+    private final Map<Integer, Object> outputs = new HashMap<>();
+    private Bitmap frameBitmap; // Reused Bitmap for RGBA frames, dropped by releaseBuffers
+
+    /**
+     * Constructor for LandmarkModel.
+     *
+     * @param landmarkInterpreter The hand-landmark interpreter; its first output holds the 21
+     *                            x, y, z landmarks and an optional second output the hand
+     *                            presence score.
+     * @param labels              The labels the reference samples refer to.
+     * @param numThreads          The interpreter's thread count.
+     * @param index               The reference samples.
+     * @param k                   The number of neighbors voting per frame, at least 1.
+     * @param probes              The number of centroid lists searched if the index has a quantizer.
+     */
+    public LandmarkModel(Interpreter landmarkInterpreter, List<String> labels, int numThreads,
+                         KnnIndex index, int k, int probes) {
+        super(labels, numThreads);
+        if (index.getDimension() != LandmarkFeatures.DIMENSION) {
+            throw new IllegalArgumentException("Reference samples must have " + LandmarkFeatures.DIMENSION + " values");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one neighbor must vote, got " + k);
+        }
+        if (index.getMaxLabel() >= labels.size()) {
+            throw new IllegalArgumentException("Reference samples use label " + index.getMaxLabel()
+                    + " but only " + labels.size() + " labels are known");
+        }
+        this.landmarkInterpreter = landmarkInterpreter;
+        this.index = index;
+        this.k = k;
+        this.probes = probes;
+        int[] shape = landmarkInterpreter.getInputTensor(0).shape();
+        this.landmarkHeight = shape[1];
+        this.landmarkWidth = shape[2];
+        outputs.put(0, landmarkOutput);
+        if (landmarkInterpreter.getOutputTensorCount() > 1) {
+            outputs.put(1, presenceOutput);
+        } else {
+            presenceOutput[0][0] = 1f;
+        }
+    }
+
+    /**
+     * Locates the hand and returns the vote share of every label among its nearest reference
+     * samples, or all zeros if no hand is found.
+     */
+    @Override
+    public synchronized float[] classifyScores(Bitmap bitmap, int rotation) {
+        float[] features = extractFeatures(bitmap, rotation);
+        if (features == null) {
+            return new float[getLabels().size()];
+        }
+        return index.classify(features, k, probes, getLabels().size());
+    }
+
+    /**
+     * Classifies a tightly packed RGBA_8888 frame, e.g. a live or recorded analysis frame. The
+     * landmark detector consumes Bitmaps only, so the pixels are first copied into a Bitmap
+     * reused for every frame of the same size.
+     */
+    @Override
+    public synchronized float[] classifyScores(ByteBuffer rgba, int width, int height, int rotation) {
+        FrameTracer.begin(FrameTracer.Stage.CONVERT);
+        try {
+            if (frameBitmap == null || frameBitmap.getWidth() != width || frameBitmap.getHeight() != height) {
+                frameBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            }
+            ByteBuffer pixels = rgba.duplicate();
+            pixels.clear();
+            pixels.limit(width * height * 4);
+            frameBitmap.copyPixelsFromBuffer(pixels);
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.CONVERT);
+        }
+        return classifyScores(frameBitmap, rotation);
+    }
+
+    /**
+     * Adds a reference sample from a frame showing the handshape, e.g. during calibration.
+     *
+     * @param bitmap     The frame.
+     * @param rotation   The clockwise rotation in degrees that makes the frame upright.
+     * @param labelIndex The label the handshape stands for.
+     * @return True if a hand was found and the sample added.
+     * @throws IllegalArgumentException If the label index is not one of the model's labels.
+     */
+    public synchronized boolean addSample(Bitmap bitmap, int rotation, int labelIndex) {
+        // A sample with an unknown label would break every frame it is a neighbor of
+        if (labelIndex < 0 || labelIndex >= getLabels().size()) {
+            throw new IllegalArgumentException("Label index " + labelIndex + " outside 0.."
+                    + (getLabels().size() - 1));
+        }
+        float[] features = extractFeatures(bitmap, rotation);
+        if (features == null) {
+            return false;
+        }
+        index.add(features, labelIndex);
+        return true;
+    }
+
+    public KnnIndex getIndex() {
+        return index;
+    }
+
+    @Override
+    public int getInputWidth() {
+        return landmarkWidth;
+    }
+
+    @Override
+    public int getInputHeight() {
+        return landmarkHeight;
+    }
+
+    @Override
+    public synchronized void releaseBuffers() {
+        super.releaseBuffers();
+        frameBitmap = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (landmarkInterpreter != null) {
+            landmarkInterpreter.close();
+            landmarkInterpreter = null;
+        }
+    }
+
+    // Returns a new normalized feature vector, or null if no hand is present
+    private float[] extractFeatures(Bitmap bitmap, int rotation) {
+        if (landmarkInterpreter == null) {
+            throw new IllegalStateException("Model is closed");
+        }
+        long start = System.nanoTime();
+        TensorImage image = new TensorImage(DataType.FLOAT32);
+        image.load(bitmap);
+        image = getProcessor(rotation).process(image);
+        recordConvertNanos(System.nanoTime() - start);
+        landmarkInterpreter.runForMultipleInputsOutputs(new Object[]{image.getBuffer()}, outputs);
+        if (presenceOutput[0][0] < MIN_HAND_PRESENCE) {
+            return null;
+        }
+        return LandmarkFeatures.normalize(landmarkOutput[0].clone());
+    }
+
+    // The camera rotation only changes with the device orientation, so one processor is kept
+    private ImageProcessor getProcessor(int rotation) {
+        if (landmarkProcessor == null || processorRotation != rotation) {
+            landmarkProcessor = new ImageProcessor.Builder()
+                    .add(new Rot90Op(-rotation / 90)) // Rot90Op turns counter-clockwise
+                    .add(new ResizeOp(landmarkHeight, landmarkWidth, ResizeOp.ResizeMethod.BILINEAR))
+                    .add(new NormalizeOp(0, 255)) // Float input in [0, 1]
+                    .build();
+            processorRotation = rotation;
+        }
+        return landmarkProcessor;
+    }
+}
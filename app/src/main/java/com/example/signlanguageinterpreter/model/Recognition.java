@@ -0,0 +1,72 @@
+package com.example.signlanguageinterpreter.model;
+
+import java.util.List;
+
+/**
+ * The top-1 result of classifying a single frame. Unlike the formatted strings returned by
+ * TensorFlowModel.classify, a Recognition keeps the label index, the raw confidence and the
+ * time the frame was taken so downstream observers can align and persist results.
+ */
+public class Recognition {
+    private final long timestampNanos; // Frame time on the SystemClock.elapsedRealtimeNanos timebase
+    private final int labelIndex; // Index of the label in the model's label list
+    private final String label; // Human readable label
+    private final float confidence; // Probability of the label in [0, 1]
+    private final int trackId; // Id of the tracked hand the frame was classified for, 0 if untracked
+
+    public Recognition(long timestampNanos, int labelIndex, String label, float confidence) {
+        this(timestampNanos, labelIndex, label, confidence, 0);
+    }
+
+    public Recognition(long timestampNanos, int labelIndex, String label, float confidence, int trackId) {
+        this.timestampNanos = timestampNanos;
+        this.labelIndex = labelIndex;
+        this.label = label;
+        this.confidence = confidence;
+        this.trackId = trackId;
+    }
+
+    /**
+     * Creates a Recognition from the top-scoring entry of a probability vector.
+     *
+     * @param timestampNanos The frame timestamp.
+     * @param scores         The probabilities in label order.
+     * @param labels         The model's labels.
+     * @return The top-1 Recognition.
+     */
+    public static Recognition fromScores(long timestampNanos, float[] scores, List<String> labels) {
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        String label = labels != null && best < labels.size() ? labels.get(best) : String.valueOf(best);
+        return new Recognition(timestampNanos, best, label, scores.length > 0 ? scores[best] : 0f);
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public int getLabelIndex() {
+        return labelIndex;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public float getConfidence() {
+        return confidence;
+    }
+
+    public int getTrackId() {
+        return trackId;
+    }
+
+    @Override
+    public String toString() {
+        return label + ": " + confidence;
+    }
+}
\ No newline at end of file
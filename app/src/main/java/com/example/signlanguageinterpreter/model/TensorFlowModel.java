@@ -1,38 +1,94 @@
 package com.example.signlanguageinterpreter.model;
 
 import android.graphics.Bitmap;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+import com.example.signlanguageinterpreter.pipeline.StageLatency;
+import com.example.signlanguageinterpreter.preprocess.FramePreprocessor;
+import com.example.signlanguageinterpreter.trace.FrameTracer;
+
+import org.tensorflow.lite.gpu.GpuDelegate;
 import org.tensorflow.lite.Interpreter;
-import org.tensorflow.lite.support.image.TensorImage;
-import org.tensorflow.lite.support.image.ImageProcessor;
-import org.tensorflow.lite.support.image.ops.ResizeOp;
 import org.tensorflow.lite.support.tensorbuffer.TensorBuffer;
 import org.tensorflow.lite.support.common.TensorProcessor;
-import org.tensorflow.lite.support.common.ops.NormalizeOp;
+import org.tensorflow.lite.support.common.ops.DequantizeOp;
 import org.tensorflow.lite.DataType;
+import org.tensorflow.lite.Tensor;
 import org.tensorflow.lite.support.label.TensorLabel;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
 
 public class TensorFlowModel {
+    private static final int DEFAULT_INPUT_SIZE = 224;
+
     private Interpreter interpreter;
-    private ImageProcessor imageProcessor;
+    private FramePreprocessor preprocessor; // Rotates, crops, resizes and normalizes in one pass
     private List<String> labels;
     private int numThreads;
     private String modelPath;
+    private int inputWidth;
+    private int inputHeight;
+    private TensorFlowModelBuilder.Delegate delegate = TensorFlowModelBuilder.Delegate.CPU;
+    private GpuDelegate gpuDelegate; // Owned by this model and closed with the interpreter
+    private DataType outputType = DataType.UINT8; // Element type of the output tensor
+    private int[] outputShape; // Shape of the output tensor, null for one score per label
+    private float outputScale = 1 / 255.0f; // Dequantization of integer outputs
+    private int outputZeroPoint;
+    private final StageLatency convertLatency = new StageLatency(); // Frame to input tensor
+    // Reused across frames; dropped by releaseBuffers() while the session is paused
+    private ByteBuffer inputBuffer;
+    private int[] pixels;
+    private TensorBuffer outputBuffer;
+    private TensorProcessor probabilityProcessor;
 
     public TensorFlowModel(Interpreter interpreter, List<String> labels) {
         this.interpreter = interpreter;
         this.labels = labels;
-        this.modelPath = modelPath;
 
-        // Initialize the ImageProcessor with required preprocessing steps
-        imageProcessor = new ImageProcessor.Builder()
-                .add(new ResizeOp(224, 224, ResizeOp.ResizeMethod.BILINEAR))
-                .add(new NormalizeOp(0, 1)) // Normalization
-                .build();
+        // Input tensors are NHWC; fall back to the default size when no interpreter is attached
+        inputWidth = DEFAULT_INPUT_SIZE;
+        inputHeight = DEFAULT_INPUT_SIZE;
+        if (interpreter != null) {
+            int[] shape = interpreter.getInputTensor(0).shape();
+            inputHeight = shape[1];
+            inputWidth = shape[2];
+        }
+
+        // Quantized models take the raw RGB bytes, float models the same values unscaled
+        boolean floatInput = interpreter != null && interpreter.getInputTensor(0).dataType() == DataType.FLOAT32;
+        preprocessor = new FramePreprocessor(inputWidth, inputHeight, floatInput, 0f, 1f,
+                ForkJoinPool.commonPool(), 256 * 256);
+
+        // Float models output probabilities; integer ones carry their own quantization
+        if (interpreter != null) {
+            Tensor output = interpreter.getOutputTensor(0);
+            outputType = output.dataType();
+            outputShape = output.shape();
+            Tensor.QuantizationParams quantization = output.quantizationParams();
+            if (quantization.getScale() != 0) {
+                outputScale = quantization.getScale();
+                outputZeroPoint = quantization.getZeroPoint();
+            } else if (outputType == DataType.INT8) {
+                outputZeroPoint = -128;
+            }
+        }
+    }
+
+    // For models that delegate inference to other models and own no interpreter or preprocessor
+    protected TensorFlowModel(List<String> labels) {
+        this.labels = labels;
+    }
+
+    // For models that run their own interpreter and preprocessing, reporting its thread count
+    protected TensorFlowModel(List<String> labels, int numThreads) {
+        this(labels);
+        this.numThreads = numThreads;
     }
 
     // Added this constructor to accept the number of threads
@@ -41,6 +97,14 @@ public class TensorFlowModel {
         this.numThreads = numThreads;
     }
 
+    // Constructor for interpreters running on a GPU delegate, which this model then owns
+    public TensorFlowModel(Interpreter interpreter, List<String> labels, int numThreads,
+                           TensorFlowModelBuilder.Delegate delegate, GpuDelegate gpuDelegate) {
+        this(interpreter, labels, numThreads);
+        this.delegate = delegate;
+        this.gpuDelegate = gpuDelegate;
+    }
+
     public List<String> getLabels() {
         return labels;
     }
@@ -50,29 +114,181 @@ public class TensorFlowModel {
         return modelPath;
     }
 
+    // Records the asset the interpreter was loaded from, set by the builder
+    public void setModelPath(String modelPath) {
+        this.modelPath = modelPath;
+    }
+
 
     // Add getter method for numThreads
     public int getNumThreads() {
         return numThreads;
     }
 
+    // Hardware the interpreter actually runs on
+    public TensorFlowModelBuilder.Delegate getDelegate() {
+        return delegate;
+    }
+
+    // Average time to turn a frame into the input tensor, negative until the first frame
+    public double getAverageConvertMillis() {
+        return convertLatency.getAverageMillis();
+    }
+
+    // Lets subclasses with their own preprocessing report it as the convert latency
+    protected void recordConvertNanos(long nanos) {
+        convertLatency.record(nanos);
+    }
+
+    // Width in pixels of the frames the model consumes
+    public int getInputWidth() {
+        return inputWidth;
+    }
+
+    // Height in pixels of the frames the model consumes
+    public int getInputHeight() {
+        return inputHeight;
+    }
+
+    /**
+     * Releases the per-frame Java input and output buffers held by this model. The interpreter
+     * and its native tensor arena stay allocated, so the next call to classify only reallocates
+     * these buffers; only close frees the native memory.
+     */
+    public synchronized void releaseBuffers() {
+        inputBuffer = null;
+        pixels = null;
+        outputBuffer = null;
+        probabilityProcessor = null;
+    }
+
+    /**
+     * Closes the underlying interpreter and frees its native memory. The model cannot be
+     * used after this call.
+     */
+    public synchronized void close() {
+        releaseBuffers();
+        if (interpreter != null) {
+            interpreter.close();
+            interpreter = null;
+        }
+        if (gpuDelegate != null) {
+            gpuDelegate.close();
+            gpuDelegate = null;
+        }
+    }
+
     public List<String> classify(Bitmap bitmap, int rotation) {
-        // Create a TensorImage object to hold the image data
-        TensorImage tensorImage = new TensorImage(DataType.UINT8);
-        tensorImage.load(bitmap);
+        return formatResults(classifyScores(bitmap, rotation));
+    }
+
+    /**
+     * Runs inference on a frame and returns the dequantized probabilities in label order.
+     * The frame is rotated upright and center-cropped to the model's aspect ratio first.
+     *
+     * @param bitmap   The frame to classify.
+     * @param rotation The clockwise rotation in degrees that makes the frame upright, as
+     *                 reported by the camera.
+     * @return A new array with one probability per label.
+     */
+    public synchronized float[] classifyScores(Bitmap bitmap, int rotation) {
+        // Synchronized with close so a model swapped out by the session is never closed mid-run
+        if (interpreter == null) {
+            throw new IllegalStateException("Model is closed");
+        }
+        // Rotate upright, center-crop, resize and normalize straight into the input tensor
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        if (pixels == null || pixels.length != width * height) {
+            pixels = new int[width * height];
+        }
+        long start = System.nanoTime();
+        FrameTracer.begin(FrameTracer.Stage.PREPROCESS);
+        try {
+            bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+            preprocessor.process(pixels, width, height, rotation, getInputBuffer());
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.PREPROCESS);
+        }
+        convertLatency.record(System.nanoTime() - start);
+        return runInference();
+    }
 
-        // Preprocess the image
-        tensorImage = imageProcessor.process(tensorImage);
+    /**
+     * Runs inference on a tightly packed RGBA_8888 frame, e.g. a live analysis frame straight
+     * from the pipeline or a recorded one. Skips the Bitmap and int[] round trip.
+     *
+     * @param rgba     The pixels, row by row from index 0.
+     * @param width    The frame width.
+     * @param height   The frame height.
+     * @param rotation The clockwise rotation in degrees that makes the frame upright.
+     * @return A new array with one probability per label.
+     */
+    public synchronized float[] classifyScores(ByteBuffer rgba, int width, int height, int rotation) {
+        if (interpreter == null) {
+            throw new IllegalStateException("Model is closed");
+        }
+        long start = System.nanoTime();
+        FrameTracer.begin(FrameTracer.Stage.PREPROCESS);
+        try {
+            preprocessor.process(rgba, width, height, width * 4, rotation, getInputBuffer());
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.PREPROCESS);
+        }
+        convertLatency.record(System.nanoTime() - start);
+        return runInference();
+    }
+
+    private ByteBuffer getInputBuffer() {
+        if (inputBuffer == null) {
+            inputBuffer = ByteBuffer.allocateDirect(preprocessor.getOutputBytes()).order(ByteOrder.nativeOrder());
+        }
+        return inputBuffer;
+    }
+
+    // Runs the interpreter on the preprocessed input buffer
+    private float[] runInference() {
+        inputBuffer.rewind();
 
         // Prepare output buffer
-        TensorBuffer outputBuffer = TensorBuffer.createFixedSize(new int[]{1, labels.size()}, DataType.UINT8);
+        if (outputBuffer == null) {
+            int[] shape = outputShape != null ? outputShape : new int[]{1, labels.size()};
+            outputBuffer = TensorBuffer.createFixedSize(shape, outputType);
+        }
 
         // Run inference
-        interpreter.run(tensorImage.getBuffer(), outputBuffer.getBuffer());
+        FrameTracer.begin(FrameTracer.Stage.INFERENCE);
+        try {
+            interpreter.run(inputBuffer, outputBuffer.getBuffer());
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.INFERENCE);
+        }
+
+        // Dequantize the output; float outputs are already probabilities
+        FrameTracer.begin(FrameTracer.Stage.POSTPROCESS);
+        try {
+            if (outputType == DataType.FLOAT32) {
+                return outputBuffer.getFloatArray();
+            }
+            if (probabilityProcessor == null) {
+                probabilityProcessor = new TensorProcessor.Builder()
+                        .add(new DequantizeOp(outputZeroPoint, outputScale)).build();
+            }
+            return probabilityProcessor.process(outputBuffer).getFloatArray();
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.POSTPROCESS);
+        }
+    }
 
-        // Dequantize the output
-        TensorProcessor probabilityProcessor = new TensorProcessor.Builder().add(new NormalizeOp(0, 1 / 255.0f)).build();
-        TensorBuffer dequantizedOutputBuffer = probabilityProcessor.process(outputBuffer);
+    /**
+     * Formats a probability vector as "label: probability" strings, best first.
+     *
+     * @param scores The probabilities in label order.
+     * @return The formatted results sorted by descending probability.
+     */
+    public List<String> formatResults(float[] scores) {
+        TensorBuffer dequantizedOutputBuffer = TensorBuffer.createFixedSize(new int[]{1, scores.length}, DataType.FLOAT32);
+        dequantizedOutputBuffer.loadArray(scores);
 
         // Map the output probabilities to labels
         Map<String, Float> labeledProbability = new TensorLabel(labels, dequantizedOutputBuffer).getMapWithFloatValue();
@@ -88,4 +304,4 @@ public class TensorFlowModel {
 
         return results;
     }
-}
+}
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.example.signlanguageinterpreter.observer;
 
+import com.example.signlanguageinterpreter.model.Recognition;
+
 public interface Observer {
     void update(String result);
     void onPhotoCaptured(String photoPath);  // New method to handle photo notifications
     void onVideoCaptured(String videoPath);  // New method to handle video notifications
+    default void onRecognition(Recognition recognition) {}  // Structured top-1 result of each classified frame
+    default void onWord(String word, float confidence) {}  // Word decoded from fingerspelled letters
 }
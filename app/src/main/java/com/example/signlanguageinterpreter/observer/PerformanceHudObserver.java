@@ -0,0 +1,171 @@
+package com.example.signlanguageinterpreter.observer;
+
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.camera.core.CameraSelector;
+
+import com.example.signlanguageinterpreter.model.CascadeModel;
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+import com.example.signlanguageinterpreter.pipeline.FramePipeline;
+import com.example.signlanguageinterpreter.pipeline.PipelineStage;
+import com.example.signlanguageinterpreter.session.InterpreterSession;
+import com.example.signlanguageinterpreter.singleton.CameraXManager;
+
+import java.util.Locale;
+
+/**
+ * Toggleable performance overlay for diagnosing slow devices without logcat. While enabled it
+ * samples the pipeline's existing counters on the main thread a few times per second and shows
+ * FPS, per-stage capture, convert, inference and dispatch latency, queue depths, dropped and skipped frames, the model's delegate and
+ * thread count, the active camera and its last switch latency, and heap and native memory.
+ * Frames and results are never touched, so the overlay adds no work to the camera, inference
+ * or dispatch threads; while disabled it costs nothing at all.
+ */
+public class PerformanceHudObserver implements Observer {
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * Shows the overlay text; always called on the main thread. An empty text hides it.
+     */
+    public interface Display {
+        void show(String text);
+    }
+
+    private final FramePipeline pipeline; // Source of the stage counters
+    private final InterpreterSession session; // Source of the loaded model
+    private final Display display;
+    private final long periodMillis; // Time between samples
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable sampler = this::sample;
+    private volatile String lastEvent = ""; // Last capture, shown under the counters
+
+    // Only accessed on the main thread
+    private boolean enabled;
+    private long lastSampleNanos;
+    private long lastResults;
+
+    /**
+     * Constructor for PerformanceHudObserver.
+     *
+     * @param pipeline     The live frame pipeline.
+     * @param session      The session owning the model.
+     * @param display      Shows the overlay text.
+     * @param periodMillis The time between samples, e.g. 500.
+     */
+    public PerformanceHudObserver(FramePipeline pipeline, InterpreterSession session,
+                                  Display display, long periodMillis) {
+        this.pipeline = pipeline;
+        this.session = session;
+        this.display = display;
+        this.periodMillis = periodMillis;
+    }
+
+    /**
+     * Shows or hides the overlay. Must be called on the main thread.
+     *
+     * @param enabled Whether to sample and show the counters.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        handler.removeCallbacks(sampler);
+        if (enabled) {
+            lastSampleNanos = SystemClock.elapsedRealtimeNanos();
+            lastResults = pipeline.getDispatchStage().getProcessedCount();
+            handler.post(sampler);
+        } else {
+            display.show("");
+        }
+    }
+
+    // Flips the overlay, e.g. from a debug button. Must be called on the main thread
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void update(String result) {
+        // Results are not sampled: the counters already cover every frame
+    }
+
+    @Override
+    public void onPhotoCaptured(String photoPath) {
+        lastEvent = "Photo saved";
+    }
+
+    @Override
+    public void onVideoCaptured(String videoPath) {
+        lastEvent = "Video saved";
+    }
+
+    private void sample() {
+        if (!enabled) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        long results = pipeline.getDispatchStage().getProcessedCount();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        double fps = seconds > 0 ? (results - lastResults) / seconds : 0;
+        lastSampleNanos = now;
+        lastResults = results;
+        display.show(format(fps));
+        handler.postDelayed(sampler, periodMillis);
+    }
+
+    private String format(double fps) {
+        PipelineStage<?> inference = pipeline.getInferenceStage();
+        PipelineStage<?> dispatch = pipeline.getDispatchStage();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.US, "%.1f fps  skipped %d  dropped %d/%d%n",
+                fps, pipeline.getSkippedCount(), inference.getDroppedCount(), dispatch.getDroppedCount()));
+        // Never load the model just to describe it
+        TensorFlowModel model = session.getLoadedModel();
+        text.append(String.format(Locale.US, "capture %s  convert %s  inference %s  dispatch %s%n",
+                millis(pipeline.getAverageCaptureMillis()),
+                millis(model != null ? model.getAverageConvertMillis() : -1),
+                millis(pipeline.getAverageInferenceMillis()), millis(pipeline.getAverageDispatchMillis())));
+        text.append(String.format(Locale.US, "queue %d/%d  blocked %d ms%n",
+                inference.getQueueDepth(), dispatch.getQueueDepth(), dispatch.getBlockedNanos() / 1_000_000));
+
+        if (model != null) {
+            text.append(String.format(Locale.US, "%s x%d threads  %dx%d input%n", model.getDelegate(),
+                    model.getNumThreads(), model.getInputWidth(), model.getInputHeight()));
+            if (model instanceof CascadeModel) {
+                text.append(((CascadeModel) model).getReport());
+            }
+        }
+
+        CameraXManager camera = session.getCameraManager();
+        long switchMillis = camera.getLastSwitchMillis();
+        text.append(camera.getLensFacing() == CameraSelector.LENS_FACING_FRONT ? "front camera" : "back camera");
+        if (switchMillis >= 0) {
+            text.append(String.format(Locale.US, "  last switch %d ms", switchMillis));
+        }
+        text.append('\n');
+
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        text.append(String.format(Locale.US, "heap %d/%d MB  native %d MB",
+                heapUsed / BYTES_PER_MB, runtime.maxMemory() / BYTES_PER_MB,
+                Debug.getNativeHeapAllocatedSize() / BYTES_PER_MB));
+        String event = lastEvent;
+        if (!event.isEmpty()) {
+            text.append('\n').append(event);
+        }
+        return text.toString();
+    }
+
+    // A stage average in milliseconds, or "-" before its first sample
+    private static String millis(double average) {
+        return average < 0 ? "-" : String.format(Locale.US, "%.1f ms", average);
+    }
+}
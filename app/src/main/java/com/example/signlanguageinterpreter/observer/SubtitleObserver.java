@@ -0,0 +1,342 @@
+package com.example.signlanguageinterpreter.observer;
+
+import android.os.SystemClock;
+
+import androidx.camera.video.VideoRecordEvent;
+
+import com.example.signlanguageinterpreter.model.Recognition;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Observer that streams recognition results into a subtitle file while a video is recorded.
+ * Consecutive frames with the same label are merged into one cue, and cue times are aligned
+ * to the recording's own duration clock so pauses in the recording do not shift the track.
+ * Cues are placed by the capture time of the classified frame, not by when its result arrived,
+ * so inference latency does not delay the captions against the video.
+ * All file I/O is buffered on a single background thread; the file is written to a ".part"
+ * name and renamed when the recording is finalized, so a finished track is always complete.
+ * Failures are reported to the Listener rather than logged here.
+ */
+public class SubtitleObserver implements Observer, Closeable {
+    private static final long MIN_CUE_NANOS = 300_000_000L; // Shortest cue shown to the viewer
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Supported subtitle formats.
+     */
+    public enum Format {
+        WEBVTT(".vtt"),
+        SRT(".srt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Told about finished tracks and I/O failures, on the writer thread.
+     */
+    public interface Listener {
+        // A track was finalized and renamed to its final name
+        void onTrackFinished(File track);
+
+        // The track could not be written; what was written so far is discarded
+        void onWriteFailed(File track, IOException error);
+    }
+
+    private final File outputDirectory; // Directory the subtitle files are written to
+    private final Format format; // Subtitle format of the written files
+    private final float minConfidence; // Results below this confidence end the current cue
+    private final ExecutorService writerExecutor = Executors.newSingleThreadExecutor();
+    private volatile Listener listener;
+
+    // Track state, guarded by this
+    private boolean recording;
+    private boolean paused;
+    private long anchorNanos; // elapsedRealtimeNanos at which the recording's duration was zero
+    private String cueLabel;
+    private long cueStartNanos; // Relative to the start of the recording
+    private long cueEndNanos;
+    private int cueIndex;
+
+    // Only accessed on writerExecutor
+    private Writer writer;
+    private File partFile;
+    private File trackFile;
+
+    /**
+     * Constructor for SubtitleObserver.
+     *
+     * @param outputDirectory The directory the subtitle files are written to.
+     * @param format          The subtitle format.
+     * @param minConfidence   The confidence below which a result is not captioned.
+     */
+    public SubtitleObserver(File outputDirectory, Format format, float minConfidence) {
+        this.outputDirectory = outputDirectory;
+        this.format = format;
+        this.minConfidence = minConfidence;
+    }
+
+    /**
+     * Sets the listener told about finished tracks and write failures.
+     *
+     * @param listener The listener, or null.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Forwards a CameraX recording event. Start opens a new track, Pause and Resume suspend
+     * captioning, Status events refine the timeline anchor and Finalize closes the track.
+     * Events carry no capture time, only the recorded duration, so each one yields an anchor
+     * estimate that is late by however long the event took to be delivered; the earliest
+     * estimate is kept, since it was delivered with the least delay.
+     *
+     * @param event         The recording event.
+     * @param recordingName The display name of the recording, used as the subtitle file name.
+     */
+    public void onRecordEvent(VideoRecordEvent event, String recordingName) {
+        long recordedNanos = event.getRecordingStats().getRecordedDurationNanos();
+        long anchor = SystemClock.elapsedRealtimeNanos() - recordedNanos;
+        if (event instanceof VideoRecordEvent.Start) {
+            startTrack(recordingName, anchor);
+        } else if (event instanceof VideoRecordEvent.Pause) {
+            setPaused(true);
+        } else if (event instanceof VideoRecordEvent.Resume) {
+            // The pause moved the anchor forward by its length, so start estimating afresh
+            setPaused(false);
+            resetTimeline(anchor);
+        } else if (event instanceof VideoRecordEvent.Status) {
+            syncTimeline(anchor);
+        } else if (event instanceof VideoRecordEvent.Finalize) {
+            finishTrack(!((VideoRecordEvent.Finalize) event).hasError());
+        }
+    }
+
+    /**
+     * Opens a new subtitle track.
+     *
+     * @param name        The base file name, without extension.
+     * @param anchorNanos The elapsedRealtimeNanos time corresponding to the start of the video.
+     */
+    public synchronized void startTrack(String name, long anchorNanos) {
+        if (recording) {
+            finishTrack(true);
+        }
+        recording = true;
+        paused = false;
+        this.anchorNanos = anchorNanos;
+        cueLabel = null;
+        cueIndex = 0;
+        writerExecutor.execute(() -> openTrack(name));
+    }
+
+    /**
+     * Refines the timeline anchor with a new estimate of the recording's start. Estimates
+     * derived from delivered events are only ever late, so the earliest one is kept.
+     *
+     * @param anchorNanos The elapsedRealtimeNanos time corresponding to the start of the video.
+     */
+    public synchronized void syncTimeline(long anchorNanos) {
+        if (anchorNanos < this.anchorNanos) {
+            this.anchorNanos = anchorNanos;
+        }
+    }
+
+    // After a resume the old anchor is stale; the next estimates refine this one
+    private synchronized void resetTimeline(long anchorNanos) {
+        this.anchorNanos = anchorNanos;
+    }
+
+    private synchronized void setPaused(boolean paused) {
+        if (paused) {
+            emitCue();
+        }
+        this.paused = paused;
+    }
+
+    /**
+     * Writes the last cue and closes the track.
+     *
+     * @param keep Whether to keep the file; false deletes it, e.g. when the recording failed.
+     * @return A future completing with the finished file, or null if nothing was kept.
+     */
+    public synchronized Future<File> finishTrack(boolean keep) {
+        if (recording) {
+            emitCue();
+            recording = false;
+        }
+        return writerExecutor.submit(() -> closeTrack(keep));
+    }
+
+    @Override
+    public synchronized void onRecognition(Recognition recognition) {
+        if (!recording || paused) {
+            return;
+        }
+        long relativeNanos = recognition.getTimestampNanos() - anchorNanos;
+        if (relativeNanos < 0 || recognition.getConfidence() < minConfidence) {
+            emitCue();
+            return;
+        }
+        if (recognition.getLabel().equals(cueLabel)) {
+            cueEndNanos = relativeNanos;
+            return;
+        }
+        emitCue();
+        cueLabel = recognition.getLabel();
+        cueStartNanos = relativeNanos;
+        cueEndNanos = relativeNanos;
+    }
+
+    /**
+     * Finishes the current track, keeping what was written, and stops the writer thread once
+     * everything queued has been written. Does not wait for the disk; the Listener is told
+     * when the track is finished.
+     */
+    @Override
+    public synchronized void close() {
+        if (writerExecutor.isShutdown()) {
+            return;
+        }
+        finishTrack(true);
+        writerExecutor.shutdown();
+    }
+
+    @Override
+    public void update(String result) {
+        // Subtitles are built from structured recognitions only
+    }
+
+    @Override
+    public void onPhotoCaptured(String photoPath) {
+        // Photos have no subtitle track
+    }
+
+    @Override
+    public void onVideoCaptured(String videoPath) {
+        // The track is finished by the recording's Finalize event
+    }
+
+    // Must hold the lock; hands the pending cue to the writer thread
+    private void emitCue() {
+        if (cueLabel == null) {
+            return;
+        }
+        long end = Math.max(cueEndNanos, cueStartNanos + MIN_CUE_NANOS);
+        String cue = formatCue(++cueIndex, cueStartNanos, end, cueLabel, format);
+        cueLabel = null;
+        writerExecutor.execute(() -> write(cue));
+    }
+
+    private void openTrack(String name) {
+        trackFile = new File(outputDirectory, name + format.getExtension());
+        partFile = new File(outputDirectory, name + format.getExtension() + ".part");
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(partFile), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            if (format == Format.WEBVTT) {
+                writer.write("WEBVTT\n\n");
+            }
+        } catch (IOException e) {
+            writer = null;
+            partFile.delete();
+            reportFailure(e);
+        }
+    }
+
+    private void write(String cue) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(cue);
+        } catch (IOException e) {
+            // The track is incomplete from here on, so drop it
+            closeQuietly();
+            partFile.delete();
+            reportFailure(e);
+        }
+    }
+
+    private File closeTrack(boolean keep) {
+        if (writer == null) {
+            return null;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            reportFailure(e);
+            keep = false;
+        }
+        writer = null;
+        if (!keep) {
+            partFile.delete();
+            return null;
+        }
+        if (!partFile.renameTo(trackFile)) {
+            partFile.delete();
+            reportFailure(new IOException("Cannot rename " + partFile + " to " + trackFile));
+            return null;
+        }
+        Listener current = listener;
+        if (current != null) {
+            current.onTrackFinished(trackFile);
+        }
+        return trackFile;
+    }
+
+    private void closeQuietly() {
+        try {
+            writer.close();
+        } catch (IOException ignored) {
+            // Already reporting the first failure
+        }
+        writer = null;
+    }
+
+    private void reportFailure(IOException error) {
+        Listener current = listener;
+        if (current != null) {
+            current.onWriteFailed(trackFile, error);
+        }
+    }
+
+    /**
+     * Formats a single cue block, including the trailing blank line.
+     */
+    static String formatCue(int index, long startNanos, long endNanos, String text, Format format) {
+        return index + "\n"
+                + formatTimestamp(startNanos, format) + " --> " + formatTimestamp(endNanos, format) + "\n"
+                + text + "\n\n";
+    }
+
+    /**
+     * Formats a timestamp as HH:MM:SS.mmm for WebVTT or HH:MM:SS,mmm for SRT.
+     */
+    static String formatTimestamp(long nanos, Format format) {
+        long millis = nanos / 1_000_000L;
+        return String.format(Locale.US, "%02d:%02d:%02d%s%03d",
+                millis / 3_600_000L, (millis / 60_000L) % 60, (millis / 1000L) % 60,
+                format == Format.SRT ? "," : ".", millis % 1000L);
+    }
+}
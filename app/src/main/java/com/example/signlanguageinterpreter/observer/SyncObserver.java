@@ -0,0 +1,37 @@
+package com.example.signlanguageinterpreter.observer;
+
+import com.example.signlanguageinterpreter.model.Recognition;
+import com.example.signlanguageinterpreter.sync.ResultSyncer;
+
+/**
+ * Observer that hands every recognition to a ResultSyncer. Enqueueing is a lock-free
+ * in-memory offer, so the inference thread never waits on disk or network.
+ */
+public class SyncObserver implements Observer {
+    private final ResultSyncer syncer;
+
+    public SyncObserver(ResultSyncer syncer) {
+        this.syncer = syncer;
+    }
+
+    @Override
+    public void onRecognition(Recognition recognition) {
+        syncer.enqueueResult(System.currentTimeMillis(), recognition.getLabel(),
+                recognition.getLabelIndex(), recognition.getConfidence());
+    }
+
+    @Override
+    public void update(String result) {
+        // Only structured recognitions are synced
+    }
+
+    @Override
+    public void onPhotoCaptured(String photoPath) {
+        // Media is not synced
+    }
+
+    @Override
+    public void onVideoCaptured(String videoPath) {
+        // Media is not synced
+    }
+}
\ No newline at end of file
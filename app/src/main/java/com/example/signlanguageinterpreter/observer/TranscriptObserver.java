@@ -0,0 +1,53 @@
+package com.example.signlanguageinterpreter.observer;
+
+import android.util.Log;
+
+import com.example.signlanguageinterpreter.model.Recognition;
+import com.example.signlanguageinterpreter.transcript.TranscriptLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Observer that persists every recognition into a memory-mapped TranscriptLog, so past
+ * sessions can be searched and replayed with TranscriptReader.
+ */
+public class TranscriptObserver implements Observer, Closeable {
+    private static final String TAG = "TranscriptObserver";
+
+    private final TranscriptLog transcriptLog;
+
+    public TranscriptObserver(TranscriptLog transcriptLog) {
+        this.transcriptLog = transcriptLog;
+    }
+
+    @Override
+    public void onRecognition(Recognition recognition) {
+        try {
+            transcriptLog.append(recognition.getTimestampNanos(), recognition.getLabelIndex(),
+                    recognition.getConfidence(), recognition.getTrackId());
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to append to transcript", e);
+        }
+    }
+
+    @Override
+    public void update(String result) {
+        // Only structured recognitions are persisted
+    }
+
+    @Override
+    public void onPhotoCaptured(String photoPath) {
+        // Photos are not part of the transcript
+    }
+
+    @Override
+    public void onVideoCaptured(String videoPath) {
+        // Videos are not part of the transcript
+    }
+
+    @Override
+    public void close() {
+        transcriptLog.close();
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.signlanguageinterpreter.observer;
 
+import android.os.Looper;
 import android.widget.TextView;
 
 public class UIObserver implements Observer {
@@ -11,16 +12,25 @@ public class UIObserver implements Observer {
 
     @Override
     public void update(String result) {
-        textView.setText(result);
+        setText(result);
     }
 
     @Override
     public void onPhotoCaptured(String photoPath) {
-        textView.setText("Photo saved at: " + photoPath);
+        setText("Photo saved at: " + photoPath);
     }
 
     @Override
     public void onVideoCaptured(String videoPath) {
-        textView.setText("Video saved at: " + videoPath);
+        setText("Video saved at: " + videoPath);
     }
-}
+
+    // Results may be delivered from the camera executor, so hop to the main thread when needed
+    private void setText(String text) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            textView.setText(text);
+        } else {
+            textView.post(() -> textView.setText(text));
+        }
+    }
+}
\ No newline at end of file
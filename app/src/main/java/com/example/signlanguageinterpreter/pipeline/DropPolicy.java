@@ -0,0 +1,11 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+/**
+ * What a pipeline stage does when its producer outpaces the consumer and every slot is in use.
+ */
+public enum DropPolicy {
+    // Discard the oldest queued item and reuse its slot; the producer never waits
+    DROP_OLDEST,
+    // Wait until the consumer releases a slot; nothing is dropped
+    BLOCK
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+import android.os.SystemClock;
+
+import androidx.camera.core.ImageProxy;
+
+import com.example.signlanguageinterpreter.pool.BufferPool;
+import com.example.signlanguageinterpreter.replay.FrameRecorder;
+import com.example.signlanguageinterpreter.session.InterpreterSession;
+import com.example.signlanguageinterpreter.shadow.ShadowEvaluator;
+import com.example.signlanguageinterpreter.trace.FrameTracer;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Three-stage frame pipeline: the camera callback copies each frame into a preallocated slot,
+ * an inference worker classifies it, and a dispatch worker hands the scores to the listener.
+ * Stages are decoupled by lock-free single-producer/single-consumer ring buffers, so a slow
+ * model never stalls the camera thread and slow observers never stall inference.
+ */
+public class FramePipeline implements Closeable {
+    private static final long MAX_CAPTURE_AGE_NANOS = 1_000_000_000L; // Older sensor timestamps are not trusted
+
+    /**
+     * Receives classification scores on the dispatch thread.
+     */
+    public interface ResultListener {
+        void onResult(float[] scores, long timestampNanos, long frameId);
+    }
+
+    private final InterpreterSession session; // Provides the loaded model
+    private final PipelineStage<FrameSlot> inferenceStage; // Camera to inference
+    private final PipelineStage<ResultSlot> dispatchStage; // Inference to observers
+    private final AtomicLong skipped = new AtomicLong(); // Frames skipped by the rate limit
+    private volatile long minFrameIntervalNanos; // Rate limit on accepted frames, 0 for none
+    private long lastAcceptedNanos; // Only accessed on the camera thread
+    private long nextFrameId; // Only accessed on the camera thread
+    private final StageLatency captureLatency = new StageLatency(); // Copy out of the camera buffer
+    private final StageLatency inferenceLatency = new StageLatency(); // The model call
+    private final StageLatency dispatchLatency = new StageLatency(); // Formatting and observers
+    private volatile boolean closed; // Frames arriving after close are dropped
+    private volatile boolean paused; // Frames arriving while paused are dropped
+    private volatile ShadowEvaluator shadowEvaluator; // Candidate model compared on sampled frames
+    private volatile FrameRecorder frameRecorder; // Records the frames inference sees, null when off
+
+    /**
+     * Constructor for FramePipeline.
+     *
+     * @param session        The session owning the model.
+     * @param listener       Receives the scores of every classified frame.
+     * @param frameCapacity  The number of frames that may wait for inference.
+     * @param framePolicy    The policy when frames arrive faster than inference runs.
+     * @param resultCapacity The number of results that may wait for dispatch.
+     * @param resultPolicy   The policy when results arrive faster than observers consume them.
+     * @param bufferPool     The pool frame pixels are copied into.
+     */
+    public FramePipeline(InterpreterSession session, ResultListener listener,
+                         int frameCapacity, DropPolicy framePolicy,
+                         int resultCapacity, DropPolicy resultPolicy,
+                         BufferPool bufferPool) {
+        this.session = session;
+        this.dispatchStage = new PipelineStage<>("pipeline-dispatch", resultCapacity, resultPolicy,
+                ResultSlot::new, slot -> {
+                    long start = System.nanoTime();
+                    listener.onResult(slot.getScores(), slot.getTimestampNanos(), slot.getFrameId());
+                    dispatchLatency.record(System.nanoTime() - start);
+                });
+        this.inferenceStage = new PipelineStage<>("pipeline-inference", frameCapacity, framePolicy,
+                () -> new FrameSlot(bufferPool), this::infer);
+    }
+
+    /**
+     * Starts the worker threads.
+     */
+    public void start() {
+        dispatchStage.start();
+        inferenceStage.start();
+    }
+
+    /**
+     * Copies a camera frame into the pipeline and closes it. Call from the camera's analysis
+     * executor; returns as soon as the copy is done.
+     *
+     * @param image The RGBA_8888 analysis frame.
+     */
+    public void submitFrame(ImageProxy image) {
+        if (closed || paused) {
+            image.close();
+            return;
+        }
+        long nowNanos = SystemClock.elapsedRealtimeNanos();
+        if (nowNanos - lastAcceptedNanos < minFrameIntervalNanos) {
+            // Rate limited: skip the copy entirely
+            skipped.incrementAndGet();
+            image.close();
+            return;
+        }
+        lastAcceptedNanos = nowNanos;
+        // Results carry the time the frame was captured, not when it reached analysis
+        long timestampNanos = captureTimeNanos(image.getImageInfo().getTimestamp(), nowNanos);
+        long frameId = nextFrameId++;
+        FrameTracer.begin(FrameTracer.Stage.CAPTURE, frameId);
+        long start = System.nanoTime();
+        FrameSlot slot = null;
+        try {
+            slot = inferenceStage.acquire();
+            if (slot != null) {
+                slot.copyFrom(image, timestampNanos, frameId);
+            }
+        } catch (RuntimeException e) {
+            if (slot != null) {
+                inferenceStage.release(slot);
+            }
+            throw e;
+        } finally {
+            image.close();
+            FrameTracer.end(FrameTracer.Stage.CAPTURE, frameId);
+        }
+        if (slot != null) {
+            captureLatency.record(System.nanoTime() - start);
+            inferenceStage.submit(slot);
+        }
+    }
+
+    /**
+     * Maps a camera sensor timestamp to the elapsedRealtimeNanos timebase. Most devices stamp
+     * frames on that clock already; the rest use the monotonic clock, which System.nanoTime
+     * reads on Android. Falls back to the arrival time when neither clock fits.
+     *
+     * @param sensorNanos The ImageInfo timestamp.
+     * @param nowNanos    The current elapsedRealtimeNanos.
+     * @return The capture time on the elapsedRealtimeNanos timebase.
+     */
+    static long captureTimeNanos(long sensorNanos, long nowNanos) {
+        if (sensorNanos > 0 && sensorNanos <= nowNanos && nowNanos - sensorNanos < MAX_CAPTURE_AGE_NANOS) {
+            return sensorNanos;
+        }
+        long monotonicNanos = System.nanoTime();
+        if (sensorNanos > 0 && sensorNanos <= monotonicNanos && monotonicNanos - sensorNanos < MAX_CAPTURE_AGE_NANOS) {
+            return nowNanos - (monotonicNanos - sensorNanos);
+        }
+        return nowNanos;
+    }
+
+    /**
+     * Quiesces inference while the host is paused. Frames still arriving are closed unread,
+     * frames already queued are dropped, and then the given task runs on the inference worker,
+     * where it cannot race a classification, e.g. to release the model's buffers.
+     *
+     * @param whenIdle Runs on the inference worker once no frame is left to classify.
+     */
+    public void pause(Runnable whenIdle) {
+        paused = true;
+        inferenceStage.post(() -> {
+            inferenceStage.discardQueued();
+            whenIdle.run();
+        });
+    }
+
+    /**
+     * Runs a task on the inference worker between two frames, e.g. to rebuild the interpreter
+     * on the thread that will run it, which GPU delegates require.
+     *
+     * @param task The task.
+     */
+    public void runOnInferenceWorker(Runnable task) {
+        inferenceStage.post(task);
+    }
+
+    /**
+     * Accepts frames again after pause.
+     */
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * Limits how many frames enter the pipeline. Frames arriving sooner than the interval
+     * after the last accepted one are closed without being copied.
+     *
+     * @param minFrameIntervalNanos The minimum time between accepted frames, or 0 for no limit.
+     */
+    public void setMinFrameIntervalNanos(long minFrameIntervalNanos) {
+        this.minFrameIntervalNanos = minFrameIntervalNanos;
+    }
+
+    /**
+     * Offers every classified frame to a shadow evaluator after the production result is
+     * computed, or stops offering frames when null.
+     *
+     * @param shadowEvaluator The evaluator comparing a candidate model, or null.
+     */
+    public void setShadowEvaluator(ShadowEvaluator shadowEvaluator) {
+        this.shadowEvaluator = shadowEvaluator;
+    }
+
+    /**
+     * Records every frame that reaches inference, or stops recording when null. The previous
+     * recorder is not closed; the caller owns it.
+     *
+     * @param frameRecorder The recorder, or null.
+     */
+    public void setFrameRecorder(FrameRecorder frameRecorder) {
+        this.frameRecorder = frameRecorder;
+    }
+
+    // Frames closed by the rate limit without entering the pipeline
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    // Exponentially weighted average inference time, negative until the first frame
+    public double getAverageInferenceMillis() {
+        return inferenceLatency.getAverageMillis();
+    }
+
+    // Average time to copy a frame out of the camera buffer, negative until the first frame
+    public double getAverageCaptureMillis() {
+        return captureLatency.getAverageMillis();
+    }
+
+    // Average time to format a result and notify the observers, negative until the first result
+    public double getAverageDispatchMillis() {
+        return dispatchLatency.getAverageMillis();
+    }
+
+    public PipelineStage<FrameSlot> getInferenceStage() {
+        return inferenceStage;
+    }
+
+    public PipelineStage<ResultSlot> getDispatchStage() {
+        return dispatchStage;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        inferenceStage.stop();
+        dispatchStage.stop();
+        // Both workers are stopped, so no slot is in use any more
+        for (FrameSlot slot : inferenceStage.getSlots()) {
+            slot.release();
+        }
+    }
+
+    // Runs on the inference worker, which is the only producer of the dispatch stage
+    private void infer(FrameSlot frame) {
+        FrameRecorder recorder = frameRecorder;
+        if (recorder != null) {
+            recorder.record(frame.getPixels(), frame.getWidth(), frame.getHeight(),
+                    frame.getRotationDegrees(), frame.getTimestampNanos());
+        }
+        long frameId = frame.getFrameId();
+        long start = System.nanoTime();
+        // The model traces its own preprocessing, inference and postprocessing under this section
+        FrameTracer.begin(FrameTracer.Stage.CLASSIFY, frameId);
+        float[] scores;
+        try {
+            scores = session.getModel().classifyScores(frame.getPixels(), frame.getWidth(), frame.getHeight(),
+                    frame.getRotationDegrees());
+        } finally {
+            FrameTracer.end(FrameTracer.Stage.CLASSIFY, frameId);
+        }
+        long inferenceNanos = System.nanoTime() - start;
+        inferenceLatency.record(inferenceNanos);
+        ShadowEvaluator shadow = shadowEvaluator;
+        if (shadow != null) {
+            FrameTracer.begin(FrameTracer.Stage.SHADOW, frameId);
+            try {
+                shadow.offer(frame.getPixels(), frame.getWidth(), frame.getHeight(), frame.getRotationDegrees(),
+                        scores, inferenceNanos);
+            } finally {
+                FrameTracer.end(FrameTracer.Stage.SHADOW, frameId);
+            }
+        }
+        ResultSlot result = dispatchStage.acquire();
+        if (result == null) {
+            return;
+        }
+        result.set(scores, frame.getTimestampNanos(), frameId);
+        dispatchStage.submit(result);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+import androidx.camera.core.ImageProxy;
+
+import com.example.signlanguageinterpreter.pool.BufferPool;
+import com.example.signlanguageinterpreter.pool.Lease;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Preallocated holder for one analysis frame. The camera thread copies the RGBA plane into
+ * the slot's direct buffer and closes the ImageProxy right away, so CameraX gets its image
+ * back without waiting for inference. The pixel buffer is leased from a shared pool and only
+ * swapped when the frame size changes, e.g. after the analysis resolution is renegotiated;
+ * the old one goes back to the pool for the next size change to reuse.
+ */
+public class FrameSlot {
+    private final BufferPool bufferPool; // Source of the direct pixel buffers
+    private Lease<ByteBuffer> pixelsLease;
+    private ByteBuffer pixels; // Tightly packed RGBA pixels
+    private int width;
+    private int height;
+    private int rotationDegrees;
+    private long timestampNanos;
+    private long frameId; // Pipeline-wide id of the frame, for tracing
+
+    /**
+     * Constructor for FrameSlot.
+     *
+     * @param bufferPool The pool of direct buffers the frame pixels are copied into.
+     */
+    public FrameSlot(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Copies an RGBA_8888 ImageProxy into this slot. The caller still owns and closes the image.
+     *
+     * @param image          The analysis frame.
+     * @param timestampNanos The frame time on the elapsedRealtimeNanos timebase.
+     * @param frameId        The id the pipeline assigned to the frame.
+     */
+    public void copyFrom(ImageProxy image, long timestampNanos, long frameId) {
+        int frameWidth = image.getWidth();
+        int frameHeight = image.getHeight();
+        int rowBytes = frameWidth * 4;
+        if (pixels == null || width != frameWidth || height != frameHeight) {
+            release();
+            pixelsLease = bufferPool.lease(rowBytes * frameHeight);
+            pixels = pixelsLease.get();
+        }
+        width = frameWidth;
+        height = frameHeight;
+        this.rotationDegrees = image.getImageInfo().getRotationDegrees();
+        this.timestampNanos = timestampNanos;
+        this.frameId = frameId;
+
+        ImageProxy.PlaneProxy plane = image.getPlanes()[0];
+        ByteBuffer source = plane.getBuffer();
+        int rowStride = plane.getRowStride();
+        pixels.clear();
+        if (rowStride == rowBytes) {
+            source.rewind();
+            source.limit(rowBytes * frameHeight);
+            pixels.put(source);
+        } else {
+            // Drop the row padding so the pixels are tightly packed
+            for (int row = 0; row < frameHeight; row++) {
+                source.limit(row * rowStride + rowBytes);
+                source.position(row * rowStride);
+                pixels.put(source);
+            }
+        }
+        pixels.flip();
+    }
+
+    /**
+     * Returns the pixel buffer to its pool. The slot leases a new one on its next frame.
+     */
+    public void release() {
+        if (pixelsLease != null) {
+            pixelsLease.close();
+            pixelsLease = null;
+            pixels = null;
+        }
+    }
+
+    public ByteBuffer getPixels() {
+        return pixels;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getRotationDegrees() {
+        return rotationDegrees;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,281 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A pipeline stage with its own worker thread, fed through a lock-free ring buffer of
+ * preallocated slots. The producer acquires an empty slot, fills it and submits it; the worker
+ * processes it and recycles it through a second ring back to the producer. The number of slots
+ * is fixed at capacity + 2 (queued, one being filled, one being processed), so the memory held
+ * by a stage is bounded no matter how far the consumer falls behind.
+ *
+ * @param <T> The slot type.
+ */
+public class PipelineStage<T> {
+    private static final String TAG = "PipelineStage";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Creates the preallocated slots of a stage.
+     */
+    public interface SlotFactory<T> {
+        T create();
+    }
+
+    /**
+     * Processes one slot on the stage's worker thread.
+     */
+    public interface Handler<T> {
+        void process(T slot);
+    }
+
+    private final String name; // Used for the worker thread and logs
+    private final DropPolicy dropPolicy; // What acquire does when every slot is in use
+    private final Handler<T> handler; // Consumer of the filled slots
+    private final SpscRingBuffer<T> queue; // Filled slots, producer to worker
+    private final SpscRingBuffer<T> free; // Empty slots, worker to producer
+    private final int slotCount; // Preallocated slots, capacity + 2
+    private final List<T> slots; // Every slot, wherever it currently is
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>(); // Run by the worker between slots
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong blockedNanos = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile Thread waitingProducer; // Producer parked in acquire under BLOCK
+    private T spare; // Slot acquired but handed back unused, owned by the producer
+
+    /**
+     * Constructor for PipelineStage.
+     *
+     * @param name       The stage name.
+     * @param capacity   The number of slots that may be queued while the producer and the worker
+     *                   each hold one.
+     * @param dropPolicy The policy applied when every slot is in use.
+     * @param factory    Creates the capacity + 2 preallocated slots.
+     * @param handler    Processes slots on the worker thread.
+     */
+    public PipelineStage(String name, int capacity, DropPolicy dropPolicy,
+                         SlotFactory<T> factory, Handler<T> handler) {
+        this.name = name;
+        this.dropPolicy = dropPolicy;
+        this.handler = handler;
+        this.slotCount = capacity + 2;
+        // Both rings can hold every slot, so offering a slot never fails
+        this.queue = new SpscRingBuffer<>(slotCount);
+        this.free = new SpscRingBuffer<>(slotCount);
+        List<T> created = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            T slot = factory.create();
+            created.add(slot);
+            free.offer(slot);
+        }
+        this.slots = Collections.unmodifiableList(created);
+    }
+
+    /**
+     * Starts the worker thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWorker, name);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the worker thread after it finishes the slot it is processing. Queued slots are
+     * not processed.
+     */
+    public synchronized void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        LockSupport.unpark(waitingProducer);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    /**
+     * Returns an empty slot for the producer to fill. Under DROP_OLDEST this never waits: if
+     * no slot is free, the oldest queued slot is dropped and reused. Under BLOCK it waits
+     * until the worker releases a slot. Must only be called from the producer thread.
+     *
+     * @return A slot owned by the producer, or null if the stage was stopped while waiting.
+     */
+    public T acquire() {
+        if (spare != null) {
+            T slot = spare;
+            spare = null;
+            return slot;
+        }
+        T slot = free.poll();
+        if (slot != null) {
+            return slot;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            // No free slot means at least capacity slots are queued, so there is an oldest one
+            while (slot == null) {
+                slot = queue.poll();
+                if (slot != null) {
+                    dropped.incrementAndGet();
+                } else {
+                    slot = free.poll();
+                }
+            }
+            return slot;
+        }
+        long start = System.nanoTime();
+        waitingProducer = Thread.currentThread();
+        try {
+            while ((slot = free.poll()) == null) {
+                if (!running) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } finally {
+            waitingProducer = null;
+            blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+        return slot;
+    }
+
+    /**
+     * Queues a filled slot for the worker. Must only be called from the producer thread with
+     * a slot returned by acquire.
+     *
+     * @param slot The filled slot.
+     */
+    public void submit(T slot) {
+        queue.offer(slot);
+        submitted.incrementAndGet();
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Hands back a slot acquired but not submitted, e.g. when filling it failed.
+     *
+     * @param slot The unused slot.
+     */
+    public void release(T slot) {
+        spare = slot;
+    }
+
+    /**
+     * Runs a task on the worker thread before it takes the next slot, e.g. to touch state only
+     * the worker may use. Tasks posted while the stage is stopped run once it is started.
+     *
+     * @param task The task.
+     */
+    public void post(Runnable task) {
+        tasks.offer(task);
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Drops every queued slot and hands it back to the producer, counting it as dropped. Must
+     * only be called on the worker thread, e.g. from a posted task.
+     *
+     * @return The number of slots dropped.
+     */
+    public int discardQueued() {
+        int discarded = 0;
+        T slot;
+        while ((slot = queue.poll()) != null) {
+            free.offer(slot);
+            discarded++;
+        }
+        if (discarded > 0) {
+            dropped.addAndGet(discarded);
+            LockSupport.unpark(waitingProducer);
+        }
+        return discarded;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DropPolicy getDropPolicy() {
+        return dropPolicy;
+    }
+
+    // Number of slots waiting for the worker
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    // Number of preallocated slots, the upper bound of the stage's memory
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    // Every slot of the stage, e.g. to release their resources once the stage is stopped
+    public List<T> getSlots() {
+        return slots;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Total time the producer spent waiting for a slot under BLOCK
+    public long getBlockedNanos() {
+        return blockedNanos.get();
+    }
+
+    private void runWorker() {
+        while (running) {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, name + " failed to run a task", e);
+                }
+            }
+            T slot = queue.poll();
+            if (slot == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                handler.process(slot);
+            } catch (RuntimeException e) {
+                Log.e(TAG, name + " failed to process a slot", e);
+            } finally {
+                free.offer(slot);
+                processed.incrementAndGet();
+                LockSupport.unpark(waitingProducer);
+            }
+        }
+    }
+}
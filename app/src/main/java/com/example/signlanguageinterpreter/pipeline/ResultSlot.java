@@ -0,0 +1,38 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+/**
+ * Preallocated holder for the scores of one classified frame on its way to the observers.
+ */
+public class ResultSlot {
+    private float[] scores = new float[0];
+    private long timestampNanos;
+    private long frameId; // Id of the classified frame, for tracing
+
+    /**
+     * Copies a score vector into this slot, growing the array only when the label count changes.
+     *
+     * @param source         The scores in label order.
+     * @param timestampNanos The time of the classified frame.
+     * @param frameId        The id of the classified frame.
+     */
+    public void set(float[] source, long timestampNanos, long frameId) {
+        if (scores.length != source.length) {
+            scores = new float[source.length];
+        }
+        System.arraycopy(source, 0, scores, 0, source.length);
+        this.timestampNanos = timestampNanos;
+        this.frameId = frameId;
+    }
+
+    public float[] getScores() {
+        return scores;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for a single producer thread and a single consumer thread.
+ * Only the producer advances the tail. The head is advanced with a CAS, which lets the
+ * producer also remove the oldest element when it needs to drop it; exactly one of the two
+ * threads wins each element, so ownership of an element is never shared.
+ *
+ * @param <T> The element type.
+ */
+public class SpscRingBuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next element to remove
+    private final AtomicLong tail = new AtomicLong(); // Next free position, written by the producer only
+
+    /**
+     * Constructor for SpscRingBuffer.
+     *
+     * @param capacity The minimum capacity; rounded up to a power of two.
+     */
+    public SpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an element. Must only be called from the producer thread.
+     *
+     * @param item The element to add.
+     * @return False if the buffer is full.
+     */
+    public boolean offer(T item) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() > mask) {
+            return false;
+        }
+        slots.lazySet((int) (currentTail & mask), item);
+        // Ordered store: the slot write above is visible before the new tail
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element. Called by the consumer, or by the producer to drop the
+     * oldest element when the buffer is full.
+     *
+     * @return The oldest element, or null if the buffer is empty.
+     */
+    public T poll() {
+        while (true) {
+            long currentHead = head.get();
+            if (currentHead >= tail.get()) {
+                return null;
+            }
+            // The slot cannot be reused before head moves past it, so a read followed by a
+            // successful CAS always returns the element that was at currentHead
+            T item = slots.get((int) (currentHead & mask));
+            if (head.compareAndSet(currentHead, currentHead + 1)) {
+                return item;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of queued elements. Exact only when both threads are idle.
+     *
+     * @return The queue depth.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    /**
+     * Returns the capacity of the buffer.
+     *
+     * @return The capacity, a power of two.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
\ No newline at end of file
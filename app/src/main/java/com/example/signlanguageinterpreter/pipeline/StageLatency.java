@@ -0,0 +1,27 @@
+package com.example.signlanguageinterpreter.pipeline;
+
+/**
+ * Exponentially weighted average latency of one pipeline stage. Written by the thread running
+ * the stage, one sample at a time, and read from any thread, e.g. by the performance overlay.
+ */
+public class StageLatency {
+    private static final double SMOOTHING = 0.1; // Weight of the newest sample in the average
+
+    private volatile double averageMillis = -1; // Negative until the first sample
+
+    /**
+     * Adds a sample. Samples must not be recorded concurrently.
+     *
+     * @param nanos The time the stage took for one frame.
+     */
+    public void record(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        double average = averageMillis;
+        averageMillis = average < 0 ? millis : average + SMOOTHING * (millis - average);
+    }
+
+    // Average in milliseconds, negative until the first sample
+    public double getAverageMillis() {
+        return averageMillis;
+    }
+}
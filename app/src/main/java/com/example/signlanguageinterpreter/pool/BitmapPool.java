@@ -0,0 +1,60 @@
+package com.example.signlanguageinterpreter.pool;
+
+import android.graphics.Bitmap;
+
+/**
+ * SizeClassPool of mutable Bitmaps. A pooled Bitmap is reconfigured to the requested size,
+ * so one allocation serves every frame size up to its class size. Leased Bitmaps can also
+ * be passed to BitmapFactory as inBitmap to decode into without allocating.
+ */
+public class BitmapPool extends SizeClassPool<Bitmap> {
+
+    /**
+     * Constructor for BitmapPool.
+     *
+     * @param maxRetainedBytes The maximum bytes of idle Bitmaps kept for reuse.
+     * @param leakDetection    Whether to report leases that are never closed.
+     */
+    public BitmapPool(long maxRetainedBytes, boolean leakDetection) {
+        super("BitmapPool", maxRetainedBytes, leakDetection);
+    }
+
+    /**
+     * Leases a mutable ARGB_8888 Bitmap of exactly the given size.
+     *
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     * @return The lease; close it to return the Bitmap.
+     */
+    public Lease<Bitmap> lease(int width, int height) {
+        Lease<Bitmap> lease = leaseBytes(width * height * 4);
+        Bitmap bitmap = lease.get();
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+        }
+        return lease;
+    }
+
+    @Override
+    protected Bitmap allocate(int classBytes) {
+        // Any shape of the class size will do; reconfigure reshapes it to the requested frame
+        int pixels = classBytes / 4;
+        int width = Math.min(pixels, 1024);
+        return Bitmap.createBitmap(width, pixels / width, Bitmap.Config.ARGB_8888);
+    }
+
+    @Override
+    protected long sizeOf(Bitmap value) {
+        return value.getAllocationByteCount();
+    }
+
+    @Override
+    protected boolean isReusable(Bitmap value) {
+        return !value.isRecycled() && value.isMutable();
+    }
+
+    @Override
+    protected void discard(Bitmap value) {
+        value.recycle();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.signlanguageinterpreter.pool;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * SizeClassPool of ByteBuffers in native byte order, either direct, for camera frames and
+ * tensors, or heap-backed, when the bytes are needed as an array, e.g. to decode a JPEG.
+ * A leased buffer is cleared and limited to the requested size.
+ */
+public class BufferPool extends SizeClassPool<ByteBuffer> {
+    private final boolean direct; // Whether buffers live outside the Java heap
+
+    /**
+     * Constructor for BufferPool.
+     *
+     * @param maxRetainedBytes The maximum bytes of idle buffers kept for reuse.
+     * @param direct           Whether to allocate direct buffers.
+     * @param leakDetection    Whether to report leases that are never closed.
+     */
+    public BufferPool(long maxRetainedBytes, boolean direct, boolean leakDetection) {
+        super(direct ? "BufferPool" : "HeapBufferPool", maxRetainedBytes, leakDetection);
+        this.direct = direct;
+    }
+
+    /**
+     * Leases a buffer with at least the given capacity, positioned at 0 and limited to bytes.
+     *
+     * @param bytes The number of bytes needed.
+     * @return The lease; close it to return the buffer.
+     */
+    public Lease<ByteBuffer> lease(int bytes) {
+        Lease<ByteBuffer> lease = leaseBytes(bytes);
+        ByteBuffer buffer = lease.get();
+        buffer.clear();
+        buffer.limit(bytes);
+        return lease;
+    }
+
+    @Override
+    protected ByteBuffer allocate(int classBytes) {
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(classBytes) : ByteBuffer.allocate(classBytes);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    protected long sizeOf(ByteBuffer value) {
+        return value.capacity();
+    }
+}
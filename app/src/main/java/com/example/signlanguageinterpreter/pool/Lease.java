@@ -0,0 +1,59 @@
+package com.example.signlanguageinterpreter.pool;
+
+import java.io.Closeable;
+
+/**
+ * Temporary ownership of a pooled object. Closing the lease returns the object to its pool;
+ * use try-with-resources so it is returned when processing finishes, even on failure. The
+ * object must not be used after the lease is closed.
+ *
+ * @param <T> The pooled type.
+ */
+public final class Lease<T> implements Closeable {
+    private final SizeClassPool<T> pool; // Pool the object goes back to
+    private final T value; // The leased object
+    private final int sizeClass; // Size class the object belongs to
+    private SizeClassPool.LeakTracker tracker; // Debug-only record of where the lease was taken
+    private boolean closed;
+
+    Lease(SizeClassPool<T> pool, T value, int sizeClass) {
+        this.pool = pool;
+        this.value = value;
+        this.sizeClass = sizeClass;
+    }
+
+    void setTracker(SizeClassPool.LeakTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    // Null without leak detection; tests enqueue it to stand in for the garbage collector
+    SizeClassPool.LeakTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Returns the leased object.
+     *
+     * @return The object, owned by the caller until close.
+     */
+    public T get() {
+        if (closed) {
+            throw new IllegalStateException("Lease already returned");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the object to the pool. Closing twice has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        pool.giveBack(value, sizeClass, tracker);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.signlanguageinterpreter.pool;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Pool of large, reusable objects grouped into power-of-two size classes, so an object can
+ * serve any request up to its class size and frames of slightly different sizes share
+ * objects. Returned objects are kept only while the total retained bytes stay within the
+ * budget; beyond it they are discarded, so an idle pool never pins more than maxRetainedBytes.
+ *
+ * With leak detection on, every lease remembers where it was taken. A lease that becomes
+ * unreachable without being closed is reported to the LeakReporter with that stack trace the
+ * next time the pool is used. Meant for debug builds: it costs a stack trace per lease.
+ *
+ * @param <T> The pooled type.
+ */
+public abstract class SizeClassPool<T> {
+    private static final int MIN_CLASS_SHIFT = 12; // Smallest class is 4 KiB
+    private static final int CLASS_COUNT = 31 - MIN_CLASS_SHIFT;
+    public static final int MAX_CLASS_BYTES = 1 << 30; // Largest class is 1 GiB
+
+    /**
+     * Receives leases that were collected without being closed, on the thread using the pool.
+     */
+    public interface LeakReporter {
+        void onLeak(String poolName, Throwable origin);
+    }
+
+    private final String name; // Used in leak reports
+    private final long maxRetainedBytes; // Budget of idle objects
+    private final boolean leakDetection; // Whether leases record their origin
+    private final ArrayDeque<T>[] idle; // Returned objects per size class
+    private long retainedBytes; // Bytes held by idle objects
+    private long hits; // Leases served from the pool
+    private long misses; // Leases that allocated
+    private long discarded; // Returned objects dropped to respect the budget
+    private long leaks; // Leases collected without being closed
+    private volatile LeakReporter leakReporter; // Null to only count leaks
+    private final ReferenceQueue<Lease<?>> collected = new ReferenceQueue<>();
+    private final Set<LeakTracker> outstanding =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<LeakTracker, Boolean>()));
+
+    /**
+     * Origin of a lease, reported if the lease is collected without being closed.
+     */
+    static final class LeakTracker extends WeakReference<Lease<?>> {
+        final Throwable origin;
+
+        LeakTracker(Lease<?> lease, ReferenceQueue<Lease<?>> queue, Throwable origin) {
+            super(lease, queue);
+            this.origin = origin;
+        }
+    }
+
+    /**
+     * Constructor for SizeClassPool.
+     *
+     * @param name             The pool name used in leak reports.
+     * @param maxRetainedBytes The maximum bytes of idle objects kept for reuse.
+     * @param leakDetection    Whether to report leases that are never closed.
+     */
+    @SuppressWarnings("unchecked")
+    protected SizeClassPool(String name, long maxRetainedBytes, boolean leakDetection) {
+        this.name = name;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.leakDetection = leakDetection;
+        @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created directly
+        ArrayDeque<T>[] lists = new ArrayDeque[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            lists[i] = new ArrayDeque<>();
+        }
+        this.idle = lists;
+    }
+
+    /**
+     * Sets who is told about leaked leases, or null to only count them.
+     *
+     * @param leakReporter The reporter.
+     */
+    public void setLeakReporter(LeakReporter leakReporter) {
+        this.leakReporter = leakReporter;
+    }
+
+    /**
+     * Allocates a new object able to hold classBytes.
+     */
+    protected abstract T allocate(int classBytes);
+
+    /**
+     * Returns the bytes held by an object, counted against the budget.
+     */
+    protected abstract long sizeOf(T value);
+
+    /**
+     * Releases an object dropped from the pool. Does nothing by default.
+     */
+    protected void discard(T value) {
+    }
+
+    /**
+     * Returns whether a returned object may be reused. Objects rejected here are discarded.
+     */
+    protected boolean isReusable(T value) {
+        return true;
+    }
+
+    /**
+     * Leases an object able to hold at least the given number of bytes.
+     *
+     * @param minBytes The number of bytes needed, at most MAX_CLASS_BYTES.
+     * @return The lease; close it to return the object.
+     * @throws IllegalArgumentException If minBytes exceeds the largest size class.
+     */
+    protected Lease<T> leaseBytes(int minBytes) {
+        int sizeClass = sizeClassOf(minBytes);
+        reportLeaks();
+        T value;
+        synchronized (this) {
+            value = idle[sizeClass].pollLast();
+            if (value != null) {
+                retainedBytes -= sizeOf(value);
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (value == null) {
+            value = allocate(classBytes(sizeClass));
+        }
+        Lease<T> lease = new Lease<>(this, value, sizeClass);
+        if (leakDetection) {
+            // The tracker only refers to the lease weakly, so it can tell when it is dropped
+            LeakTracker tracker = new LeakTracker(lease, collected, new Throwable(name + " lease taken here"));
+            outstanding.add(tracker);
+            lease.setTracker(tracker);
+        }
+        return lease;
+    }
+
+    void giveBack(T value, int sizeClass, LeakTracker tracker) {
+        if (tracker != null) {
+            outstanding.remove(tracker);
+            tracker.clear();
+        }
+        if (!isReusable(value)) {
+            return;
+        }
+        long size = sizeOf(value);
+        synchronized (this) {
+            if (retainedBytes + size <= maxRetainedBytes) {
+                idle[sizeClass].addLast(value);
+                retainedBytes += size;
+                return;
+            }
+            discarded++;
+        }
+        discard(value);
+    }
+
+    /**
+     * Drops every idle object, e.g. when the app is trimmed for memory.
+     */
+    public void clear() {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            while (true) {
+                T value;
+                synchronized (this) {
+                    value = idle[i].pollLast();
+                    if (value == null) {
+                        break;
+                    }
+                    retainedBytes -= sizeOf(value);
+                }
+                discard(value);
+            }
+        }
+    }
+
+    public synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getDiscardedCount() {
+        return discarded;
+    }
+
+    /**
+     * Returns the number of leases found collected without being closed. Only counted with
+     * leak detection on; checks for new leaks first.
+     *
+     * @return The number of leaked leases.
+     */
+    public long getLeakCount() {
+        reportLeaks();
+        synchronized (this) {
+            return leaks;
+        }
+    }
+
+    /**
+     * Returns the size class serving a request: class i holds objects of 4 KiB << i.
+     *
+     * @param bytes The requested size, at most MAX_CLASS_BYTES.
+     * @return The size class index.
+     * @throws IllegalArgumentException If no size class is large enough.
+     */
+    public static int sizeClassOf(int bytes) {
+        if (bytes > MAX_CLASS_BYTES) {
+            throw new IllegalArgumentException(bytes + " bytes exceed the largest size class of " + MAX_CLASS_BYTES);
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(bytes, 1) - 1);
+        return Math.max(0, shift - MIN_CLASS_SHIFT);
+    }
+
+    // Capacity of the objects in a size class
+    public static int classBytes(int sizeClass) {
+        return 1 << (sizeClass + MIN_CLASS_SHIFT);
+    }
+
+    private void reportLeaks() {
+        if (!leakDetection) {
+            return;
+        }
+        Reference<? extends Lease<?>> reference;
+        while ((reference = collected.poll()) != null) {
+            LeakTracker tracker = (LeakTracker) reference;
+            // Closed leases are removed and cleared before they can be enqueued
+            if (outstanding.remove(tracker)) {
+                synchronized (this) {
+                    leaks++;
+                }
+                LeakReporter reporter = leakReporter;
+                if (reporter != null) {
+                    reporter.onLeak(name, tracker.origin);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.signlanguageinterpreter.preprocess;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fused model-input kernel: in a single pass over the output tensor it applies the sensor
+ * rotation, an aspect-preserving center crop, a bilinear resize and the normalization, reading
+ * each output pixel's four source neighbors straight from the camera frame. No rotated, cropped
+ * or resized intermediate frame is ever materialized. Large outputs are split by rows across a
+ * fork-join pool; every row writes to its own region of the output, so rows need no locking.
+ */
+public class FramePreprocessor {
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 256 * 256; // Output pixels worth splitting
+    private static final int CHANNELS = 3; // RGB
+
+    private final int outputWidth; // Model input width
+    private final int outputHeight; // Model input height
+    private final boolean floatOutput; // FLOAT32 output if true, UINT8 otherwise
+    private final float mean; // Subtracted from every FLOAT32 channel value
+    private final float scale; // 1 / stddev applied after the mean
+    private final ForkJoinPool pool; // Runs the row bands of large outputs
+    private final int parallelThreshold; // Output pixels from which rows are split across the pool
+
+    /**
+     * Constructor for FramePreprocessor writing UINT8 RGB.
+     *
+     * @param outputWidth  The model input width.
+     * @param outputHeight The model input height.
+     */
+    public FramePreprocessor(int outputWidth, int outputHeight) {
+        this(outputWidth, outputHeight, false, 0f, 1f, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructor for FramePreprocessor.
+     *
+     * @param outputWidth       The model input width.
+     * @param outputHeight      The model input height.
+     * @param floatOutput       Whether to write FLOAT32 (value - mean) / stddev instead of UINT8.
+     * @param mean              The mean subtracted from FLOAT32 values.
+     * @param stddev            The standard deviation FLOAT32 values are divided by.
+     * @param pool              The pool running the row bands of large outputs.
+     * @param parallelThreshold The number of output pixels from which rows are split.
+     */
+    public FramePreprocessor(int outputWidth, int outputHeight, boolean floatOutput, float mean, float stddev,
+                             ForkJoinPool pool, int parallelThreshold) {
+        this.outputWidth = outputWidth;
+        this.outputHeight = outputHeight;
+        this.floatOutput = floatOutput;
+        this.mean = mean;
+        this.scale = 1f / stddev;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns the size of the output tensor in bytes.
+     *
+     * @return The number of bytes process writes.
+     */
+    public int getOutputBytes() {
+        return outputWidth * outputHeight * CHANNELS * (floatOutput ? 4 : 1);
+    }
+
+    /**
+     * Transforms an ARGB frame, e.g. from Bitmap.getPixels, into the model input.
+     *
+     * @param argb     The source pixels, row-major, one packed ARGB int per pixel.
+     * @param width    The source width.
+     * @param height   The source height.
+     * @param rotation The clockwise rotation in degrees that makes the frame upright: 0, 90,
+     *                 180 or 270.
+     * @param output   Receives the NHWC RGB tensor at absolute offsets from 0; its position is
+     *                 not changed.
+     */
+    public void process(int[] argb, int width, int height, int rotation, ByteBuffer output) {
+        run(new Source(argb, null, width, height, width), rotation, output);
+    }
+
+    /**
+     * Transforms an RGBA_8888 frame, e.g. a camera analysis buffer, into the model input.
+     *
+     * @param rgba      The source pixels, four bytes per pixel in R, G, B, A order.
+     * @param width     The source width.
+     * @param height    The source height.
+     * @param rowStride The number of bytes between the starts of two rows.
+     * @param rotation  The clockwise rotation in degrees that makes the frame upright.
+     * @param output    Receives the NHWC RGB tensor at absolute offsets from 0.
+     */
+    public void process(ByteBuffer rgba, int width, int height, int rowStride, int rotation, ByteBuffer output) {
+        run(new Source(null, rgba, width, height, rowStride), rotation, output);
+    }
+
+    private void run(Source source, int rotation, ByteBuffer output) {
+        if (output.capacity() < getOutputBytes()) {
+            throw new IllegalArgumentException("Output holds " + output.capacity() + " bytes, needs " + getOutputBytes());
+        }
+        Mapping mapping = new Mapping(source.width, source.height, normalizeRotation(rotation), outputWidth, outputHeight);
+        if (outputWidth * outputHeight < parallelThreshold || pool.getParallelism() < 2) {
+            processRows(source, mapping, output, 0, outputHeight);
+        } else {
+            int minRows = Math.max(1, outputHeight / (pool.getParallelism() * 2));
+            pool.invoke(new RowBand(source, mapping, output, 0, outputHeight, minRows));
+        }
+    }
+
+    private void processRows(Source source, Mapping mapping, ByteBuffer output, int fromRow, int toRow) {
+        int maxX = source.width - 1;
+        int maxY = source.height - 1;
+        for (int oy = fromRow; oy < toRow; oy++) {
+            // Source coordinates are linear in the output column within a row
+            float v = mapping.cropY + (oy + 0.5f) * mapping.stepY - 0.5f;
+            float sx = mapping.originX + v * mapping.xPerV;
+            float sy = mapping.originY + v * mapping.yPerV;
+            float u0 = mapping.cropX + 0.5f * mapping.stepX - 0.5f;
+            sx += u0 * mapping.xPerU;
+            sy += u0 * mapping.yPerU;
+            float dx = mapping.stepX * mapping.xPerU;
+            float dy = mapping.stepX * mapping.yPerU;
+            int index = oy * outputWidth * CHANNELS;
+            for (int ox = 0; ox < outputWidth; ox++, sx += dx, sy += dy, index += CHANNELS) {
+                float cx = Math.min(Math.max(sx, 0f), maxX);
+                float cy = Math.min(Math.max(sy, 0f), maxY);
+                int x0 = (int) cx;
+                int y0 = (int) cy;
+                int x1 = Math.min(x0 + 1, maxX);
+                int y1 = Math.min(y0 + 1, maxY);
+                float fx = cx - x0;
+                float fy = cy - y0;
+                int p00 = source.pixel(x0, y0);
+                int p10 = source.pixel(x1, y0);
+                int p01 = source.pixel(x0, y1);
+                int p11 = source.pixel(x1, y1);
+                write(output, index, lerp(p00, p10, p01, p11, 16, fx, fy));
+                write(output, index + 1, lerp(p00, p10, p01, p11, 8, fx, fy));
+                write(output, index + 2, lerp(p00, p10, p01, p11, 0, fx, fy));
+            }
+        }
+    }
+
+    private void write(ByteBuffer output, int element, float value) {
+        if (floatOutput) {
+            output.putFloat(element * 4, (value - mean) * scale);
+        } else {
+            output.put(element, (byte) (int) (value + 0.5f));
+        }
+    }
+
+    private static float lerp(int p00, int p10, int p01, int p11, int shift, float fx, float fy) {
+        float c00 = (p00 >> shift) & 0xFF;
+        float c10 = (p10 >> shift) & 0xFF;
+        float c01 = (p01 >> shift) & 0xFF;
+        float c11 = (p11 >> shift) & 0xFF;
+        float top = c00 + (c10 - c00) * fx;
+        float bottom = c01 + (c11 - c01) * fx;
+        return top + (bottom - top) * fy;
+    }
+
+    private static int normalizeRotation(int rotation) {
+        int normalized = ((rotation % 360) + 360) % 360;
+        if (normalized % 90 != 0) {
+            throw new IllegalArgumentException("Rotation must be a multiple of 90 degrees: " + rotation);
+        }
+        return normalized;
+    }
+
+    // Pixel reader over either an ARGB int array or an RGBA byte buffer
+    private static final class Source {
+        final int[] argb;
+        final ByteBuffer rgba;
+        final int width;
+        final int height;
+        final int stride; // Pixels per row for argb, bytes per row for rgba
+
+        Source(int[] argb, ByteBuffer rgba, int width, int height, int stride) {
+            this.argb = argb;
+            this.rgba = rgba;
+            this.width = width;
+            this.height = height;
+            this.stride = stride;
+        }
+
+        // Returns the pixel packed as 0xRRGGBB
+        int pixel(int x, int y) {
+            if (argb != null) {
+                return argb[y * stride + x];
+            }
+            int offset = y * stride + x * 4;
+            return (rgba.get(offset) & 0xFF) << 16 | (rgba.get(offset + 1) & 0xFF) << 8 | (rgba.get(offset + 2) & 0xFF);
+        }
+    }
+
+    /**
+     * Affine map from upright, cropped output coordinates to source coordinates. Upright
+     * coordinates (u, v) map to source (originX + u * xPerU + v * xPerV, originY + u * yPerU +
+     * v * yPerV), which covers the four clockwise rotations.
+     */
+    private static final class Mapping {
+        float originX;
+        float originY;
+        float xPerU;
+        float yPerU;
+        float xPerV;
+        float yPerV;
+        final float cropX; // Upright crop origin
+        final float cropY;
+        final float stepX; // Upright pixels per output pixel
+        final float stepY;
+
+        Mapping(int sourceWidth, int sourceHeight, int rotation, int outputWidth, int outputHeight) {
+            boolean swapped = rotation == 90 || rotation == 270;
+            int uprightWidth = swapped ? sourceHeight : sourceWidth;
+            int uprightHeight = swapped ? sourceWidth : sourceHeight;
+            // Largest centered region with the output's aspect ratio
+            float cropWidth = Math.min(uprightWidth, (float) uprightHeight * outputWidth / outputHeight);
+            float cropHeight = Math.min(uprightHeight, (float) uprightWidth * outputHeight / outputWidth);
+            cropX = (uprightWidth - cropWidth) / 2f;
+            cropY = (uprightHeight - cropHeight) / 2f;
+            stepX = cropWidth / outputWidth;
+            stepY = cropHeight / outputHeight;
+            switch (rotation) {
+                case 90: // Source (x, y) is upright (H - 1 - y, x)
+                    originX = 0;
+                    originY = sourceHeight - 1;
+                    xPerV = 1;
+                    yPerU = -1;
+                    break;
+                case 180: // Source (x, y) is upright (W - 1 - x, H - 1 - y)
+                    originX = sourceWidth - 1;
+                    originY = sourceHeight - 1;
+                    xPerU = -1;
+                    yPerV = -1;
+                    break;
+                case 270: // Source (x, y) is upright (y, W - 1 - x)
+                    originX = sourceWidth - 1;
+                    originY = 0;
+                    xPerV = -1;
+                    yPerU = 1;
+                    break;
+                default:
+                    xPerU = 1;
+                    yPerV = 1;
+                    break;
+            }
+        }
+    }
+
+    // Splits a range of output rows in halves until a band is small enough to run directly
+    private final class RowBand extends RecursiveAction {
+        private static final long serialVersionUID = 1L; // Never serialized; silences the serial lint
+        private final Source source;
+        private final Mapping mapping;
+        private final ByteBuffer output;
+        private final int fromRow;
+        private final int toRow;
+        private final int minRows;
+
+        RowBand(Source source, Mapping mapping, ByteBuffer output, int fromRow, int toRow, int minRows) {
+            this.source = source;
+            this.mapping = mapping;
+            this.output = output;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow <= minRows) {
+                processRows(source, mapping, output, fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new RowBand(source, mapping, output, fromRow, middle, minRows),
+                    new RowBand(source, mapping, output, middle, toRow, minRows));
+        }
+    }
+}
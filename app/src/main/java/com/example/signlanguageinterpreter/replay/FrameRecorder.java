@@ -0,0 +1,221 @@
+package com.example.signlanguageinterpreter.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Records analysis frames into a chunked binary file for later replay with FrameReplayer.
+ * Frames are appended to an in-memory chunk on the calling thread, which only costs a copy;
+ * full chunks are deflated and written by a background thread. If the writer falls more than
+ * maxPendingChunks behind, whole chunks are dropped and counted instead of stalling the caller.
+ *
+ * File layout, big-endian: a header of MAGIC and VERSION, then chunks of CHUNK_MAGIC, frame
+ * count, raw length, stored length and the deflated frames. Each frame is its timestamp,
+ * width, height and rotation followed by width * height tightly packed RGBA pixels. A torn
+ * chunk at the end of the file, e.g. after a crash, is ignored by the reader.
+ */
+public class FrameRecorder implements Closeable {
+    static final int MAGIC = 0x46524331; // "FRC1"
+    static final int VERSION = 1;
+    static final int CHUNK_MAGIC = 0x43484e4b; // "CHNK"
+
+    private final DataOutputStream out; // Only written by the writer thread after the header
+    private final int chunkBytes; // Raw size at which a chunk is sealed
+    private final int maxPendingChunks; // Sealed chunks allowed to wait for the writer
+    private final ExecutorService writer;
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+    private final AtomicLong recorded = new AtomicLong(); // Frames handed to the writer
+    private final AtomicLong dropped = new AtomicLong(); // Frames lost because the writer was behind
+    private final AtomicLong writtenBytes = new AtomicLong(); // Bytes on disk, header included
+    private volatile IOException writeError; // First write failure, thrown by close
+
+    // Guarded by this, so recording can be stopped from another thread
+    private ByteArrayOutputStream chunk;
+    private DataOutputStream chunkOut;
+    private int chunkFrames;
+    private byte[] scratch = new byte[0];
+    private boolean closed;
+
+    /**
+     * Creates the recording file and writes its header.
+     *
+     * @param file             The file to record into; replaced if it exists.
+     * @param chunkBytes       The raw bytes after which a chunk is compressed and written.
+     * @param maxPendingChunks The number of sealed chunks that may wait for the writer.
+     * @throws IOException If the file cannot be created.
+     */
+    public FrameRecorder(File file, int chunkBytes, int maxPendingChunks) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.chunkBytes = chunkBytes;
+        this.maxPendingChunks = maxPendingChunks;
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writtenBytes.set(8);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frame-recorder");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        newChunk();
+    }
+
+    /**
+     * Appends a frame, typically from the inference worker. Does nothing after close.
+     *
+     * @param rgba           Tightly packed RGBA_8888 pixels from index 0; not modified.
+     * @param width          The frame width.
+     * @param height         The frame height.
+     * @param rotation       The clockwise rotation in degrees that makes the frame upright.
+     * @param timestampNanos The frame time.
+     */
+    public synchronized void record(ByteBuffer rgba, int width, int height, int rotation, long timestampNanos) {
+        if (closed) {
+            return;
+        }
+        int length = width * height * 4;
+        if (scratch.length < length) {
+            scratch = new byte[length];
+        }
+        ByteBuffer source = rgba.duplicate();
+        source.clear();
+        source.get(scratch, 0, length);
+        try {
+            chunkOut.writeLong(timestampNanos);
+            chunkOut.writeInt(width);
+            chunkOut.writeInt(height);
+            chunkOut.writeInt(rotation);
+            chunkOut.write(scratch, 0, length);
+        } catch (IOException e) {
+            // Writes to a ByteArrayOutputStream cannot fail
+            throw new IllegalStateException(e);
+        }
+        chunkFrames++;
+        if (chunk.size() >= chunkBytes) {
+            sealChunk();
+        }
+    }
+
+    // Frames handed to the writer so far
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    // Frames lost because the writer could not keep up
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Compressed bytes written so far, header included
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    /**
+     * Writes the last partial chunk and closes the file, waiting for the pending writes.
+     *
+     * @throws IOException If any chunk could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        sealChunk();
+        closed = true;
+        writer.execute(() -> {
+            try {
+                out.close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private void newChunk() {
+        chunk = new ByteArrayOutputStream(chunkBytes + chunkBytes / 4);
+        chunkOut = new DataOutputStream(chunk);
+        chunkFrames = 0;
+    }
+
+    private void sealChunk() {
+        if (chunkFrames == 0) {
+            return;
+        }
+        int frames = chunkFrames;
+        if (pendingChunks.get() >= maxPendingChunks) {
+            // Keep the current buffer for the next chunk rather than stall the caller
+            dropped.addAndGet(frames);
+            chunk.reset();
+            chunkFrames = 0;
+            return;
+        }
+        byte[] raw = chunk.toByteArray();
+        pendingChunks.incrementAndGet();
+        recorded.addAndGet(frames);
+        writer.execute(() -> {
+            try {
+                writeChunk(frames, raw);
+            } catch (IOException e) {
+                fail(e);
+            } finally {
+                pendingChunks.decrementAndGet();
+            }
+        });
+        newChunk();
+    }
+
+    // Runs on the writer thread
+    private void writeChunk(int frames, byte[] raw) throws IOException {
+        if (writeError != null) {
+            return;
+        }
+        // Camera frames compress well and the writer thread is otherwise idle, so favor speed
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteArrayOutputStream stored = new ByteArrayOutputStream(raw.length / 2);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                stored.write(buffer, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+        out.writeInt(CHUNK_MAGIC);
+        out.writeInt(frames);
+        out.writeInt(raw.length);
+        out.writeInt(stored.size());
+        stored.writeTo(out);
+        out.flush();
+        writtenBytes.addAndGet(16 + stored.size());
+    }
+
+    private void fail(IOException e) {
+        if (writeError == null) {
+            writeError = e;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.signlanguageinterpreter.replay;
+
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Replays a FrameRecorder file through a FrameTarget and measures every frame. Frames are
+ * replayed either as fast as the target accepts them or paced by their recorded timestamps.
+ * The reader itself uses no Android classes, but models need the Android TensorFlow Lite
+ * runtime, so recordings are replayed against a model on a device, e.g. through
+ * SignLanguageInterpreterFacade.replayRecording.
+ */
+public class FrameReplayer {
+
+    /**
+     * Consumes replayed frames. The pixel buffer is only valid during the call.
+     */
+    public interface FrameTarget {
+        void process(ByteBuffer rgba, int width, int height, int rotation, long timestampNanos);
+    }
+
+    private final File file; // Recording written by a FrameRecorder
+
+    /**
+     * Constructor for FrameReplayer.
+     *
+     * @param file The recording to replay.
+     */
+    public FrameReplayer(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns a target that classifies every frame with the given model.
+     *
+     * @param model The model to run.
+     * @return The target.
+     */
+    public static FrameTarget modelTarget(TensorFlowModel model) {
+        return (rgba, width, height, rotation, timestampNanos) ->
+                model.classifyScores(rgba, width, height, rotation);
+    }
+
+    /**
+     * Replays every complete chunk of the recording.
+     *
+     * @param target   Receives the frames in recorded order.
+     * @param realTime Whether to start each frame at its recorded offset from the first one
+     *                 instead of as soon as the previous one finished.
+     * @return The throughput and latency of the replay.
+     * @throws IOException If the file is not a recording or cannot be read.
+     */
+    public ReplayReport replay(FrameTarget target, boolean realTime) throws IOException {
+        long[] latencies = new long[256];
+        int count = 0;
+        long late = 0;
+        long firstTimestamp = 0;
+        long replayStart = 0;
+        long lastEnd = 0;
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FrameRecorder.MAGIC) {
+                throw new IOException("Not a frame recording: " + file);
+            }
+            int version = in.readInt();
+            if (version != FrameRecorder.VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            byte[] raw = new byte[0];
+            byte[] stored = new byte[0];
+            while (true) {
+                int frames;
+                int rawLength;
+                try {
+                    if (in.readInt() != FrameRecorder.CHUNK_MAGIC) {
+                        throw new IOException("Corrupt chunk in " + file);
+                    }
+                    frames = in.readInt();
+                    rawLength = in.readInt();
+                    int storedLength = in.readInt();
+                    if (stored.length < storedLength) {
+                        stored = new byte[storedLength];
+                    }
+                    in.readFully(stored, 0, storedLength);
+                    if (raw.length < rawLength) {
+                        raw = new byte[rawLength];
+                    }
+                    inflate(inflater, stored, storedLength, raw, rawLength);
+                } catch (EOFException e) {
+                    // End of the file, or a chunk torn by a crash while recording
+                    break;
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(raw, 0, rawLength);
+                for (int i = 0; i < frames; i++) {
+                    long timestamp = chunk.getLong();
+                    int width = chunk.getInt();
+                    int height = chunk.getInt();
+                    int rotation = chunk.getInt();
+                    int length = width * height * 4;
+                    ByteBuffer pixels = chunk.slice();
+                    pixels.limit(length);
+                    chunk.position(chunk.position() + length);
+
+                    if (count == 0) {
+                        firstTimestamp = timestamp;
+                        replayStart = System.nanoTime();
+                    } else if (realTime) {
+                        long due = replayStart + (timestamp - firstTimestamp);
+                        long wait = due - System.nanoTime();
+                        if (wait > 0) {
+                            sleepNanos(wait);
+                        } else {
+                            late++;
+                        }
+                    }
+                    long start = System.nanoTime();
+                    target.process(pixels, width, height, rotation, timestamp);
+                    lastEnd = System.nanoTime();
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = lastEnd - start;
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return new ReplayReport(latencies, count, count == 0 ? 0 : lastEnd - replayStart, late);
+    }
+
+    private static void inflate(Inflater inflater, byte[] stored, int storedLength,
+                                byte[] raw, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored, 0, storedLength);
+        try {
+            int offset = 0;
+            while (offset < rawLength && !inflater.finished()) {
+                int count = inflater.inflate(raw, offset, rawLength - offset);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += count;
+            }
+            if (offset != rawLength) {
+                throw new IOException("Chunk inflated to " + offset + " bytes, expected " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt chunk data", e);
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
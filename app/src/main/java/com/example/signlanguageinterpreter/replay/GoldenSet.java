@@ -0,0 +1,88 @@
+package com.example.signlanguageinterpreter.replay;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A versioned set of labeled frames for accuracy and latency regression runs. A golden set is
+ * a directory holding a golden.properties manifest, a FrameRecorder recording and a text file
+ * with the expected label of every recorded frame, one per line in recording order:
+ *
+ * <pre>
+ * version=3
+ * recording=frames.rec
+ * labels=expected.txt
+ * </pre>
+ *
+ * Bump the version whenever frames or labels change; baselines only compare within a version.
+ */
+public class GoldenSet {
+    public static final String MANIFEST = "golden.properties";
+
+    private final int version; // Version of the frames and labels
+    private final File recording; // Frames written by a FrameRecorder
+    private final List<String> expectedLabels; // Ground truth, one label per recorded frame
+
+    /**
+     * Constructor for GoldenSet.
+     *
+     * @param version        The version of the set.
+     * @param recording      The recorded frames.
+     * @param expectedLabels The expected label of every frame, in recording order.
+     */
+    public GoldenSet(int version, File recording, List<String> expectedLabels) {
+        this.version = version;
+        this.recording = recording;
+        this.expectedLabels = Collections.unmodifiableList(new ArrayList<>(expectedLabels));
+    }
+
+    /**
+     * Loads a golden set from its directory.
+     *
+     * @param directory The directory holding golden.properties.
+     * @return The golden set.
+     * @throws IOException If the manifest or the label file cannot be read.
+     */
+    public static GoldenSet load(File directory) throws IOException {
+        Properties manifest = new Properties();
+        try (InputStream in = new FileInputStream(new File(directory, MANIFEST))) {
+            manifest.load(in);
+        }
+        String version = manifest.getProperty("version");
+        if (version == null) {
+            throw new IOException(MANIFEST + " has no version");
+        }
+        File recording = new File(directory, manifest.getProperty("recording", "frames.rec"));
+        List<String> labels = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(
+                new File(directory, manifest.getProperty("labels", "expected.txt"))))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    labels.add(line.trim());
+                }
+            }
+        }
+        return new GoldenSet(Integer.parseInt(version.trim()), recording, labels);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public File getRecording() {
+        return recording;
+    }
+
+    public List<String> getExpectedLabels() {
+        return expectedLabels;
+    }
+}
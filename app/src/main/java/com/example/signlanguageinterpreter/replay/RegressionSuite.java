@@ -0,0 +1,255 @@
+package com.example.signlanguageinterpreter.replay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Accuracy and latency regression runs over a GoldenSet. Every configuration, e.g. one model
+ * at one quality level's threads, delegate and analysis size, replays the golden frames at
+ * full speed and is scored by top-1 and top-5 accuracy, throughput and p50/p99 latency.
+ * Results are compared against a baseline properties file recorded for the same golden set
+ * version; a configuration regresses when its accuracy drops or its latency grows beyond the
+ * tolerance. Scoring and comparison use no Android classes; configurations backed by a
+ * TensorFlowModel need the Android TensorFlow Lite runtime and run in the instrumented
+ * GoldenRegressionTest.
+ */
+public class RegressionSuite {
+
+    /**
+     * Classifies one golden frame; TensorFlowModel::classifyScores fits.
+     */
+    public interface Classifier {
+        float[] classify(ByteBuffer rgba, int width, int height, int rotation);
+    }
+
+    /**
+     * A named model and pipeline setup to evaluate.
+     */
+    public static class Configuration {
+        private final String name; // Baseline key, e.g. "detect.tflite@full"
+        private final List<String> labels; // The classifier's labels, in score order
+        private final Classifier classifier;
+
+        public Configuration(String name, List<String> labels, Classifier classifier) {
+            this.name = name;
+            this.labels = labels;
+            this.classifier = classifier;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * How much worse than the baseline a configuration may get before it regresses.
+     */
+    public static class Tolerance {
+        private final double maxAccuracyDrop; // Absolute drop of top-1 or top-5 accuracy
+        private final double maxLatencyIncrease; // Relative growth of p50 or p99 latency
+        private final double maxThroughputDrop; // Relative drop of frames per second
+
+        public Tolerance(double maxAccuracyDrop, double maxLatencyIncrease, double maxThroughputDrop) {
+            this.maxAccuracyDrop = maxAccuracyDrop;
+            this.maxLatencyIncrease = maxLatencyIncrease;
+            this.maxThroughputDrop = maxThroughputDrop;
+        }
+
+        // One point of accuracy; latency is noisier across machines, so 25%
+        public static Tolerance defaults() {
+            return new Tolerance(0.01, 0.25, 0.25);
+        }
+    }
+
+    /**
+     * The scores of one configuration on the golden set.
+     */
+    public static class Result {
+        private final String name;
+        private final int goldenVersion;
+        private final double top1; // Share of frames whose expected label scored highest
+        private final double top5; // Share of frames whose expected label was among the best 5
+        private final ReplayReport latency;
+
+        Result(String name, int goldenVersion, double top1, double top5, ReplayReport latency) {
+            this.name = name;
+            this.goldenVersion = goldenVersion;
+            this.top1 = top1;
+            this.top5 = top5;
+            this.latency = latency;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getTop1() {
+            return top1;
+        }
+
+        public double getTop5() {
+            return top5;
+        }
+
+        public ReplayReport getLatency() {
+            return latency;
+        }
+
+        public String getReport() {
+            return String.format(Locale.US, "%s (golden v%d): top1=%.4f top5=%.4f fps=%.1f p50=%.2f ms p99=%.2f ms",
+                    name, goldenVersion, top1, top5, latency.getThroughputFps(),
+                    latency.getPercentileMillis(50), latency.getPercentileMillis(99));
+        }
+    }
+
+    private final GoldenSet golden;
+    private final Tolerance tolerance;
+    private final boolean warmUp; // Whether to replay once untimed before measuring
+
+    /**
+     * Constructor for RegressionSuite.
+     *
+     * @param golden    The labeled frames to evaluate on.
+     * @param tolerance The allowed difference from the baseline.
+     * @param warmUp    Whether to run every configuration once before measuring it, so
+     *                  interpreter warm-up does not count against latency.
+     */
+    public RegressionSuite(GoldenSet golden, Tolerance tolerance, boolean warmUp) {
+        this.golden = golden;
+        this.tolerance = tolerance;
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Replays the golden set through a configuration and scores it.
+     *
+     * @param configuration The configuration to evaluate.
+     * @return Its accuracy and latency.
+     * @throws IOException If the recording cannot be read or does not match the labels.
+     */
+    public Result evaluate(Configuration configuration) throws IOException {
+        FrameReplayer replayer = new FrameReplayer(golden.getRecording());
+        List<String> expected = golden.getExpectedLabels();
+        if (warmUp) {
+            replayer.replay((rgba, width, height, rotation, timestampNanos) ->
+                    configuration.classifier.classify(rgba, width, height, rotation), false);
+        }
+        int[] counts = new int[3]; // Frames, top-1 hits, top-5 hits
+        ReplayReport report = replayer.replay((rgba, width, height, rotation, timestampNanos) -> {
+            float[] scores = configuration.classifier.classify(rgba, width, height, rotation);
+            int frame = counts[0]++;
+            if (frame >= expected.size()) {
+                return;
+            }
+            int rank = rankOf(scores, configuration.labels.indexOf(expected.get(frame)));
+            if (rank < 1) {
+                counts[1]++;
+            }
+            if (rank < 5) {
+                counts[2]++;
+            }
+        }, false);
+        if (counts[0] != expected.size()) {
+            throw new IOException("Golden set v" + golden.getVersion() + " has " + expected.size()
+                    + " labels but " + counts[0] + " frames");
+        }
+        int frames = Math.max(counts[0], 1);
+        return new Result(configuration.name, golden.getVersion(),
+                (double) counts[1] / frames, (double) counts[2] / frames, report);
+    }
+
+    /**
+     * Returns the number of labels scored strictly higher than the given one, or
+     * Integer.MAX_VALUE if the label is unknown to the model.
+     *
+     * @param scores     The scores in label order.
+     * @param labelIndex The expected label, or -1.
+     * @return The 0-based rank of the label.
+     */
+    public static int rankOf(float[] scores, int labelIndex) {
+        if (labelIndex < 0 || labelIndex >= scores.length) {
+            return Integer.MAX_VALUE;
+        }
+        float target = scores[labelIndex];
+        int rank = 0;
+        for (float score : scores) {
+            if (score > target) {
+                rank++;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Compares a result with its baseline.
+     *
+     * @param result   The result to check.
+     * @param baseline The baseline properties, as written by record.
+     * @return One message per regressed metric; empty if none regressed or no baseline exists
+     *         for this configuration and golden set version.
+     */
+    public List<String> compare(Result result, Properties baseline) {
+        List<String> regressions = new ArrayList<>();
+        if (!String.valueOf(result.goldenVersion).equals(baseline.getProperty("golden.version"))
+                || baseline.getProperty(result.name + ".top1") == null) {
+            return regressions;
+        }
+        ReplayReport latency = result.latency;
+        checkDrop(regressions, result.name, "top1", result.top1, baseline, tolerance.maxAccuracyDrop, false);
+        checkDrop(regressions, result.name, "top5", result.top5, baseline, tolerance.maxAccuracyDrop, false);
+        checkDrop(regressions, result.name, "fps", latency.getThroughputFps(), baseline, tolerance.maxThroughputDrop, true);
+        checkGrowth(regressions, result.name, "p50Millis", latency.getPercentileMillis(50), baseline, tolerance.maxLatencyIncrease);
+        checkGrowth(regressions, result.name, "p99Millis", latency.getPercentileMillis(99), baseline, tolerance.maxLatencyIncrease);
+        return regressions;
+    }
+
+    /**
+     * Stores a result as the new baseline of its configuration.
+     *
+     * @param result   The accepted result.
+     * @param baseline The baseline properties to update.
+     */
+    public static void record(Result result, Properties baseline) {
+        String version = String.valueOf(result.goldenVersion);
+        if (!version.equals(baseline.getProperty("golden.version"))) {
+            // Results of another golden set version cannot be compared any more
+            baseline.clear();
+            baseline.setProperty("golden.version", version);
+        }
+        ReplayReport latency = result.latency;
+        baseline.setProperty(result.name + ".top1", format(result.top1));
+        baseline.setProperty(result.name + ".top5", format(result.top5));
+        baseline.setProperty(result.name + ".fps", format(latency.getThroughputFps()));
+        baseline.setProperty(result.name + ".p50Millis", format(latency.getPercentileMillis(50)));
+        baseline.setProperty(result.name + ".p99Millis", format(latency.getPercentileMillis(99)));
+    }
+
+    private static void checkDrop(List<String> regressions, String name, String metric, double value,
+                                  Properties baseline, double tolerance, boolean relative) {
+        double expected = Double.parseDouble(baseline.getProperty(name + "." + metric, "0"));
+        double floor = relative ? expected * (1 - tolerance) : expected - tolerance;
+        if (value < floor) {
+            regressions.add(String.format(Locale.US, "%s %s dropped to %.4f from %.4f", name, metric, value, expected));
+        }
+    }
+
+    private static void checkGrowth(List<String> regressions, String name, String metric, double value,
+                                    Properties baseline, double tolerance) {
+        String stored = baseline.getProperty(name + "." + metric);
+        if (stored == null) {
+            return;
+        }
+        double expected = Double.parseDouble(stored);
+        if (value > expected * (1 + tolerance)) {
+            regressions.add(String.format(Locale.US, "%s %s grew to %.2f from %.2f", name, metric, value, expected));
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.US, "%.6f", value);
+    }
+}
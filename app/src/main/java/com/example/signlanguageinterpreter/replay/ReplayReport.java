@@ -0,0 +1,95 @@
+package com.example.signlanguageinterpreter.replay;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Throughput and per-frame latency of one replay. Latencies are kept exactly, one entry per
+ * frame, so percentiles are not approximated.
+ */
+public class ReplayReport {
+    private final long[] latencyNanos; // Sorted ascending
+    private final long wallNanos; // From the first frame's start to the last frame's end
+    private final long lateFrames; // Frames started after their recorded time, real-time replays only
+
+    /**
+     * Constructor for ReplayReport.
+     *
+     * @param latencyNanos The processing time of every frame; sorted in place.
+     * @param count        The number of valid entries in latencyNanos.
+     * @param wallNanos    The total replay time.
+     * @param lateFrames   The number of frames that could not start on schedule.
+     */
+    public ReplayReport(long[] latencyNanos, int count, long wallNanos, long lateFrames) {
+        this.latencyNanos = Arrays.copyOf(latencyNanos, count);
+        Arrays.sort(this.latencyNanos);
+        this.wallNanos = wallNanos;
+        this.lateFrames = lateFrames;
+    }
+
+    public int getFrameCount() {
+        return latencyNanos.length;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getLateFrames() {
+        return lateFrames;
+    }
+
+    // Frames processed per second of wall time
+    public double getThroughputFps() {
+        return wallNanos == 0 ? 0 : latencyNanos.length * 1e9 / wallNanos;
+    }
+
+    public double getMeanMillis() {
+        if (latencyNanos.length == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (long latency : latencyNanos) {
+            total += latency;
+        }
+        return total / 1_000_000.0 / latencyNanos.length;
+    }
+
+    /**
+     * Returns a latency percentile using the nearest-rank method.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The latency in milliseconds, or 0 if no frame was replayed.
+     */
+    public double getPercentileMillis(double percentile) {
+        if (latencyNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * latencyNanos.length);
+        int index = Math.min(Math.max(rank - 1, 0), latencyNanos.length - 1);
+        return latencyNanos[index] / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return latencyNanos.length == 0 ? 0 : latencyNanos[latencyNanos.length - 1] / 1_000_000.0;
+    }
+
+    /**
+     * Formats the report for logs and bug reports.
+     *
+     * @return A multi-line summary.
+     */
+    public String getReport() {
+        return String.format(Locale.US,
+                "frames=%d wall=%.1f ms throughput=%.1f fps late=%d%n"
+                        + "latency ms: mean=%.2f p50=%.2f p90=%.2f p99=%.2f max=%.2f",
+                getFrameCount(), wallNanos / 1_000_000.0, getThroughputFps(), lateFrames,
+                getMeanMillis(), getPercentileMillis(50), getPercentileMillis(90),
+                getPercentileMillis(99), getMaxMillis());
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.signlanguageinterpreter.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Round-robin work queue shared by several clients and several worker threads. Every client has
+ * its own short queue, and workers take one task per client in turn, so a client submitting at
+ * camera rate cannot starve one submitting occasionally. When a client's queue is full its
+ * oldest task is dropped rather than the new one, keeping latency bounded for live frames.
+ *
+ * @param <T> The task type.
+ */
+public class FairScheduler<T> {
+    private final int maxQueuedPerClient; // Tasks a client may have waiting before its oldest is dropped
+    private final Map<Integer, ArrayDeque<T>> queues = new HashMap<>();
+    private final ArrayDeque<Integer> turns = new ArrayDeque<>(); // Clients with waiting tasks, next turn first
+    private boolean closed;
+
+    /**
+     * Constructor for FairScheduler.
+     *
+     * @param maxQueuedPerClient The maximum number of waiting tasks per client.
+     */
+    public FairScheduler(int maxQueuedPerClient) {
+        if (maxQueuedPerClient <= 0) {
+            throw new IllegalArgumentException("Queue length must be positive: " + maxQueuedPerClient);
+        }
+        this.maxQueuedPerClient = maxQueuedPerClient;
+    }
+
+    /**
+     * Registers a client so it can submit tasks.
+     *
+     * @param clientId The client's id, unique among registered clients.
+     */
+    public synchronized void addClient(int clientId) {
+        if (!closed && !queues.containsKey(clientId)) {
+            queues.put(clientId, new ArrayDeque<T>());
+        }
+    }
+
+    /**
+     * Unregisters a client.
+     *
+     * @param clientId The client's id.
+     * @return The client's tasks that were still waiting, for the caller to dispose of.
+     */
+    public synchronized List<T> removeClient(int clientId) {
+        ArrayDeque<T> queue = queues.remove(clientId);
+        turns.remove(clientId);
+        return queue != null ? new ArrayList<>(queue) : new ArrayList<T>();
+    }
+
+    /**
+     * Queues a task for a client.
+     *
+     * @param clientId The submitting client.
+     * @param task     The task.
+     * @return The task that was dropped to make room, the task itself if the client is not
+     *         registered or the scheduler is closed, or null if nothing was dropped.
+     */
+    public synchronized T submit(int clientId, T task) {
+        ArrayDeque<T> queue = queues.get(clientId);
+        if (closed || queue == null) {
+            return task;
+        }
+        // A client whose queue was empty has no turn yet; a full one keeps its turn through the drop
+        if (queue.isEmpty()) {
+            turns.addLast(clientId);
+        }
+        T dropped = null;
+        if (queue.size() >= maxQueuedPerClient) {
+            dropped = queue.pollFirst();
+        }
+        queue.addLast(task);
+        notify();
+        return dropped;
+    }
+
+    /**
+     * Waits for the next task, taking clients in turn.
+     *
+     * @return The next task, or null once the scheduler is closed.
+     * @throws InterruptedException If the worker is interrupted while waiting.
+     */
+    public synchronized T take() throws InterruptedException {
+        while (!closed && turns.isEmpty()) {
+            wait();
+        }
+        if (closed) {
+            return null;
+        }
+        Integer clientId = turns.pollFirst();
+        ArrayDeque<T> queue = queues.get(clientId);
+        T task = queue.pollFirst();
+        if (!queue.isEmpty()) {
+            // Back of the line until every other waiting client had a turn
+            turns.addLast(clientId);
+        }
+        return task;
+    }
+
+    /**
+     * Returns the number of tasks a client has waiting.
+     *
+     * @param clientId The client's id.
+     * @return The queue length, 0 for unknown clients.
+     */
+    public synchronized int getQueuedCount(int clientId) {
+        ArrayDeque<T> queue = queues.get(clientId);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Closes the scheduler and wakes all waiting workers.
+     *
+     * @return All tasks that were still waiting, for the caller to dispose of.
+     */
+    public synchronized List<T> close() {
+        closed = true;
+        List<T> pending = new ArrayList<>();
+        for (ArrayDeque<T> queue : queues.values()) {
+            pending.addAll(queue);
+        }
+        queues.clear();
+        turns.clear();
+        notifyAll();
+        return pending;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.signlanguageinterpreter.service;
+
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SharedMemory;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * A client's frame slots: one shared memory region split into equally sized slots, each
+ * holding one tightly packed RGBA_8888 frame. Only the file descriptor crosses Binder, once
+ * per client; frames themselves are never copied into a Parcel.
+ */
+@RequiresApi(Build.VERSION_CODES.O_MR1)
+public class FrameRegion implements Parcelable {
+    private final SharedMemory memory; // Written by the client, mapped read-only by the service
+    private final int slotCount;
+    private final int slotBytes; // Size of one slot, at least width * height * 4 of any frame
+
+    /**
+     * Constructor for FrameRegion.
+     *
+     * @param memory    The shared memory region, at least slotCount * slotBytes long.
+     * @param slotCount The number of slots.
+     * @param slotBytes The size of one slot in bytes.
+     */
+    public FrameRegion(SharedMemory memory, int slotCount, int slotBytes) {
+        this.memory = memory;
+        this.slotCount = slotCount;
+        this.slotBytes = slotBytes;
+    }
+
+    public SharedMemory getMemory() {
+        return memory;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public int getSlotBytes() {
+        return slotBytes;
+    }
+
+    @Override
+    public int describeContents() {
+        return CONTENTS_FILE_DESCRIPTOR;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeParcelable(memory, flags);
+        dest.writeInt(slotCount);
+        dest.writeInt(slotBytes);
+    }
+
+    public static final Creator<FrameRegion> CREATOR = new Creator<FrameRegion>() {
+        @Override
+        public FrameRegion createFromParcel(Parcel in) {
+            SharedMemory memory = in.readParcelable(SharedMemory.class.getClassLoader());
+            return new FrameRegion(memory, in.readInt(), in.readInt());
+        }
+
+        @Override
+        public FrameRegion[] newArray(int size) {
+            return new FrameRegion[size];
+        }
+    };
+}
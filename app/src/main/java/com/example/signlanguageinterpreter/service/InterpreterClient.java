@@ -0,0 +1,131 @@
+package com.example.signlanguageinterpreter.service;
+
+import android.os.Build;
+import android.os.RemoteException;
+import android.os.SharedMemory;
+import android.system.ErrnoException;
+
+import androidx.annotation.RequiresApi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Client side of InterpreterService for apps that bind to it. Allocates the shared frame
+ * slots, copies each submitted frame into a free slot and hands out the slot again when its
+ * result arrives. When all slots are in use, submit returns -1 and the caller drops the frame,
+ * which is the right thing for a live camera stream.
+ */
+@RequiresApi(Build.VERSION_CODES.O_MR1)
+public class InterpreterClient implements Closeable {
+
+    /**
+     * Receives results on a binder thread.
+     */
+    public interface Listener {
+        void onResult(ResultRecord record);
+    }
+
+    private final IInterpreterService service;
+    private final SharedMemory memory;
+    private final ByteBuffer frames; // Read-write mapping of all slots
+    private final int slotBytes;
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>(); // Guarded by itself
+    private final int clientId;
+    private long nextFrameId;
+
+    /**
+     * Constructor for InterpreterClient. Attaches to the service right away.
+     *
+     * @param service    The bound service, from IInterpreterService.Stub.asInterface.
+     * @param slotCount  The number of frames that may be in flight at once, e.g. 3.
+     * @param slotBytes  The largest frame size in bytes, width * height * 4.
+     * @param maxResults The number of best labels to receive per frame.
+     * @param listener   Receives every result.
+     * @throws IOException If the shared memory cannot be created or the service rejects it.
+     */
+    public InterpreterClient(IInterpreterService service, int slotCount, int slotBytes, int maxResults,
+                             Listener listener) throws IOException {
+        this.service = service;
+        this.slotBytes = slotBytes;
+        try {
+            memory = SharedMemory.create("interpreter-frames", slotCount * slotBytes);
+            frames = memory.mapReadWrite();
+        } catch (ErrnoException e) {
+            throw new IOException("Cannot create frame slots", e);
+        }
+        for (int i = 0; i < slotCount; i++) {
+            freeSlots.add(i);
+        }
+        IResultCallback callback = new IResultCallback.Stub() {
+            @Override
+            public void onResult(ResultRecord record) {
+                synchronized (freeSlots) {
+                    freeSlots.add(record.getSlot());
+                }
+                listener.onResult(record);
+            }
+        };
+        int id;
+        try {
+            id = service.attach(new FrameRegion(memory, slotCount, slotBytes), maxResults, callback);
+        } catch (RemoteException e) {
+            id = -1;
+        }
+        if (id < 0) {
+            SharedMemory.unmap(frames);
+            memory.close();
+            throw new IOException("Interpreter service rejected the frame slots");
+        }
+        clientId = id;
+    }
+
+    /**
+     * Copies a frame into a free slot and submits it.
+     *
+     * @param rgba     Tightly packed RGBA_8888 pixels from the buffer's position.
+     * @param width    The frame width.
+     * @param height   The frame height.
+     * @param rotation The clockwise rotation in degrees that makes the frame upright.
+     * @return The frame's id, echoed in its ResultRecord, or -1 if every slot is in flight.
+     * @throws RemoteException If the service died.
+     */
+    public long submit(ByteBuffer rgba, int width, int height, int rotation) throws RemoteException {
+        int length = width * height * 4;
+        if (length > slotBytes || rgba.remaining() < length) {
+            throw new IllegalArgumentException("Frame of " + width + "x" + height + " does not fit a slot");
+        }
+        Integer slot;
+        synchronized (freeSlots) {
+            slot = freeSlots.poll();
+        }
+        if (slot == null) {
+            return -1;
+        }
+        ByteBuffer target = frames.duplicate();
+        target.position(slot * slotBytes);
+        ByteBuffer source = rgba.duplicate();
+        source.limit(source.position() + length);
+        target.put(source);
+
+        long frameId;
+        synchronized (this) {
+            frameId = nextFrameId++;
+        }
+        service.submitFrame(clientId, slot, width, height, rotation, frameId);
+        return frameId;
+    }
+
+    @Override
+    public void close() {
+        try {
+            service.detach(clientId);
+        } catch (RemoteException e) {
+            // The service is gone and released its mapping with it
+        }
+        SharedMemory.unmap(frames);
+        memory.close();
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.signlanguageinterpreter.service;
+
+import android.app.Service;
+import android.content.Intent;
+import android.os.Binder;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.RemoteException;
+import android.os.SharedMemory;
+import android.os.SystemClock;
+import android.system.ErrnoException;
+import android.util.Log;
+
+import androidx.annotation.RequiresApi;
+
+import com.example.signlanguageinterpreter.facade.SignLanguageInterpreterFacade;
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bound service sharing one set of interpreters between every app on the device. Clients
+ * attach a FrameRegion once, then submit frames by slot number with one-way calls, so frame
+ * pixels never pass through Binder; results come back as ResultRecords through the client's
+ * IResultCallback. A small pool of interpreters, each on its own worker thread, serves all
+ * clients through a FairScheduler, so a client streaming camera frames cannot starve the
+ * others, and a client that submits faster than it is served has its oldest frames dropped.
+ * Every submitted frame is answered, with a result, DROPPED or ERROR, so no slot stays taken.
+ * Shared memory needs API 27; on older devices binding fails and clients run in-process.
+ * <p>
+ * The interpreters are built from the facade's model configuration, so remote clients get the
+ * same model and engine as the app, but they are a pool separate from the app's session: that
+ * session follows the activity, closing its buffers on pause and binding the camera, while the
+ * service lives as long as any client is bound. The quality governor tunes the session's one
+ * interpreter to the live camera pipeline's latency; here load is shed by the fair scheduler
+ * dropping frames instead. Shadow models only see the app's own frames, never other apps'.
+ */
+public class InterpreterService extends Service {
+    public static final String ACTION_BIND = "com.example.signlanguageinterpreter.action.BIND_INTERPRETER";
+    private static final String TAG = "InterpreterService";
+    private static final int INTERPRETERS = 2; // Workers, each with its own interpreter
+    private static final int THREADS_PER_INTERPRETER = 2;
+    private static final int MAX_QUEUED_PER_CLIENT = 2; // Frames waiting per client before the oldest drops
+    private static final long MAX_LOAD_WAIT_MILLIS = 10_000; // Longest attach waits for the interpreters
+
+    private final FairScheduler<FrameTask> scheduler = new FairScheduler<>(MAX_QUEUED_PER_CLIENT);
+    private final List<TensorFlowModel> models = new CopyOnWriteArrayList<>(); // Added by the workers
+    private final CountDownLatch loaded = new CountDownLatch(INTERPRETERS); // Every worker built or failed
+    private final List<Thread> workers = new ArrayList<>();
+    private final Map<Integer, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger nextClientId = new AtomicInteger(1);
+
+    /**
+     * A submitted frame waiting for a worker. Holds a reference on its client's mapping.
+     */
+    private static final class FrameTask {
+        final Client client;
+        final int slot;
+        final int width;
+        final int height;
+        final int rotation;
+        final long frameId;
+        final long submittedNanos;
+
+        FrameTask(Client client, int slot, int width, int height, int rotation, long frameId) {
+            this.client = client;
+            this.slot = slot;
+            this.width = width;
+            this.height = height;
+            this.rotation = rotation;
+            this.frameId = frameId;
+            this.submittedNanos = SystemClock.elapsedRealtimeNanos();
+        }
+    }
+
+    /**
+     * An attached client and its read-only mapping of the client's frame slots. The mapping is
+     * only released once the client detached and no queued or running frame still reads it.
+     */
+    @RequiresApi(Build.VERSION_CODES.O_MR1)
+    private final class Client implements IBinder.DeathRecipient {
+        final int id;
+        final int uid; // Only this uid may submit or detach
+        final IResultCallback callback;
+        final int maxResults;
+        private final FrameRegion region;
+        private final ByteBuffer frames;
+        private int references; // Frames queued or running
+        private boolean detached;
+
+        Client(int id, int uid, IResultCallback callback, int maxResults, FrameRegion region, ByteBuffer frames) {
+            this.id = id;
+            this.uid = uid;
+            this.callback = callback;
+            this.maxResults = maxResults;
+            this.region = region;
+            this.frames = frames;
+        }
+
+        synchronized boolean retain() {
+            if (detached) {
+                return false;
+            }
+            references++;
+            return true;
+        }
+
+        synchronized void release() {
+            references--;
+            if (detached && references == 0) {
+                unmap();
+            }
+        }
+
+        synchronized void detach() {
+            if (detached) {
+                return;
+            }
+            detached = true;
+            callback.asBinder().unlinkToDeath(this, 0);
+            if (references == 0) {
+                unmap();
+            }
+        }
+
+        // A read-only view of one slot, starting at index 0
+        ByteBuffer slot(int slot) {
+            ByteBuffer view = frames.duplicate();
+            int start = slot * region.getSlotBytes();
+            view.limit(start + region.getSlotBytes());
+            view.position(start);
+            return view.slice();
+        }
+
+        private void unmap() {
+            SharedMemory.unmap(frames);
+            region.getMemory().close();
+        }
+
+        @Override
+        public void binderDied() {
+            detachClient(id);
+        }
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O_MR1) {
+            return;
+        }
+        // Loading happens on the workers, off the main thread and on the thread that runs each
+        // interpreter; attach waits until it is done
+        for (int i = 0; i < INTERPRETERS; i++) {
+            Thread worker = new Thread(this::runWorker, "InterpreterService-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        Log.d(TAG, "Starting " + INTERPRETERS + " interpreters");
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        // Without shared memory every frame would be parcelled, which this service exists to avoid
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1 ? binder : null;
+    }
+
+    @Override
+    public void onDestroy() {
+        for (FrameTask task : scheduler.close()) {
+            task.client.release();
+            deliver(task.client, ResultRecord.unclassified(task.frameId, task.slot, ResultRecord.Status.ERROR));
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Integer clientId : new ArrayList<>(clients.keySet())) {
+            detachClient(clientId);
+        }
+        for (TensorFlowModel model : models) {
+            model.close();
+        }
+        models.clear();
+        Log.d(TAG, "Service destroyed, interpreters closed");
+        super.onDestroy();
+    }
+
+    private final IInterpreterService.Stub binder = new IInterpreterService.Stub() {
+        @Override
+        public int attach(FrameRegion region, int maxResults, IResultCallback callback) {
+            if (region == null || callback == null || region.getSlotCount() <= 0 || region.getSlotBytes() <= 0
+                    || region.getMemory().getSize() < (long) region.getSlotCount() * region.getSlotBytes()) {
+                return -1;
+            }
+            TensorFlowModel model = awaitModel();
+            if (model == null) {
+                return -1;
+            }
+            List<String> labels = model.getLabels();
+            if (labels == null || labels.isEmpty()) {
+                Log.w(TAG, "Model has no labels, refusing clients");
+                return -1;
+            }
+            ByteBuffer frames;
+            try {
+                frames = region.getMemory().mapReadOnly();
+            } catch (ErrnoException e) {
+                Log.w(TAG, "Cannot map client frames", e);
+                return -1;
+            }
+            Client client = new Client(nextClientId.getAndIncrement(), Binder.getCallingUid(), callback,
+                    Math.max(1, Math.min(maxResults, labels.size())), region, frames);
+            try {
+                callback.asBinder().linkToDeath(client, 0);
+            } catch (RemoteException e) {
+                // The client died while attaching
+                client.unmap();
+                return -1;
+            }
+            clients.put(client.id, client);
+            scheduler.addClient(client.id);
+            Log.d(TAG, "Client " + client.id + " attached with " + region.getSlotCount() + " slots");
+            return client.id;
+        }
+
+        @Override
+        public List<String> getLabels() {
+            TensorFlowModel model = awaitModel();
+            return model != null && model.getLabels() != null ? model.getLabels() : Collections.<String>emptyList();
+        }
+
+        @Override
+        public int getInputWidth() {
+            TensorFlowModel model = awaitModel();
+            return model != null ? model.getInputWidth() : 0;
+        }
+
+        @Override
+        public int getInputHeight() {
+            TensorFlowModel model = awaitModel();
+            return model != null ? model.getInputHeight() : 0;
+        }
+
+        @Override
+        public void submitFrame(int clientId, int slot, int width, int height, int rotation, long frameId) {
+            Client client = clients.get(clientId);
+            if (client == null || client.uid != Binder.getCallingUid()) {
+                return;
+            }
+            if (slot < 0 || slot >= client.region.getSlotCount() || width <= 0 || height <= 0
+                    || (long) width * height * 4 > client.region.getSlotBytes()) {
+                deliver(client, ResultRecord.unclassified(frameId, slot, ResultRecord.Status.ERROR));
+                return;
+            }
+            if (!client.retain()) {
+                // Detaching: answer anyway so the client's slot is not left taken
+                deliver(client, ResultRecord.unclassified(frameId, slot, ResultRecord.Status.ERROR));
+                return;
+            }
+            FrameTask task = new FrameTask(client, slot, width, height, rotation, frameId);
+            FrameTask dropped = scheduler.submit(clientId, task);
+            if (dropped == null) {
+                return;
+            }
+            dropped.client.release();
+            if (dropped == task) {
+                // Detached or shutting down, so the frame was never queued
+                deliver(client, ResultRecord.unclassified(frameId, slot, ResultRecord.Status.ERROR));
+            } else {
+                // A newer frame took the place of the oldest one; its slot is free again
+                deliver(client, ResultRecord.unclassified(dropped.frameId, dropped.slot, ResultRecord.Status.DROPPED));
+            }
+        }
+
+        @Override
+        public void detach(int clientId) {
+            Client client = clients.get(clientId);
+            if (client != null && client.uid == Binder.getCallingUid()) {
+                detachClient(clientId);
+            }
+        }
+    };
+
+    // Waits for the workers to load, then returns the first interpreter, or null if none loaded
+    private TensorFlowModel awaitModel() {
+        try {
+            if (!loaded.await(MAX_LOAD_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                Log.w(TAG, "Interpreters not loaded after " + MAX_LOAD_WAIT_MILLIS + " ms");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return models.isEmpty() ? null : models.get(0);
+    }
+
+    private void runWorker() {
+        TensorFlowModel model = null;
+        try {
+            // Every interpreter maps the same model file, so the weights are in memory once
+            model = SignLanguageInterpreterFacade.createModelBuilder(getApplicationContext())
+                    .setNumThreads(THREADS_PER_INTERPRETER)
+                    .build();
+            models.add(model);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Cannot load interpreter on " + Thread.currentThread().getName(), e);
+        } finally {
+            loaded.countDown();
+        }
+        if (model == null) {
+            return;
+        }
+        while (true) {
+            FrameTask task;
+            try {
+                task = scheduler.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            ResultRecord record;
+            try {
+                float[] scores = model.classifyScores(task.client.slot(task.slot), task.width, task.height, task.rotation);
+                record = ResultRecord.fromScores(task.frameId, task.slot, scores, task.client.maxResults,
+                        SystemClock.elapsedRealtimeNanos() - task.submittedNanos);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Inference failed for client " + task.client.id, e);
+                record = ResultRecord.unclassified(task.frameId, task.slot, ResultRecord.Status.ERROR);
+            } finally {
+                // The result does not read the frame, so the slot may be reused as soon as it arrives
+                task.client.release();
+            }
+            deliver(task.client, record);
+        }
+    }
+
+    private void deliver(Client client, ResultRecord record) {
+        try {
+            client.callback.onResult(record);
+        } catch (RemoteException e) {
+            Log.w(TAG, "Client " + client.id + " unreachable, detaching");
+            detachClient(client.id);
+        }
+    }
+
+    private void detachClient(int clientId) {
+        Client client = clients.remove(clientId);
+        if (client == null) {
+            return;
+        }
+        for (FrameTask task : scheduler.removeClient(clientId)) {
+            task.client.release();
+        }
+        client.detach();
+        Log.d(TAG, "Client " + clientId + " detached");
+    }
+}
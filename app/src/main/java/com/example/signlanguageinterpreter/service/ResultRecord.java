@@ -0,0 +1,141 @@
+package com.example.signlanguageinterpreter.service;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * The result of one submitted frame as sent back to a client: the best label indices and their
+ * scores, nothing else. Label names are fetched once with getLabels, so a record is a few dozen
+ * bytes regardless of the model's label count.
+ */
+public class ResultRecord implements Parcelable {
+
+    /**
+     * What happened to the frame.
+     */
+    public enum Status {
+        // The frame was classified
+        OK,
+        // The client's queue was full and a newer frame replaced this one
+        DROPPED,
+        // The frame was invalid, inference failed or the service could not take the frame
+        ERROR
+    }
+
+    private final long frameId; // Id the client submitted the frame with
+    private final int slot; // Slot the frame was read from, free for reuse once this arrives
+    private final Status status;
+    private final long latencyNanos; // From submission to result in the service, 0 unless OK
+    private final int[] labelIndices; // Best labels first
+    private final float[] scores; // Score of each label in labelIndices
+
+    public ResultRecord(long frameId, int slot, Status status, long latencyNanos,
+                        int[] labelIndices, float[] scores) {
+        this.frameId = frameId;
+        this.slot = slot;
+        this.status = status;
+        this.latencyNanos = latencyNanos;
+        this.labelIndices = labelIndices;
+        this.scores = scores;
+    }
+
+    /**
+     * Creates a record of the best scoring labels of a frame.
+     *
+     * @param frameId      The frame's id.
+     * @param slot         The frame's slot.
+     * @param scores       The scores in label order.
+     * @param maxResults   The number of labels to keep.
+     * @param latencyNanos The time the service spent on the frame.
+     * @return A record with at most maxResults labels, best first.
+     */
+    public static ResultRecord fromScores(long frameId, int slot, float[] scores, int maxResults,
+                                          long latencyNanos) {
+        int count = Math.min(maxResults, scores.length);
+        int[] best = new int[count];
+        float[] bestScores = new float[count];
+        int found = 0;
+        // Insertion into a short sorted prefix; maxResults is a handful, labels a few dozen
+        for (int i = 0; i < scores.length; i++) {
+            if (found == count && (count == 0 || scores[i] <= bestScores[count - 1])) {
+                continue;
+            }
+            int at = Math.min(found, count - 1);
+            while (at > 0 && scores[i] > bestScores[at - 1]) {
+                best[at] = best[at - 1];
+                bestScores[at] = bestScores[at - 1];
+                at--;
+            }
+            best[at] = i;
+            bestScores[at] = scores[i];
+            if (found < count) {
+                found++;
+            }
+        }
+        return new ResultRecord(frameId, slot, Status.OK, latencyNanos, best, bestScores);
+    }
+
+    /**
+     * Creates a record for a frame that was not classified.
+     *
+     * @param frameId The frame's id.
+     * @param slot    The frame's slot.
+     * @param status  Why it was not classified.
+     * @return A record without labels.
+     */
+    public static ResultRecord unclassified(long frameId, int slot, Status status) {
+        return new ResultRecord(frameId, slot, status, 0, new int[0], new float[0]);
+    }
+
+    public long getFrameId() {
+        return frameId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    public int[] getLabelIndices() {
+        return labelIndices;
+    }
+
+    public float[] getScores() {
+        return scores;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeLong(frameId);
+        dest.writeInt(slot);
+        dest.writeInt(status.ordinal());
+        dest.writeLong(latencyNanos);
+        dest.writeIntArray(labelIndices);
+        dest.writeFloatArray(scores);
+    }
+
+    public static final Creator<ResultRecord> CREATOR = new Creator<ResultRecord>() {
+        @Override
+        public ResultRecord createFromParcel(Parcel in) {
+            return new ResultRecord(in.readLong(), in.readInt(), Status.values()[in.readInt()],
+                    in.readLong(), in.createIntArray(), in.createFloatArray());
+        }
+
+        @Override
+        public ResultRecord[] newArray(int size) {
+            return new ResultRecord[size];
+        }
+    };
+}
@@ -0,0 +1,352 @@
+package com.example.signlanguageinterpreter.session;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.signlanguageinterpreter.builder.TensorFlowModelBuilder;
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+import com.example.signlanguageinterpreter.pipeline.FramePipeline;
+import com.example.signlanguageinterpreter.singleton.CameraXManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lifecycle-aware session that owns the camera bindings and the TensorFlow Lite interpreter.
+ * Register it with the host activity's lifecycle: on pause it unbinds the camera and releases
+ * the model's per-frame Java buffers, on resume it rebinds the camera against the interpreter
+ * that is still loaded, so the model file is only read and compiled once per session. The
+ * interpreter's native tensor arena stays allocated while paused; freeing it would mean
+ * recompiling the model on resume. The model is loaded on a background thread, never on the
+ * main thread, and the camera is bound once it is ready.
+ */
+public class InterpreterSession implements DefaultLifecycleObserver {
+    private static final String TAG = "InterpreterSession";
+
+    private final TensorFlowModelBuilder modelBuilder; // Used once to create the interpreter
+    private final CameraXManager cameraManager; // Camera bindings owned by this session
+    private TensorFlowModel model; // Loaded lazily and kept until the session is destroyed
+    private LifecycleOwner lifecycleOwner; // Owner the camera is bound to while resumed
+    private volatile FramePipeline framePipeline; // Quiesced on pause, null if frames are not pipelined
+    private boolean cameraRequested; // Whether the camera should be bound when resumed
+    private boolean resumed;
+    private int analysisWidth; // Requested analysis size, 0 to use the model's input size
+    private int analysisHeight;
+    private boolean destroyed; // Guarded by this; a model finishing its load afterwards is closed
+    private final List<Closeable> closeables = new ArrayList<>(); // Closed when the session is destroyed
+    private final Object buildLock = new Object(); // Serializes loads without holding this
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "interpreter-loader"));
+
+    /**
+     * Constructor for InterpreterSession.
+     *
+     * @param modelBuilder  The configured builder used to load the model on first use.
+     * @param cameraManager The camera manager whose use cases this session binds.
+     */
+    public InterpreterSession(TensorFlowModelBuilder modelBuilder, CameraXManager cameraManager) {
+        this.modelBuilder = modelBuilder;
+        this.cameraManager = cameraManager;
+    }
+
+    /**
+     * Returns the session's model, loading the interpreter on first use. The load does not
+     * hold the session's lock, so getLoadedModel never waits for it. Call off the main thread
+     * unless the model is known to be loaded.
+     *
+     * @return The loaded TensorFlowModel.
+     * @throws IllegalStateException If the session was destroyed.
+     */
+    public TensorFlowModel getModel() {
+        synchronized (this) {
+            if (model != null) {
+                return model;
+            }
+        }
+        synchronized (buildLock) {
+            synchronized (this) {
+                if (model != null) {
+                    return model;
+                }
+            }
+            TensorFlowModel built = modelBuilder.build();
+            synchronized (this) {
+                if (!destroyed) {
+                    model = built;
+                    return built;
+                }
+            }
+            built.close();
+            throw new IllegalStateException("Session destroyed");
+        }
+    }
+
+    /**
+     * Returns the session's model if it is loaded, without loading it.
+     *
+     * @return The loaded TensorFlowModel, or null.
+     */
+    public synchronized TensorFlowModel getLoadedModel() {
+        return model;
+    }
+
+    /**
+     * Sets the pipeline feeding the model live frames. On pause it is drained before the
+     * model's buffers are released, so a frame still in flight never races the release.
+     *
+     * @param framePipeline The pipeline, or null.
+     */
+    public void setFramePipeline(FramePipeline framePipeline) {
+        this.framePipeline = framePipeline;
+    }
+
+    /**
+     * Returns the camera manager bound by this session.
+     *
+     * @return The CameraXManager instance.
+     */
+    public CameraXManager getCameraManager() {
+        return cameraManager;
+    }
+
+    /**
+     * Requests the camera to be bound. The binding happens immediately if the session is
+     * resumed, otherwise on the next resume. Call this once camera permission is granted.
+     */
+    public void startCamera() {
+        cameraRequested = true;
+        if (resumed && !cameraManager.isBound() && canBind()) {
+            bindCamera(lifecycleOwner);
+        }
+    }
+
+    /**
+     * Rebinds the camera use cases after the binding mode changed. Does nothing while paused;
+     * the new mode is then picked up on the next resume. Also does nothing while recording,
+     * since rebinding would end the recording; the change then applies to the next binding.
+     */
+    public void rebindCamera() {
+        if (cameraManager.isRecording()) {
+            Log.w(TAG, "Recording in progress, camera rebinding deferred");
+            return;
+        }
+        if (resumed && cameraRequested && canBind()) {
+            bindCamera(lifecycleOwner);
+        }
+    }
+
+    /**
+     * Moves the camera to another lens without touching the model, the frame pipeline or the
+     * observers; see CameraXManager.switchCamera. While paused, the lens is used on the next
+     * resume. Must be called on the main thread.
+     *
+     * @param lensFacing CameraSelector.LENS_FACING_BACK or CameraSelector.LENS_FACING_FRONT.
+     * @return False if the lens does not exist or a recording is running.
+     */
+    public boolean switchCamera(int lensFacing) {
+        return cameraManager.switchCamera(resumed ? lifecycleOwner : null, lensFacing);
+    }
+
+    /**
+     * Rebuilds the interpreter with a new thread count and delegate and swaps it in. The old
+     * interpreter is closed once its in-flight inference completes. If no model is loaded yet,
+     * the settings are used when it is first loaded. The build does not hold the session's
+     * lock, so getLoadedModel, e.g. from the HUD, never waits for it. Call on the thread that
+     * runs the model, see runOnModelThread, since a GPU delegate is bound to its creating thread.
+     *
+     * @param numThreads The number of interpreter threads.
+     * @param delegate   The interpreter delegate.
+     */
+    public void reconfigureModel(int numThreads, TensorFlowModelBuilder.Delegate delegate) {
+        synchronized (buildLock) {
+            synchronized (this) {
+                if (modelBuilder.getNumThreads() == numThreads && modelBuilder.getDelegate() == delegate) {
+                    return;
+                }
+                modelBuilder.setNumThreads(numThreads).setDelegate(delegate);
+                if (model == null) {
+                    return;
+                }
+            }
+            TensorFlowModel rebuilt = modelBuilder.build();
+            TensorFlowModel oldModel;
+            synchronized (this) {
+                oldModel = destroyed ? rebuilt : model;
+                if (!destroyed) {
+                    model = rebuilt;
+                }
+            }
+            oldModel.close();
+        }
+        Log.d(TAG, "Model reconfigured: " + numThreads + " threads on " + delegate);
+    }
+
+    /**
+     * Runs a task on the thread that runs the model: the frame pipeline's inference worker if
+     * one is set, otherwise the session's loader thread. Loads and rebuilds go through here so
+     * the interpreter and its delegate are created on the thread that uses them.
+     *
+     * @param task The task.
+     */
+    public void runOnModelThread(Runnable task) {
+        FramePipeline pipeline = framePipeline;
+        if (pipeline != null) {
+            pipeline.runOnInferenceWorker(task);
+        } else {
+            loader.execute(task);
+        }
+    }
+
+    /**
+     * Requests an analysis resolution other than the model's input size and rebinds the camera
+     * if it changed. Must be called on the main thread.
+     *
+     * @param width  The requested width, or 0 to use the model's input size.
+     * @param height The requested height, or 0 to use the model's input size.
+     */
+    public void setAnalysisSize(int width, int height) {
+        if (width == analysisWidth && height == analysisHeight) {
+            return;
+        }
+        analysisWidth = width;
+        analysisHeight = height;
+        rebindCamera();
+    }
+
+    /**
+     * Ties a resource to this session; it is closed when the session is destroyed.
+     *
+     * @param closeable The resource to close on destroy.
+     */
+    public synchronized void addCloseable(Closeable closeable) {
+        closeables.add(closeable);
+    }
+
+    /**
+     * Unties a resource added with addCloseable, e.g. once its owner has closed it early.
+     *
+     * @param closeable The resource no longer to close on destroy.
+     */
+    public synchronized void removeCloseable(Closeable closeable) {
+        closeables.remove(closeable);
+    }
+
+    /**
+     * Returns whether the session is between onResume and onPause.
+     *
+     * @return True if the host is resumed.
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    // Whether the analysis size is known without loading the model on the calling thread
+    private boolean canBind() {
+        return (analysisWidth > 0 && analysisHeight > 0) || getLoadedModel() != null;
+    }
+
+    private void bindCamera(LifecycleOwner owner) {
+        // Negotiate the analysis stream against the loaded model's input size unless overridden
+        if (analysisWidth > 0 && analysisHeight > 0) {
+            cameraManager.setAnalysisTargetSize(analysisWidth, analysisHeight);
+        } else {
+            TensorFlowModel loadedModel = getLoadedModel();
+            cameraManager.setAnalysisTargetSize(loadedModel.getInputWidth(), loadedModel.getInputHeight());
+        }
+        cameraManager.startCamera(owner);
+    }
+
+    @Override
+    public void onResume(@NonNull LifecycleOwner owner) {
+        lifecycleOwner = owner;
+        resumed = true;
+        FramePipeline pipeline = framePipeline;
+        if (pipeline != null) {
+            pipeline.resume();
+        }
+        if (getLoadedModel() != null) {
+            // Warm resume: the interpreter is still loaded
+            if (cameraRequested && !cameraManager.isBound()) {
+                bindCamera(owner);
+            }
+        } else {
+            // Load the interpreter in the background before frames start arriving, then bind
+            runOnModelThread(() -> {
+                try {
+                    getModel();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Failed to load the model", e);
+                    return;
+                }
+                mainHandler.post(() -> {
+                    if (resumed && cameraRequested && !cameraManager.isBound()) {
+                        bindCamera(lifecycleOwner);
+                    }
+                });
+            });
+        }
+        Log.d(TAG, "Session resumed");
+    }
+
+    @Override
+    public void onPause(@NonNull LifecycleOwner owner) {
+        resumed = false;
+        cameraManager.stopCamera();
+        FramePipeline pipeline = framePipeline;
+        if (pipeline != null) {
+            // Released on the inference worker once the frames still queued are dropped
+            pipeline.pause(this::releaseModelBuffers);
+        } else {
+            releaseModelBuffers();
+        }
+        Log.d(TAG, "Session paused, camera and per-frame buffers released");
+    }
+
+    private void releaseModelBuffers() {
+        TensorFlowModel loadedModel = getLoadedModel();
+        if (loadedModel != null) {
+            loadedModel.releaseBuffers();
+        }
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        cameraManager.release();
+        // A load still running closes its model itself once it sees destroyed
+        loader.shutdown();
+        mainHandler.removeCallbacksAndMessages(null);
+        List<Closeable> toClose;
+        TensorFlowModel loadedModel;
+        synchronized (this) {
+            destroyed = true;
+            toClose = new ArrayList<>(closeables);
+            closeables.clear();
+            loadedModel = model;
+            model = null;
+        }
+        // Closed without the lock: the pipeline joins its workers, which may be waiting for it
+        for (Closeable closeable : toClose) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to close session resource", e);
+            }
+        }
+        if (loadedModel != null) {
+            loadedModel.close();
+        }
+        lifecycleOwner = null;
+        owner.getLifecycle().removeObserver(this);
+        Log.d(TAG, "Session destroyed, interpreter closed");
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.signlanguageinterpreter.shadow;
+
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a candidate model next to the production model on a sampled fraction of live frames
+ * and compares the results in ShadowMetrics. The candidate runs on its own background-priority
+ * thread, one frame at a time: a frame arriving while it is busy, or after it has used up its
+ * CPU budget, is skipped, so the shadow can never delay the production result. The budget is
+ * the share of one core the candidate may use, measured since the first frame.
+ */
+public class ShadowEvaluator implements Closeable {
+
+    /**
+     * Builds the candidate model. Runs on the shadow thread, which then runs every inference,
+     * so delegates bound to their creating thread work.
+     */
+    public interface CandidateLoader {
+        TensorFlowModel load();
+    }
+
+    /**
+     * Receives the evaluator's failures and final metrics on the shadow or closing thread.
+     */
+    public interface Listener {
+        // The candidate could not be built, or failed on a sampled frame
+        void onCandidateFailed(Exception error);
+
+        // The evaluator was closed; the metrics are final
+        void onClosed(ShadowMetrics metrics);
+    }
+
+    private final double sampleRate; // Share of the frames offered to the candidate
+    private final double cpuBudget; // Share of one core the candidate may use
+    private final ShadowMetrics metrics = new ShadowMetrics();
+    private final ExecutorService executor;
+    private final CandidateLoader loader; // Builds the candidate on the shadow thread
+    private final AtomicBoolean busy = new AtomicBoolean(true); // Whether the candidate holds the frame copy, true until loaded
+    private volatile TensorFlowModel candidate; // Model under evaluation, owned by the evaluator
+    private volatile Listener listener;
+    private long startNanos; // Time of the first offered frame
+    private volatile long spentNanos; // Time the candidate has run, only written by the shadow thread
+    private ByteBuffer frameCopy; // Reused copy of the sampled frame, owned by whoever set busy
+
+    /**
+     * Constructor for ShadowEvaluator. Call start to build the candidate.
+     *
+     * @param loader     Builds the candidate model, which is closed with the evaluator.
+     * @param sampleRate The share of frames to classify with the candidate, between 0 and 1.
+     * @param cpuBudget  The share of one core the candidate may use, between 0 and 1.
+     */
+    public ShadowEvaluator(CandidateLoader loader, double sampleRate, double cpuBudget) {
+        this.loader = loader;
+        this.sampleRate = sampleRate;
+        this.cpuBudget = cpuBudget;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            // Android maps the minimum Java priority to the lowest thread nice value
+            Thread thread = new Thread(runnable, "shadow-model");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds the candidate on the shadow thread. Frames offered before it is ready are skipped
+     * as busy.
+     */
+    public void start() {
+        executor.execute(this::load);
+    }
+
+    /**
+     * Sets the listener for failures and the final report, or null for none. Set it before
+     * start to hear about a failed build.
+     *
+     * @param listener The listener.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Offers a frame the production model just classified. Returns immediately; the frame is
+     * copied only if it is sampled and the candidate is idle and within budget. Must be called
+     * from a single thread, e.g. the inference worker.
+     *
+     * @param rgba          The tightly packed RGBA_8888 pixels, row by row from index 0; may
+     *                      be reused by the caller after this returns.
+     * @param width         The frame width.
+     * @param height        The frame height.
+     * @param rotation      The frame rotation in degrees.
+     * @param primaryScores The production model's scores.
+     * @param primaryNanos  The production model's inference time.
+     */
+    public void offer(ByteBuffer rgba, int width, int height, int rotation, float[] primaryScores, long primaryNanos) {
+        metrics.recordOffered();
+        long now = System.nanoTime();
+        if (startNanos == 0) {
+            startNanos = now;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (!isWithinBudget(spentNanos, now - startNanos, cpuBudget)) {
+            metrics.recordSkippedBudget();
+            return;
+        }
+        if (!busy.compareAndSet(false, true)) {
+            metrics.recordSkippedBusy();
+            return;
+        }
+        try {
+            ByteBuffer copy = copyFrame(rgba, width * height * 4);
+            executor.execute(() -> evaluate(copy, width, height, rotation, primaryScores, primaryNanos));
+        } catch (RuntimeException e) {
+            // Rejected after close: give the copy back, there is nothing left to evaluate
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Returns whether a candidate that has run for spentNanos within elapsedNanos may run again.
+     *
+     * @param spentNanos   The time the candidate has run.
+     * @param elapsedNanos The time since the first frame.
+     * @param cpuBudget    The share of one core the candidate may use.
+     * @return True if the candidate is within its budget.
+     */
+    public static boolean isWithinBudget(long spentNanos, long elapsedNanos, double cpuBudget) {
+        return spentNanos <= cpuBudget * elapsedNanos;
+    }
+
+    public ShadowMetrics getMetrics() {
+        return metrics;
+    }
+
+    // The candidate model, null until it is built on the shadow thread
+    public TensorFlowModel getCandidate() {
+        return candidate;
+    }
+
+    /**
+     * Stops the shadow thread after the frame in progress, closes the candidate model and
+     * hands the final metrics to the listener.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        TensorFlowModel model = candidate;
+        if (model != null) {
+            model.close();
+        }
+        Listener current = listener;
+        if (current != null) {
+            current.onClosed(metrics);
+        }
+    }
+
+    // Runs first on the shadow thread; busy stays set if the build fails, so no frame is taken
+    private void load() {
+        try {
+            candidate = loader.load();
+            busy.set(false);
+        } catch (RuntimeException e) {
+            reportFailure(e);
+        }
+    }
+
+    // Called by the producer while it owns the copy
+    private ByteBuffer copyFrame(ByteBuffer rgba, int bytes) {
+        if (frameCopy == null || frameCopy.capacity() != bytes) {
+            frameCopy = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer source = rgba.duplicate();
+        source.clear().limit(bytes);
+        frameCopy.clear();
+        frameCopy.put(source);
+        frameCopy.flip();
+        return frameCopy;
+    }
+
+    private void evaluate(ByteBuffer frame, int width, int height, int rotation,
+                          float[] primaryScores, long primaryNanos) {
+        long start = System.nanoTime();
+        try {
+            float[] candidateScores = candidate.classifyScores(frame, width, height, rotation);
+            long candidateNanos = System.nanoTime() - start;
+            metrics.record(primaryScores, candidateScores, primaryNanos, candidateNanos);
+        } catch (RuntimeException e) {
+            reportFailure(e);
+        } finally {
+            spentNanos += System.nanoTime() - start;
+            busy.set(false);
+        }
+    }
+
+    private void reportFailure(Exception error) {
+        Listener current = listener;
+        if (current != null) {
+            current.onCandidateFailed(error);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.signlanguageinterpreter.shadow;
+
+import java.util.Locale;
+
+/**
+ * Running comparison of a candidate model against the production model over the frames
+ * both classified. Thread safe; recorded by the shadow thread and read by anyone.
+ */
+public class ShadowMetrics {
+    private long offered; // Frames offered to the shadow
+    private long samples; // Frames the candidate classified
+    private long skippedBusy; // Sampled frames dropped because the candidate was still running
+    private long skippedBudget; // Sampled frames dropped because the CPU budget was used up
+    private long agreements; // Samples where both models chose the same top-1 label
+    private double latencyDeltaSumMillis; // Sum of candidate minus primary latency
+    private double maxLatencyDeltaMillis = Double.NEGATIVE_INFINITY;
+    private double confidenceDriftSum; // Sum of candidate minus primary top-1 confidence
+    private double scoreDistanceSum; // Sum of the mean absolute score differences
+
+    synchronized void recordOffered() {
+        offered++;
+    }
+
+    synchronized void recordSkippedBusy() {
+        skippedBusy++;
+    }
+
+    synchronized void recordSkippedBudget() {
+        skippedBudget++;
+    }
+
+    /**
+     * Records one frame classified by both models.
+     *
+     * @param primaryScores   The production model's scores.
+     * @param candidateScores The candidate model's scores for the same frame.
+     * @param primaryNanos    The production model's inference time.
+     * @param candidateNanos  The candidate model's inference time.
+     */
+    public synchronized void record(float[] primaryScores, float[] candidateScores,
+                                    long primaryNanos, long candidateNanos) {
+        samples++;
+        int primaryBest = argmax(primaryScores);
+        int candidateBest = argmax(candidateScores);
+        if (primaryBest == candidateBest) {
+            agreements++;
+        }
+        double delta = (candidateNanos - primaryNanos) / 1_000_000.0;
+        latencyDeltaSumMillis += delta;
+        maxLatencyDeltaMillis = Math.max(maxLatencyDeltaMillis, delta);
+        confidenceDriftSum += candidateScores[candidateBest] - primaryScores[primaryBest];
+        int length = Math.min(primaryScores.length, candidateScores.length);
+        double distance = 0;
+        for (int i = 0; i < length; i++) {
+            distance += Math.abs(candidateScores[i] - primaryScores[i]);
+        }
+        scoreDistanceSum += length == 0 ? 0 : distance / length;
+    }
+
+    public synchronized long getOffered() {
+        return offered;
+    }
+
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    public synchronized long getSkippedBusy() {
+        return skippedBusy;
+    }
+
+    public synchronized long getSkippedBudget() {
+        return skippedBudget;
+    }
+
+    // Share of the samples where both models chose the same label
+    public synchronized double getAgreementRate() {
+        return samples == 0 ? 0 : (double) agreements / samples;
+    }
+
+    // Average extra time the candidate needs per frame; negative if it is faster
+    public synchronized double getAverageLatencyDeltaMillis() {
+        return samples == 0 ? 0 : latencyDeltaSumMillis / samples;
+    }
+
+    public synchronized double getMaxLatencyDeltaMillis() {
+        return samples == 0 ? 0 : maxLatencyDeltaMillis;
+    }
+
+    // Average change of the top-1 confidence; negative if the candidate is less sure
+    public synchronized double getAverageConfidenceDrift() {
+        return samples == 0 ? 0 : confidenceDriftSum / samples;
+    }
+
+    // Average of the mean absolute difference between the two score vectors
+    public synchronized double getAverageScoreDistance() {
+        return samples == 0 ? 0 : scoreDistanceSum / samples;
+    }
+
+    /**
+     * Formats the metrics as a one-paragraph report.
+     *
+     * @return The report.
+     */
+    public synchronized String getReport() {
+        return String.format(Locale.US,
+                "shadow: %d of %d frames sampled (%d skipped busy, %d over budget)%n"
+                        + "  agreement %.1f%%, latency delta %+.2f ms avg / %+.2f ms max%n"
+                        + "  confidence drift %+.4f, score distance %.4f%n",
+                samples, offered, skippedBusy, skippedBudget,
+                getAgreementRate() * 100, getAverageLatencyDeltaMillis(), getMaxLatencyDeltaMillis(),
+                getAverageConfidenceDrift(), getAverageScoreDistance());
+    }
+
+    private static int argmax(float[] scores) {
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -1,23 +1,35 @@
 package com.example.signlanguageinterpreter.singleton;
 
-
-import static androidx.compose.material3.ShapesKt.start;
-
 import android.Manifest;
 import android.content.ContentValues;
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
 import android.os.Build;
+import android.os.SystemClock;
 import android.provider.MediaStore;
 import android.util.Log;
+import android.util.Size;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.camera.core.Camera;
+import androidx.camera.core.CameraInfoUnavailableException;
 import androidx.camera.core.CameraSelector;
+import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageCapture;
 import androidx.camera.core.ImageCaptureException;
+import androidx.camera.core.ImageProxy;
 import androidx.camera.core.Preview;
+import androidx.camera.core.ResolutionInfo;
+import androidx.camera.core.UseCase;
+import androidx.camera.core.resolutionselector.AspectRatioStrategy;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.camera.video.MediaStoreOutputOptions;
+import androidx.camera.video.PendingRecording;
 import androidx.camera.video.Quality;
 import androidx.camera.video.QualitySelector;
 import androidx.camera.video.Recorder;
@@ -29,26 +41,76 @@ import androidx.core.content.ContextCompat;
 import androidx.core.content.PermissionChecker;
 import androidx.lifecycle.LifecycleOwner;
 
+import com.example.signlanguageinterpreter.pool.BitmapPool;
+import com.example.signlanguageinterpreter.pool.BufferPool;
+import com.example.signlanguageinterpreter.pool.Lease;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class CameraXManager {
     private static CameraXManager instance;
     private ProcessCameraProvider cameraProvider;
     private PreviewView previewView;
+    private Preview preview;
     public ImageCapture imageCapture;
     private VideoCapture<Recorder> videoCapture;
+    private ImageAnalysis imageAnalysis;
+    private Camera camera; // Camera of the last successful binding
+    private ImageAnalysis.Analyzer analyzer;
+    private final ImageAnalysis.Analyzer frameDispatcher = this::dispatchFrame; // Installed on every analysis use case
+    private int lensFacing = CameraSelector.LENS_FACING_BACK;
+    // Recording quality negotiated per lens, so a switch back skips the quality ladder
+    private final Map<Integer, Quality> negotiatedQualities = new HashMap<>();
+    private volatile long switchStartNanos; // Start of the switch awaiting its first frame, 0 if none
+    private volatile long lastSwitchMillis = -1; // Latency of the last switch to its first frame
+    private OnCameraSwitchedCallback onCameraSwitchedCallback;
+    private BindingMode bindingMode = BindingMode.PHOTO;
+    private Quality videoQuality = Quality.HIGHEST;
+    private Quality negotiatedVideoQuality; // Quality actually bound, null when recording is unavailable
+    private Size analysisTargetSize = new Size(224, 224);
     private Recording recording;
     private OnPhotoSavedCallback onPhotoSavedCallback;
     private OnVideoSavedCallback onVideoSavedCallback;
+    private OnPhotoCapturedCallback onPhotoCapturedCallback;
+    private OnRecordEventCallback onRecordEventCallback;
+    private String recordingName; // Display name of the current or last recording
+    private BufferPool jpegPool = new BufferPool(8L * 1024 * 1024, false, false); // Heap buffers for in-memory JPEGs
+    private BitmapPool bitmapPool = new BitmapPool(16L * 1024 * 1024, false); // Bitmaps decoded from in-memory captures
     private static ExecutorService cameraExecutor;
+    // MediaStore writes for in-memory captures never run on the main or camera thread
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    // Analysis runs on its own thread so it cannot delay capture callbacks
+    private final ExecutorService analysisExecutor = Executors.newSingleThreadExecutor();
+    private boolean bound;
     private static final String TAG = "CameraXManager";
     private static final String FILENAME_FORMAT = "yyyy-MM-dd-HH-mm-ss-SSS";
+    // Concrete qualities from highest to lowest, used as the recording fallback ladder
+    private static final List<Quality> QUALITY_LADDER =
+            Arrays.asList(Quality.UHD, Quality.FHD, Quality.HD, Quality.SD);
+
+    /**
+     * The set of use cases bound by startCamera.
+     */
+    public enum BindingMode {
+        // Preview, photo capture and, if an analyzer is set, live analysis
+        PHOTO,
+        // Preview, video recording and live analysis at the same time
+        RECORD_AND_ANALYZE
+    }
 
     private CameraXManager(Context context, PreviewView previewView, ExecutorService cameraExecutor) {
         this.previewView = previewView;
@@ -62,34 +124,428 @@ public class CameraXManager {
 
     public static CameraXManager getInstance(Context context, PreviewView previewView) {
         if (instance == null) {
-            instance = new CameraXManager(context, previewView, cameraExecutor);
+            // Only the application context is kept alive by the provider, never the activity
+            instance = new CameraXManager(context.getApplicationContext(), previewView,
+                    Executors.newSingleThreadExecutor());
+        } else if (previewView != null) {
+            instance.setPreviewView(previewView);
         }
         return instance;
     }
 
+    /**
+     * Points the preview use case at a new view, e.g. after the activity was recreated.
+     *
+     * @param previewView The view to render the camera preview into, or null to detach it.
+     */
+    public void setPreviewView(PreviewView previewView) {
+        this.previewView = previewView;
+    }
+
+    /**
+     * Returns whether the camera use cases are currently bound to a lifecycle.
+     *
+     * @return True if startCamera succeeded and stopCamera has not been called since.
+     */
+    public boolean isBound() {
+        return bound;
+    }
+
     public void startCamera(Context context) {
-        Preview preview = new Preview.Builder().build();
+        startCamera((LifecycleOwner) context);
+    }
+
+    /**
+     * Returns whether a recording is running. Rebinding the camera would end it.
+     *
+     * @return True between captureVideo starting and stopping a recording.
+     */
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Selects which use cases the next startCamera call binds. Refused while recording, since
+     * the rebinding it leads to would cut the recording short.
+     *
+     * @param bindingMode The binding mode to use.
+     * @return False if a recording is running and the mode was left unchanged.
+     */
+    public boolean setBindingMode(BindingMode bindingMode) {
+        if (recording != null && bindingMode != this.bindingMode) {
+            Log.w(TAG, "Cannot change the binding mode while recording");
+            return false;
+        }
+        this.bindingMode = bindingMode;
+        return true;
+    }
+
+    /**
+     * Sets the preferred recording quality for RECORD_AND_ANALYZE. If the device cannot run
+     * it together with preview and analysis, lower qualities are tried in order. Takes effect
+     * on the next binding.
+     *
+     * @param videoQuality The preferred quality, e.g. Quality.FHD or Quality.HIGHEST.
+     */
+    public void setVideoQuality(Quality videoQuality) {
+        this.videoQuality = videoQuality;
+    }
+
+    /**
+     * Sets the size the analysis stream should approach, normally the model input size.
+     * The smallest supported resolution at or above it is negotiated.
+     *
+     * @param width  The target width in pixels.
+     * @param height The target height in pixels.
+     */
+    public void setAnalysisTargetSize(int width, int height) {
+        this.analysisTargetSize = new Size(width, height);
+    }
+
+    /**
+     * Sets the analyzer that receives live frames. Frames are delivered on a dedicated
+     * executor and the latest frame wins, so a slow analyzer never backs up the camera.
+     *
+     * @param analyzer The analyzer, or null to disable the analysis stream.
+     */
+    public void setAnalyzer(ImageAnalysis.Analyzer analyzer) {
+        this.analyzer = analyzer;
+        if (imageAnalysis != null) {
+            if (analyzer != null) {
+                imageAnalysis.setAnalyzer(analysisExecutor, frameDispatcher);
+            } else {
+                imageAnalysis.clearAnalyzer();
+            }
+        }
+    }
+
+    /**
+     * Returns the recording quality negotiated by the last binding, read back from the
+     * resolution the recording stream was actually given.
+     *
+     * @return The bound quality, or null if recording is not available in the current binding.
+     */
+    public Quality getNegotiatedVideoQuality() {
+        return negotiatedVideoQuality;
+    }
+
+    /**
+     * Returns the analysis resolution negotiated by the last binding.
+     *
+     * @return The resolution in sensor orientation, or null if analysis is not bound.
+     */
+    public Size getAnalysisResolution() {
+        if (imageAnalysis == null || imageAnalysis.getResolutionInfo() == null) {
+            return null;
+        }
+        return imageAnalysis.getResolutionInfo().getResolution();
+    }
+
+    public void startCamera(LifecycleOwner lifecycleOwner) {
+        if (previewView == null) {
+            Log.w(TAG, "No PreviewView attached, skipping camera binding");
+            return;
+        }
+        preview = new Preview.Builder().build();
         preview.setSurfaceProvider(previewView.getSurfaceProvider());
 
-        imageCapture = new ImageCapture.Builder().build();
+        CameraSelector cameraSelector = selectorFor(lensFacing);
 
-        Recorder recorder = new Recorder.Builder()
-                .setQualitySelector(QualitySelector.from(Quality.HIGHEST))
+        imageAnalysis = analyzer != null || bindingMode == BindingMode.RECORD_AND_ANALYZE
+                ? buildImageAnalysis() : null;
+        imageCapture = null;
+        videoCapture = null;
+        negotiatedVideoQuality = null;
+        cameraProvider.unbindAll();
+
+        if (bindingMode == BindingMode.RECORD_AND_ANALYZE) {
+            bound = bindRecordAndAnalyze(lifecycleOwner, cameraSelector, preview);
+            return;
+        }
+
+        imageCapture = new ImageCapture.Builder()
+                .setCaptureMode(ImageCapture.CAPTURE_MODE_MINIMIZE_LATENCY)
                 .build();
-        videoCapture = VideoCapture.withOutput(recorder);
+        bound = bind(lifecycleOwner, cameraSelector, preview, imageCapture, imageAnalysis);
+        if (!bound && imageAnalysis != null) {
+            // Photo capture takes priority over analysis on devices that cannot run both
+            Log.w(TAG, "Preview, capture and analysis not supported together, dropping analysis");
+            imageAnalysis = null;
+            bound = bind(lifecycleOwner, cameraSelector, preview, imageCapture);
+        }
+    }
+
+    /**
+     * Binds preview, recording and analysis, walking down the quality ladder from the
+     * requested quality until the device accepts the combination. If no recording quality
+     * fits, preview and analysis are bound alone and recording is reported unavailable.
+     */
+    private boolean bindRecordAndAnalyze(LifecycleOwner lifecycleOwner, CameraSelector cameraSelector,
+                                         Preview preview) {
+        List<Quality> candidates = new ArrayList<>();
+        int requested = QUALITY_LADDER.indexOf(videoQuality);
+        Quality negotiated = negotiatedQualities.get(lensFacing);
+        if (negotiated != null && QUALITY_LADDER.indexOf(negotiated) >= requested) {
+            // This lens already settled on a quality, start there instead of at the top
+            candidates.addAll(QUALITY_LADDER.subList(QUALITY_LADDER.indexOf(negotiated), QUALITY_LADDER.size()));
+        } else if (videoQuality == Quality.LOWEST) {
+            candidates.add(Quality.SD);
+        } else {
+            // HIGHEST, or any quality outside the ladder, starts from the top
+            candidates.addAll(QUALITY_LADDER.subList(Math.max(requested, 0), QUALITY_LADDER.size()));
+        }
+
+        for (Quality quality : candidates) {
+            // No fallback strategy: this ladder is the fallback, so a quality the device cannot
+            // record fails to bind instead of being silently swapped for another one
+            Recorder recorder = new Recorder.Builder()
+                    .setQualitySelector(QualitySelector.from(quality))
+                    .build();
+            VideoCapture<Recorder> candidate = VideoCapture.withOutput(recorder);
+            if (bind(lifecycleOwner, cameraSelector, preview, candidate, imageAnalysis)) {
+                videoCapture = candidate;
+                negotiatedVideoQuality = boundQualityOf(candidate, quality);
+                negotiatedQualities.put(lensFacing, negotiatedVideoQuality);
+                Log.d(TAG, "Bound recording at " + negotiatedVideoQuality + " with analysis at "
+                        + getAnalysisResolution());
+                return true;
+            }
+            cameraProvider.unbindAll();
+        }
 
-        CameraSelector cameraSelector = new CameraSelector.Builder()
-                .requireLensFacing(CameraSelector.LENS_FACING_BACK)
+        Log.w(TAG, "Recording cannot run alongside analysis on this device, binding analysis only");
+        return bind(lifecycleOwner, cameraSelector, preview, imageAnalysis);
+    }
+
+    /**
+     * Maps the resolution the recording stream was bound at back to its quality, so the
+     * reported quality is the one being recorded even if the camera picked another size.
+     */
+    private Quality boundQualityOf(VideoCapture<Recorder> capture, Quality requested) {
+        ResolutionInfo resolutionInfo = capture.getResolutionInfo();
+        if (camera == null || resolutionInfo == null) {
+            return requested;
+        }
+        Size bound = resolutionInfo.getResolution();
+        for (Quality quality : QUALITY_LADDER) {
+            Size size = QualitySelector.getResolution(camera.getCameraInfo(), quality);
+            // Either side may be reported rotated to the display
+            if (size != null && (size.equals(bound)
+                    || (size.getWidth() == bound.getHeight() && size.getHeight() == bound.getWidth()))) {
+                return quality;
+            }
+        }
+        Log.w(TAG, "Recording bound at " + bound + ", which matches no quality; reporting " + requested);
+        return requested;
+    }
+
+    private ImageAnalysis buildImageAnalysis() {
+        // Smallest resolution at or above the model input, so full-size frames never reach analysis
+        ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
+                .setAspectRatioStrategy(AspectRatioStrategy.RATIO_4_3_FALLBACK_AUTO_STRATEGY)
+                .setResolutionStrategy(new ResolutionStrategy(analysisTargetSize,
+                        ResolutionStrategy.FALLBACK_RULE_CLOSEST_HIGHER_THEN_LOWER))
+                .build();
+        ImageAnalysis analysis = new ImageAnalysis.Builder()
+                .setResolutionSelector(resolutionSelector)
+                .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
+                .setOutputImageFormat(ImageAnalysis.OUTPUT_IMAGE_FORMAT_RGBA_8888)
                 .build();
+        if (analyzer != null) {
+            analysis.setAnalyzer(analysisExecutor, frameDispatcher);
+        }
+        return analysis;
+    }
 
+    private boolean bind(LifecycleOwner lifecycleOwner, CameraSelector cameraSelector, UseCase... useCases) {
+        List<UseCase> present = new ArrayList<>();
+        for (UseCase useCase : useCases) {
+            if (useCase != null) {
+                present.add(useCase);
+            }
+        }
         try {
-            cameraProvider.unbindAll();
-            cameraProvider.bindToLifecycle((LifecycleOwner) context, cameraSelector, preview, imageCapture);
+            camera = cameraProvider.bindToLifecycle(lifecycleOwner, cameraSelector, present.toArray(new UseCase[0]));
+            return true;
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Use case combination not supported: " + present, e);
+            return false;
         } catch (Exception e) {
             Log.e(TAG, "Use case binding failed", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the lens the camera is or will be bound to.
+     *
+     * @return CameraSelector.LENS_FACING_BACK or CameraSelector.LENS_FACING_FRONT.
+     */
+    public int getLensFacing() {
+        return lensFacing;
+    }
+
+    /**
+     * Returns whether the device has a camera facing the given way.
+     *
+     * @param lensFacing CameraSelector.LENS_FACING_BACK or CameraSelector.LENS_FACING_FRONT.
+     * @return True if such a camera exists.
+     */
+    public boolean hasCamera(int lensFacing) {
+        try {
+            return cameraProvider != null && cameraProvider.hasCamera(selectorFor(lensFacing));
+        } catch (CameraInfoUnavailableException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Moves the bound use cases to another lens. Only the camera changes: the preview, capture
+     * and analysis use cases are unbound and bound again as they are, keeping their analyzer
+     * and their resolution selectors, so nothing downstream of the analyzer is rebuilt. When
+     * recording, the quality is negotiated for the new lens, starting from the one it settled
+     * on before, unless that is the quality already bound. If the new lens rejects the
+     * existing combination, one full binding with negotiation is done; if that fails too, the
+     * camera is left unbound and startCamera retries. While unbound, the lens is just
+     * remembered for the next startCamera. A running recording is not switched.
+     * The latency up to the first analysis frame from the new lens is reported to the
+     * OnCameraSwitchedCallback and getLastSwitchMillis. Must be called on the main thread.
+     *
+     * @param lifecycleOwner The owner the use cases are bound to.
+     * @param lensFacing     CameraSelector.LENS_FACING_BACK or CameraSelector.LENS_FACING_FRONT.
+     * @return False if the lens does not exist, a recording is running or the lens could not
+     *         be bound.
+     */
+    public boolean switchCamera(LifecycleOwner lifecycleOwner, int lensFacing) {
+        if (lensFacing == this.lensFacing) {
+            return true;
+        }
+        if (cameraProvider != null && !hasCamera(lensFacing)) {
+            Log.w(TAG, "No camera with lens facing " + lensFacing);
+            return false;
+        }
+        if (recording != null) {
+            Log.w(TAG, "Cannot switch cameras while recording");
+            return false;
+        }
+        this.lensFacing = lensFacing;
+        if (!bound) {
+            return true;
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        UseCase[] useCases = {preview, imageCapture, videoCapture, imageAnalysis};
+        List<UseCase> present = new ArrayList<>();
+        for (UseCase useCase : useCases) {
+            if (useCase != null) {
+                present.add(useCase);
+            }
+        }
+        cameraProvider.unbind(present.toArray(new UseCase[0]));
+        switchStartNanos = imageAnalysis != null ? start : 0;
+        if (videoCapture != null && !negotiatedVideoQuality.equals(negotiatedQualities.get(lensFacing))) {
+            // The bound quality was negotiated for the other lens: walk this lens's ladder,
+            // keeping the preview and analysis use cases
+            videoCapture = null;
+            negotiatedVideoQuality = null;
+            bound = bindRecordAndAnalyze(lifecycleOwner, selectorFor(lensFacing), preview);
+        } else if (!bind(lifecycleOwner, selectorFor(lensFacing), useCases)) {
+            // The new lens cannot run this exact combination, negotiate from scratch once
+            Log.w(TAG, "Bound use cases rejected by lens " + lensFacing + ", rebinding in full");
+            startCamera(lifecycleOwner);
+        }
+        if (!bound) {
+            switchStartNanos = 0;
+            Log.e(TAG, "Lens " + lensFacing + " could not be bound");
+            return false;
+        }
+        // A full binding may have dropped analysis
+        switchStartNanos = imageAnalysis != null ? start : 0;
+        long bindMillis = (SystemClock.elapsedRealtimeNanos() - start) / 1_000_000;
+        Log.d(TAG, "Switched to lens " + lensFacing + ", bound in " + bindMillis + " ms");
+        if (imageAnalysis == null) {
+            // Without analysis frames the binding is the last step we can observe
+            reportSwitch(bindMillis);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the latency of the last camera switch, measured from the call to the first
+     * analysis frame of the new lens, or to the end of the binding when nothing is analyzed.
+     *
+     * @return The latency in milliseconds, or -1 before the first completed switch.
+     */
+    public long getLastSwitchMillis() {
+        return lastSwitchMillis;
+    }
+
+    private void dispatchFrame(ImageProxy image) {
+        long switchStart = switchStartNanos;
+        if (switchStart != 0) {
+            switchStartNanos = 0;
+            reportSwitch((SystemClock.elapsedRealtimeNanos() - switchStart) / 1_000_000);
+        }
+        ImageAnalysis.Analyzer analyzer = this.analyzer;
+        if (analyzer != null) {
+            analyzer.analyze(image);
+        } else {
+            image.close();
+        }
+    }
+
+    private void reportSwitch(long millis) {
+        lastSwitchMillis = millis;
+        Log.d(TAG, "Camera switch took " + millis + " ms");
+        OnCameraSwitchedCallback callback = onCameraSwitchedCallback;
+        if (callback != null) {
+            callback.onCameraSwitched(lensFacing, millis);
         }
     }
 
+    private static CameraSelector selectorFor(int lensFacing) {
+        return new CameraSelector.Builder()
+                .requireLensFacing(lensFacing)
+                .build();
+    }
+
+    /**
+     * Unbinds all camera use cases and stops any running recording, releasing the camera
+     * device and its buffers. The manager can be started again with startCamera.
+     */
+    public void stopCamera() {
+        if (recording != null) {
+            recording.stop();
+            recording = null;
+        }
+        if (cameraProvider != null) {
+            cameraProvider.unbindAll();
+        }
+        imageCapture = null;
+        videoCapture = null;
+        imageAnalysis = null;
+        preview = null;
+        camera = null;
+        negotiatedVideoQuality = null;
+        switchStartNanos = 0;
+        bound = false;
+    }
+
+    /**
+     * Stops the camera and drops the references to the PreviewView and the analyzer, so the
+     * owning activity and the facade and session behind the analyzer can be garbage collected.
+     */
+    public void release() {
+        stopCamera();
+        analyzer = null;
+        previewView = null;
+        onPhotoSavedCallback = null;
+        onVideoSavedCallback = null;
+        onPhotoCapturedCallback = null;
+        onRecordEventCallback = null;
+        onCameraSwitchedCallback = null;
+    }
+
     public void takePhoto(Context context) {
         ImageCapture imageCapture = this.imageCapture;
         if (imageCapture == null) return;
@@ -132,8 +588,162 @@ public class CameraXManager {
         );
     }
 
+    /**
+     * Captures a photo into memory and hands it to the OnPhotoCapturedCallback on the camera
+     * executor, decoded at roughly the requested size instead of full resolution. The JPEG is
+     * only written to MediaStore when requested, asynchronously on a background I/O executor,
+     * so classification never waits for the disk. The JPEG bytes and the decoded Bitmap are
+     * leased from the manager's pools and returned as soon as they are no longer needed.
+     *
+     * @param context          The context used to resolve the MediaStore content resolver.
+     * @param targetWidth      The smallest width the decoded Bitmap should keep, e.g. model input width.
+     * @param targetHeight     The smallest height the decoded Bitmap should keep.
+     * @param saveToMediaStore Whether the full-resolution JPEG should also be saved.
+     */
+    public void takePhotoInMemory(Context context, int targetWidth, int targetHeight,
+                                  boolean saveToMediaStore) {
+        ImageCapture imageCapture = this.imageCapture;
+        if (imageCapture == null) return;
+        Context appContext = context.getApplicationContext();
+
+        imageCapture.takePicture(cameraExecutor, new ImageCapture.OnImageCapturedCallback() {
+            @Override
+            public void onCaptureSuccess(@NonNull ImageProxy image) {
+                int rotationDegrees = image.getImageInfo().getRotationDegrees();
+                Lease<ByteBuffer> jpegLease;
+                int jpegLength;
+                try {
+                    // In-memory captures arrive as a single JPEG plane
+                    ByteBuffer buffer = image.getPlanes()[0].getBuffer();
+                    jpegLength = buffer.remaining();
+                    jpegLease = jpegPool.lease(jpegLength);
+                    jpegLease.get().put(buffer);
+                } finally {
+                    image.close();
+                }
+                byte[] jpeg = jpegLease.get().array();
+                int jpegOffset = jpegLease.get().arrayOffset();
+
+                try (Lease<Bitmap> bitmapLease = decodeSampledJpeg(jpeg, jpegOffset, jpegLength,
+                        targetWidth, targetHeight, bitmapPool)) {
+                    if (bitmapLease != null && onPhotoCapturedCallback != null) {
+                        onPhotoCapturedCallback.onPhotoCaptured(bitmapLease.get(), rotationDegrees);
+                    }
+                } finally {
+                    if (saveToMediaStore) {
+                        // The save task now owns the JPEG and returns it when written
+                        ioExecutor.execute(() -> {
+                            try {
+                                saveJpeg(appContext, jpeg, jpegOffset, jpegLength);
+                            } finally {
+                                jpegLease.close();
+                            }
+                        });
+                    } else {
+                        jpegLease.close();
+                    }
+                }
+            }
+
+            @Override
+            public void onError(@NonNull ImageCaptureException exc) {
+                Log.e(TAG, "In-memory photo capture failed: " + exc.getMessage(), exc);
+            }
+        });
+    }
+
+    /**
+     * Decodes a JPEG with the largest power-of-two subsampling that still keeps both sides at
+     * or above the target size, which skips most of the full-resolution decode work. Decodes
+     * into a Bitmap leased from the pool, or returns null if the JPEG cannot be decoded.
+     */
+    private static Lease<Bitmap> decodeSampledJpeg(byte[] jpeg, int offset, int length,
+                                                   int targetWidth, int targetHeight, BitmapPool pool) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(jpeg, offset, length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        // The JPEG may still be in sensor orientation, so compare short side to short side
+        int shortSide = Math.min(options.outWidth, options.outHeight);
+        int longSide = Math.max(options.outWidth, options.outHeight);
+        int targetShort = Math.min(targetWidth, targetHeight);
+        int targetLong = Math.max(targetWidth, targetHeight);
+        int sampleSize = 1;
+        while (shortSide / (sampleSize * 2) >= targetShort && longSide / (sampleSize * 2) >= targetLong) {
+            sampleSize *= 2;
+        }
+
+        // Decode straight into a pooled Bitmap; the decoder reshapes it to the sampled size
+        Lease<Bitmap> lease = pool.lease((options.outWidth + sampleSize - 1) / sampleSize,
+                (options.outHeight + sampleSize - 1) / sampleSize);
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        options.inMutable = true;
+        options.inBitmap = lease.get();
+        try {
+            BitmapFactory.decodeByteArray(jpeg, offset, length, options);
+        } catch (IllegalArgumentException e) {
+            // The pooled Bitmap could not be reused for this JPEG
+            lease.close();
+            Log.w(TAG, "Pooled decode failed", e);
+            return null;
+        }
+        return lease;
+    }
+
+    private void saveJpeg(Context context, byte[] jpeg, int offset, int length) {
+        String name = new SimpleDateFormat(FILENAME_FORMAT, Locale.US)
+                .format(System.currentTimeMillis());
+
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, name);
+        contentValues.put(MediaStore.MediaColumns.MIME_TYPE, "image/jpeg");
+        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.P) {
+            contentValues.put(MediaStore.Images.Media.RELATIVE_PATH, "Pictures/CameraX-Image");
+            contentValues.put(MediaStore.MediaColumns.IS_PENDING, 1);
+        }
+
+        Uri uri = context.getContentResolver().insert(MediaStore.Images.Media.EXTERNAL_CONTENT_URI, contentValues);
+        if (uri == null) {
+            Log.e(TAG, "Failed to create MediaStore entry for " + name);
+            return;
+        }
+        try (OutputStream outputStream = context.getContentResolver().openOutputStream(uri)) {
+            if (outputStream == null) {
+                throw new IOException("No output stream for " + uri);
+            }
+            outputStream.write(jpeg, offset, length);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write photo " + uri, e);
+            context.getContentResolver().delete(uri, null, null);
+            return;
+        }
+        if (Build.VERSION.SDK_INT > Build.VERSION_CODES.P) {
+            ContentValues published = new ContentValues();
+            published.put(MediaStore.MediaColumns.IS_PENDING, 0);
+            context.getContentResolver().update(uri, published, null, null);
+        }
+
+        Log.d(TAG, "Photo saved in background: " + uri);
+        if (onPhotoSavedCallback != null) {
+            String savedUri = uri.toString();
+            ContextCompat.getMainExecutor(context).execute(() -> {
+                if (onPhotoSavedCallback != null) {
+                    onPhotoSavedCallback.onPhotoSaved(savedUri);
+                }
+            });
+        }
+    }
+
     public void captureVideo(Context context) {
-        if (videoCapture == null) return;
+        if (videoCapture == null) {
+            Log.w(TAG, "Recording is not bound, use BindingMode.RECORD_AND_ANALYZE");
+            return;
+        }
 
         if (recording != null) {
             // Stop the current recording session.
@@ -145,6 +755,7 @@ public class CameraXManager {
         // Create and start a new recording session
         String name = new SimpleDateFormat(FILENAME_FORMAT, Locale.US)
                 .format(System.currentTimeMillis());
+        recordingName = name;
 
         ContentValues contentValues = new ContentValues();
         contentValues.put(MediaStore.MediaColumns.DISPLAY_NAME, name);
@@ -159,28 +770,37 @@ public class CameraXManager {
                 .setContentValues(contentValues)
                 .build();
 
-        recording = videoCapture.getOutput().prepareRecording(context, mediaStoreOutputOptions).apply {
-            if (PermissionChecker.checkSelfPermission(context, Manifest.permission.RECORD_AUDIO) ==
-                    PermissionChecker.PERMISSION_GRANTED) {
-                withAudioEnabled();
-            }
+        PendingRecording pendingRecording = videoCapture.getOutput()
+                .prepareRecording(context, mediaStoreOutputOptions);
+        if (PermissionChecker.checkSelfPermission(context, Manifest.permission.RECORD_AUDIO) ==
+                PermissionChecker.PERMISSION_GRANTED) {
+            pendingRecording = pendingRecording.withAudioEnabled();
         }
-            .start(ContextCompat.getMainExecutor(context), new VideoRecordEvent.Listener() {
+
+        recording = pendingRecording.start(ContextCompat.getMainExecutor(context), new VideoRecordEvent.Listener() {
             @Override
             public void onEvent(VideoRecordEvent event) {
+                if (onRecordEventCallback != null) {
+                    onRecordEventCallback.onRecordEvent(event, name);
+                }
                 if (event instanceof VideoRecordEvent.Start) {
                     Log.d(TAG, "Video recording started");
                 } else if (event instanceof VideoRecordEvent.Finalize) {
-                    if (!((VideoRecordEvent.Finalize) event).hasError()) {
-                        String msg = "Video capture succeeded: " +
-                                ((VideoRecordEvent.Finalize) event).getOutputResults().getOutputUri();
+                    VideoRecordEvent.Finalize finalizeEvent = (VideoRecordEvent.Finalize) event;
+                    if (!finalizeEvent.hasError()) {
+                        String videoUri = finalizeEvent.getOutputResults().getOutputUri().toString();
+                        String msg = "Video capture succeeded: " + videoUri;
                         Toast.makeText(context, msg, Toast.LENGTH_SHORT).show();
                         Log.d(TAG, msg);
+                        if (onVideoSavedCallback != null) {
+                            onVideoSavedCallback.onVideoSaved(videoUri);
+                        }
                     } else {
-                        recording.close();
-                        recording = null;
-                        Log.e(TAG, "Video capture ends with error: " +
-                                ((VideoRecordEvent.Finalize) event).getError());
+                        if (recording != null) {
+                            recording.close();
+                            recording = null;
+                        }
+                        Log.e(TAG, "Video capture ends with error: " + finalizeEvent.getError());
                     }
                 }
             }
@@ -195,6 +815,20 @@ public class CameraXManager {
         void onVideoSaved(String videoPath);
     }
 
+    public interface OnPhotoCapturedCallback {
+        // The Bitmap is pooled: only valid until the callback returns, and must not be recycled
+        void onPhotoCaptured(Bitmap bitmap, int rotationDegrees);
+    }
+
+    public interface OnRecordEventCallback {
+        void onRecordEvent(VideoRecordEvent event, String recordingName);
+    }
+
+    public interface OnCameraSwitchedCallback {
+        // Called on the analysis thread, or on the main thread when nothing is analyzed
+        void onCameraSwitched(int lensFacing, long latencyMillis);
+    }
+
     public void setOnPhotoSavedCallback(OnPhotoSavedCallback callback) {
         this.onPhotoSavedCallback = callback;
     }
@@ -202,6 +836,33 @@ public class CameraXManager {
     public void setOnVideoSavedCallback(OnVideoSavedCallback callback) {
         this.onVideoSavedCallback = callback;
     }
+
+    /**
+     * Replaces the pools in-memory captures lease their JPEG bytes and Bitmaps from.
+     *
+     * @param jpegPool   A pool of heap-backed buffers.
+     * @param bitmapPool A pool of Bitmaps.
+     */
+    public void setPools(BufferPool jpegPool, BitmapPool bitmapPool) {
+        this.jpegPool = jpegPool;
+        this.bitmapPool = bitmapPool;
+    }
+
+    public void setOnPhotoCapturedCallback(OnPhotoCapturedCallback callback) {
+        this.onPhotoCapturedCallback = callback;
+    }
+
+    public void setOnRecordEventCallback(OnRecordEventCallback callback) {
+        this.onRecordEventCallback = callback;
+    }
+
+    public void setOnCameraSwitchedCallback(OnCameraSwitchedCallback callback) {
+        this.onCameraSwitchedCallback = callback;
+    }
+
+    public String getRecordingName() {
+        return recordingName;
+    }
 }
 
 
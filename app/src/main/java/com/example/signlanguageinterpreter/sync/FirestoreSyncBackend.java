@@ -0,0 +1,54 @@
+package com.example.signlanguageinterpreter.sync;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SyncBackend writing each batch as one Firestore WriteBatch under
+ * sessions/{sessionId}/results and sessions/{sessionId}/telemetry. Document ids come from the
+ * record sequence numbers, so a batch retried after a timeout overwrites instead of duplicating.
+ */
+public class FirestoreSyncBackend implements SyncBackend {
+    public static final int MAX_BATCH_SIZE = 500; // Firestore's limit of writes per batch
+
+    private final FirebaseFirestore firestore; // Target database
+    private final long timeoutMillis; // Maximum time to wait for the server to acknowledge a batch
+
+    public FirestoreSyncBackend(FirebaseFirestore firestore, long timeoutMillis) {
+        this.firestore = firestore;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Creates a backend talking to a local Firestore emulator, e.g. for integration tests.
+     *
+     * @param host          The emulator host, "10.0.2.2" from an Android emulator.
+     * @param port          The emulator port.
+     * @param timeoutMillis The acknowledgement timeout.
+     * @return A backend bound to the emulator.
+     */
+    public static FirestoreSyncBackend forEmulator(String host, int port, long timeoutMillis) {
+        FirebaseFirestore firestore = FirebaseFirestore.getInstance();
+        firestore.useEmulator(host, port);
+        return new FirestoreSyncBackend(firestore, timeoutMillis);
+    }
+
+    @Override
+    public void upload(List<SyncRecord> batch) throws Exception {
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch of " + batch.size() + " exceeds " + MAX_BATCH_SIZE);
+        }
+        WriteBatch writeBatch = firestore.batch();
+        for (SyncRecord record : batch) {
+            String collection = record.getType() == SyncRecord.Type.RESULT ? "results" : "telemetry";
+            writeBatch.set(firestore.collection("sessions").document(record.getSessionId())
+                    .collection(collection).document(record.getId()), record.toMap());
+        }
+        // Blocks the sync thread only; times out while offline and the syncer backs off
+        Tasks.await(writeBatch.commit(), timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
\ No newline at end of file
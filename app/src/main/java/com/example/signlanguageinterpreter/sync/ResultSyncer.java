@@ -0,0 +1,249 @@
+package com.example.signlanguageinterpreter.sync;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline-first sync of session results and telemetry. Callers only enqueue into an
+ * in-memory queue, which costs no I/O on the calling thread. A single sync thread moves
+ * pending records into the durable SyncQueue and uploads them in batches of at most
+ * batchSize records, whenever a batch is full or flushIntervalMillis has passed. Failed
+ * uploads are retried with exponential backoff and jitter; delivered batches are
+ * acknowledged and the queue compacted, so records survive restarts until delivered.
+ * Failures are reported to the Listener rather than logged here, so the class has no
+ * Android dependency.
+ */
+public class ResultSyncer implements Closeable {
+
+    /**
+     * Receives sync failures on the sync thread. Records are never lost by a failure; they are
+     * retried on a later tick.
+     */
+    public interface Listener {
+        // A batch upload failed; the next attempt is made after retryMillis
+        void onUploadFailed(int consecutiveFailures, long retryMillis, Exception error);
+
+        // Pending records could not be written to the durable queue and stay in memory
+        void onPersistFailed(IOException error);
+    }
+
+    private final SyncQueue queue; // Durable records not yet delivered
+    private final SyncBackend backend; // Destination of the batches
+    private final String sessionId; // Session the enqueued records belong to
+    private final int batchSize; // Maximum records per upload
+    private final long flushIntervalMillis; // Maximum time a record waits before an upload
+    private final long initialBackoffMillis; // Delay after the first failed upload
+    private final long maxBackoffMillis; // Upper bound of the retry delay
+    private final ConcurrentLinkedQueue<SyncRecord> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Seeded from the wall clock in microseconds, so a syncer reusing a session id continues
+    // past the sequence numbers of earlier runs instead of overwriting their documents
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private volatile Listener listener;
+    private ScheduledExecutorService executor;
+
+    // Only accessed on the sync thread
+    private int consecutiveFailures;
+    private long nextAttemptMillis;
+    private long lastFlushMillis;
+
+    /**
+     * Constructor for ResultSyncer.
+     *
+     * @param queue                The durable queue; may already hold records from earlier runs.
+     * @param backend              The backend receiving the batches.
+     * @param sessionId            The id of the current session.
+     * @param batchSize            The maximum number of records per upload.
+     * @param flushIntervalMillis  The maximum time between uploads while records are waiting.
+     * @param initialBackoffMillis The retry delay after the first failure.
+     * @param maxBackoffMillis     The maximum retry delay.
+     */
+    public ResultSyncer(SyncQueue queue, SyncBackend backend, String sessionId, int batchSize,
+                        long flushIntervalMillis, long initialBackoffMillis, long maxBackoffMillis) {
+        this.queue = queue;
+        this.backend = backend;
+        this.sessionId = sessionId;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Sets the listener notified of failed uploads and writes.
+     *
+     * @param listener The listener, or null.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the background sync thread.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-sync");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        long tick = Math.max(1, flushIntervalMillis / 4);
+        executor.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a recognition result for sync. Safe to call from any thread and never blocks.
+     */
+    public void enqueueResult(long timestampMillis, String label, int labelIndex, float confidence) {
+        enqueue(SyncRecord.result(sessionId, sequence.getAndIncrement(), timestampMillis,
+                label, labelIndex, confidence));
+    }
+
+    /**
+     * Queues a telemetry sample for sync. Safe to call from any thread and never blocks.
+     */
+    public void enqueueTelemetry(long timestampMillis, String metric, double value) {
+        enqueue(SyncRecord.telemetry(sessionId, sequence.getAndIncrement(), timestampMillis, metric, value));
+    }
+
+    private void enqueue(SyncRecord record) {
+        pending.offer(record);
+        // Wake the sync thread as soon as a full batch is waiting
+        if (pendingCount.incrementAndGet() == batchSize) {
+            ScheduledExecutorService current = executor;
+            if (current != null && !current.isShutdown()) {
+                current.execute(this::tick);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of records accepted but not yet delivered.
+     *
+     * @return The in-memory plus durable backlog.
+     */
+    public int getBacklog() {
+        return pendingCount.get() + queue.size();
+    }
+
+    /**
+     * Moves pending records to the durable queue and uploads as many batches as possible,
+     * stopping at the first failure. Called by the sync thread; tests may call it directly.
+     *
+     * @return The number of records delivered.
+     */
+    public int flush() {
+        try {
+            persistPending();
+        } catch (IOException e) {
+            reportPersistFailed(e);
+            return 0;
+        }
+        int delivered = 0;
+        try {
+            List<SyncRecord> batch;
+            while (!(batch = queue.peek(batchSize)).isEmpty()) {
+                backend.upload(batch);
+                queue.acknowledge(batch.size());
+                delivered += batch.size();
+            }
+            consecutiveFailures = 0;
+            nextAttemptMillis = 0;
+        } catch (Exception e) {
+            consecutiveFailures++;
+            long backoff = getBackoffMillis(consecutiveFailures);
+            nextAttemptMillis = System.currentTimeMillis() + backoff;
+            Listener current = listener;
+            if (current != null) {
+                current.onUploadFailed(consecutiveFailures, backoff, e);
+            }
+        }
+        lastFlushMillis = System.currentTimeMillis();
+        return delivered;
+    }
+
+    /**
+     * Returns the exponential retry delay after the given number of consecutive failures,
+     * with up to 20% jitter so many devices do not retry in lockstep.
+     *
+     * @param failures The number of consecutive failures, at least 1.
+     * @return The delay in milliseconds.
+     */
+    public long getBackoffMillis(int failures) {
+        long backoff = initialBackoffMillis << Math.min(failures - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMillis);
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        int waiting = pendingCount.get() + queue.size();
+        boolean due = waiting >= batchSize || (waiting > 0 && now - lastFlushMillis >= flushIntervalMillis);
+        if (!due) {
+            return;
+        }
+        if (now < nextAttemptMillis) {
+            // Backing off: keep records safe on disk but do not hit the backend
+            try {
+                persistPending();
+            } catch (IOException e) {
+                reportPersistFailed(e);
+            }
+            return;
+        }
+        flush();
+    }
+
+    private void reportPersistFailed(IOException error) {
+        Listener current = listener;
+        if (current != null) {
+            current.onPersistFailed(error);
+        }
+    }
+
+    private void persistPending() throws IOException {
+        List<SyncRecord> drained = new ArrayList<>();
+        SyncRecord record;
+        while ((record = pending.poll()) != null) {
+            drained.add(record);
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            queue.append(drained);
+        } catch (IOException e) {
+            // Put them back so nothing is lost; the next tick retries
+            pending.addAll(drained);
+            throw e;
+        }
+        pendingCount.addAndGet(-drained.size());
+    }
+
+    /**
+     * Stops the sync thread after a final attempt to persist and deliver the backlog. Returns
+     * right away, so it is safe on the main thread: the final flush runs on the sync thread,
+     * which exits once it is done. Whatever it cannot deliver stays in the durable queue.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.execute(this::flush);
+        executor.shutdown();
+        executor = null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.signlanguageinterpreter.sync;
+
+import java.util.List;
+
+/**
+ * Destination of synced records. Implementations are only called from the sync thread and
+ * may block; a batch counts as delivered only when upload returns normally.
+ */
+public interface SyncBackend {
+    void upload(List<SyncRecord> batch) throws Exception;
+}
\ No newline at end of file
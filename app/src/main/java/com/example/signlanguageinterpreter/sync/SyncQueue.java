@@ -0,0 +1,225 @@
+package com.example.signlanguageinterpreter.sync;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable FIFO of SyncRecords backed by an append-only file. Records are stored as
+ * length-prefixed entries; acknowledged entries are skipped by a persisted head offset and
+ * physically removed by compaction once enough of the file is dead. A torn entry at the end
+ * of the file, e.g. after a crash during append, is dropped when the queue is opened.
+ *
+ * Not thread safe: all calls are expected to come from the sync thread.
+ */
+public class SyncQueue {
+    private static final String DATA_FILE = "queue.dat";
+    private static final String HEAD_FILE = "queue.head";
+    private static final String COMPACT_FILE = "queue.compact";
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private final File directory; // Directory holding the queue files
+    private final File dataFile; // Length-prefixed records
+    private final File headFile; // Offset of the first unacknowledged record
+    private long head; // Offset of the first unacknowledged record
+    private long tail; // End of the last complete record
+    private int size; // Number of unacknowledged records
+
+    /**
+     * Opens or creates a queue in the given directory.
+     *
+     * @param directory The directory for the queue files; created if missing.
+     * @throws IOException If the queue cannot be opened.
+     */
+    public SyncQueue(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create sync queue directory " + directory);
+        }
+        this.directory = directory;
+        this.dataFile = new File(directory, DATA_FILE);
+        this.headFile = new File(directory, HEAD_FILE);
+        recover();
+    }
+
+    /**
+     * Appends records and syncs them to storage before returning.
+     *
+     * @param records The records to append.
+     * @throws IOException If the records cannot be written.
+     */
+    public void append(List<SyncRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream entry = new ByteArrayOutputStream(64);
+        DataOutputStream entryOut = new DataOutputStream(entry);
+        try (FileOutputStream fileOut = new FileOutputStream(dataFile, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            for (SyncRecord record : records) {
+                entry.reset();
+                record.writeTo(entryOut);
+                out.writeInt(entry.size());
+                entry.writeTo(out);
+            }
+            out.flush();
+            fileOut.getFD().sync();
+            tail += out.size();
+        }
+        size += records.size();
+    }
+
+    /**
+     * Reads up to maxRecords records from the head of the queue without removing them.
+     *
+     * @param maxRecords The maximum number of records to return.
+     * @return The records, oldest first.
+     * @throws IOException If the queue cannot be read.
+     */
+    public List<SyncRecord> peek(int maxRecords) throws IOException {
+        List<SyncRecord> records = new ArrayList<>();
+        if (size == 0) {
+            return records;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+            long position = head;
+            while (records.size() < maxRecords && position < tail) {
+                file.seek(position);
+                int length = file.readInt();
+                byte[] bytes = new byte[length];
+                file.readFully(bytes);
+                records.add(SyncRecord.readFrom(new DataInputStream(new ByteArrayInputStream(bytes))));
+                position += 4 + length;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Removes the given number of records from the head of the queue, compacting the file
+     * when most of it holds acknowledged records.
+     *
+     * @param count The number of records that were delivered.
+     * @throws IOException If the new head cannot be persisted.
+     */
+    public void acknowledge(int count) throws IOException {
+        if (count <= 0) {
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "r")) {
+            for (int i = 0; i < count && head < tail; i++) {
+                file.seek(head);
+                head += 4 + file.readInt();
+                size--;
+            }
+        }
+        if (head >= MIN_COMPACT_BYTES && head * 2 >= tail) {
+            compact();
+        } else {
+            writeHead();
+        }
+    }
+
+    /**
+     * Returns the number of records waiting to be delivered.
+     *
+     * @return The queue size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the queue file, including acknowledged records not yet compacted.
+     *
+     * @return The file size in bytes.
+     */
+    public long getFileBytes() {
+        return tail;
+    }
+
+    /**
+     * Rewrites the queue file without the acknowledged records. The new file is written
+     * next to the old one and renamed over it, so a crash leaves either version intact.
+     *
+     * @throws IOException If the compacted file cannot be written.
+     */
+    public void compact() throws IOException {
+        File compactFile = new File(directory, COMPACT_FILE);
+        try (RandomAccessFile in = new RandomAccessFile(dataFile, "r");
+             FileOutputStream out = new FileOutputStream(compactFile)) {
+            in.seek(head);
+            byte[] buffer = new byte[8192];
+            long remaining = tail - head;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+            out.getFD().sync();
+        }
+        // Reset the head first: a crash between the two steps then replays records, never loses them
+        long newTail = tail - head;
+        head = 0;
+        writeHead();
+        if (!compactFile.renameTo(dataFile)) {
+            throw new IOException("Cannot replace " + dataFile);
+        }
+        tail = newTail;
+    }
+
+    private void recover() throws IOException {
+        head = 0;
+        if (headFile.exists()) {
+            try (RandomAccessFile file = new RandomAccessFile(headFile, "r")) {
+                head = file.length() >= 8 ? file.readLong() : 0;
+            }
+        }
+        tail = 0;
+        size = 0;
+        if (!dataFile.exists()) {
+            head = 0;
+            return;
+        }
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+            long length = file.length();
+            head = Math.min(head, length);
+            long position = 0;
+            // Walk the entries to find the last complete one and count the pending ones
+            while (position + 4 <= length) {
+                file.seek(position);
+                int entryLength = file.readInt();
+                if (entryLength < 0 || position + 4 + entryLength > length) {
+                    break;
+                }
+                position += 4 + entryLength;
+                if (position > head) {
+                    size++;
+                }
+            }
+            if (position < length) {
+                file.setLength(position);
+            }
+            tail = position;
+            head = Math.min(head, tail);
+        }
+    }
+
+    private void writeHead() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(headFile, "rw")) {
+            file.seek(0);
+            file.writeLong(head);
+            file.getFD().sync();
+        }
+    }
+}
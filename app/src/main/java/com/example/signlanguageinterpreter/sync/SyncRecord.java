@@ -0,0 +1,126 @@
+package com.example.signlanguageinterpreter.sync;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A single result or telemetry sample waiting to be synced. Every record carries a per-session
+ * sequence number, so its document id is stable and a retried batch overwrites rather than
+ * duplicates what an earlier, unacknowledged attempt may already have written.
+ */
+public class SyncRecord {
+
+    /**
+     * The kind of data a record holds.
+     */
+    public enum Type {
+        RESULT,
+        TELEMETRY
+    }
+
+    private final Type type; // Result or telemetry
+    private final String sessionId; // Session the record belongs to
+    private final long sequence; // Position of the record within its session
+    private final long timestampMillis; // Wall clock time the record was created
+    private final String name; // Label for results, metric name for telemetry
+    private final int labelIndex; // Label index for results, -1 for telemetry
+    private final double value; // Confidence for results, metric value for telemetry
+
+    public SyncRecord(Type type, String sessionId, long sequence, long timestampMillis,
+                      String name, int labelIndex, double value) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.name = name;
+        this.labelIndex = labelIndex;
+        this.value = value;
+    }
+
+    public static SyncRecord result(String sessionId, long sequence, long timestampMillis,
+                                    String label, int labelIndex, float confidence) {
+        return new SyncRecord(Type.RESULT, sessionId, sequence, timestampMillis, label, labelIndex, confidence);
+    }
+
+    public static SyncRecord telemetry(String sessionId, long sequence, long timestampMillis,
+                                       String metric, double value) {
+        return new SyncRecord(Type.TELEMETRY, sessionId, sequence, timestampMillis, metric, -1, value);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLabelIndex() {
+        return labelIndex;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the stable document id of this record within its session.
+     *
+     * @return The id, unique per session and type.
+     */
+    public String getId() {
+        return type.name().toLowerCase(Locale.US) + "-" + sequence;
+    }
+
+    /**
+     * Returns the fields stored in the backend document.
+     *
+     * @return A new map of field names to values.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("timestamp", timestampMillis);
+        fields.put("sequence", sequence);
+        if (type == Type.RESULT) {
+            fields.put("label", name);
+            fields.put("labelIndex", labelIndex);
+            fields.put("confidence", value);
+        } else {
+            fields.put("metric", name);
+            fields.put("value", value);
+        }
+        return fields;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeUTF(sessionId);
+        out.writeLong(sequence);
+        out.writeLong(timestampMillis);
+        out.writeUTF(name);
+        out.writeInt(labelIndex);
+        out.writeDouble(value);
+    }
+
+    static SyncRecord readFrom(DataInput in) throws IOException {
+        Type type = Type.values()[in.readByte()];
+        return new SyncRecord(type, in.readUTF(), in.readLong(), in.readLong(),
+                in.readUTF(), in.readInt(), in.readDouble());
+    }
+}
\ No newline at end of file
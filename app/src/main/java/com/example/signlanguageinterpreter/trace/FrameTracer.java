@@ -0,0 +1,380 @@
+package com.example.signlanguageinterpreter.trace;
+
+import android.os.Trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-frame tracing of the live pipeline. Every camera frame gets an id, and each stage it passes
+ * through, from the copy out of the camera buffer to the last observer callback, is reported as a
+ * begin and end event carrying that id. Events become system trace sections for Perfetto or
+ * systrace, named by stage only so they never allocate, and optionally records in a compact
+ * binary file that TraceConverter turns into a Chrome trace timeline with one row per frame.
+ *
+ * Tracing is off until start is called; every entry point then returns after a single volatile
+ * read, so the calls stay compiled into production builds. Stages running on one thread for one
+ * frame at a time, such as inference inside the model, use the frame id of the enclosing section.
+ *
+ * File format, big-endian: "FTR1", a version int, then records starting with a kind byte.
+ * BEGIN and END are followed by the frame id (long), the stage ordinal (byte), the thread id
+ * (long) and the System.nanoTime timestamp (long), the monotonic clock system traces use;
+ * THREAD by the thread id (long), the name length (short) and the UTF-8 name.
+ */
+public final class FrameTracer implements Closeable {
+    public static final int MAGIC = 0x46545231; // "FTR1"
+    public static final int VERSION = 1;
+    public static final byte KIND_BEGIN = 0;
+    public static final byte KIND_END = 1;
+    public static final byte KIND_THREAD = 2;
+    public static final long NO_FRAME = -1;
+    private static final int EVENT_BYTES = 1 + 8 + 1 + 8 + 8;
+    private static final int MAX_NAME_BYTES = 64;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Stages of a frame, in pipeline order. The names are the trace section names.
+     */
+    public enum Stage {
+        // Copy out of the camera buffer, on the analysis thread
+        CAPTURE("frame-capture"),
+        // RGBA pixels into a Bitmap, for models that only consume Bitmaps
+        CONVERT("frame-convert"),
+        // The whole model call, enclosing the three stages below
+        CLASSIFY("frame-classify"),
+        // Rotation, scaling and normalization into the input tensor
+        PREPROCESS("frame-preprocess"),
+        // interpreter.run
+        INFERENCE("frame-inference"),
+        // Dequantization of the output tensor
+        POSTPROCESS("frame-postprocess"),
+        // Candidate model run on sampled frames
+        SHADOW("frame-shadow"),
+        // Formatting and notifying observers, on the dispatch thread
+        DISPATCH("frame-dispatch"),
+        // One observer callback
+        OBSERVER("frame-observer");
+
+        private final String sectionName;
+
+        Stage(String sectionName) {
+            this.sectionName = sectionName;
+        }
+
+        public String getSectionName() {
+            return sectionName;
+        }
+    }
+
+    /**
+     * Reports problems with the binary trace, which are otherwise only visible in the file.
+     * Called on the tracer's writer thread, or on the thread closing the tracer.
+     */
+    public interface Listener {
+        void onWriteFailed(IOException error);
+
+        void onClosed(long droppedEvents);
+    }
+
+    // Per-thread state, only touched while tracing and only valid for one tracer
+    private static final class ThreadState {
+        FrameTracer tracer; // Tracer the fields below belong to
+        long frameId = NO_FRAME; // Frame of the outermost open section on this thread
+        int depth; // Open sections with a frame id
+        boolean named; // Whether this thread's name was written to the tracer
+    }
+
+    private static volatile FrameTracer active; // Null while tracing is off
+    private static final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+        @Override
+        protected ThreadState initialValue() {
+            return new ThreadState();
+        }
+    };
+
+    private final boolean systemSections; // Whether to emit android.os.Trace sections
+    private final OutputStream out; // Binary trace, null if not written to disk
+    private final BlockingQueue<ByteBuffer> spareChunks; // Empty chunks; when none is left, events drop
+    private final ExecutorService writer;
+    private final AtomicLong dropped = new AtomicLong(); // Events lost because the writer was behind
+    private final Listener listener; // Null to ignore write failures
+    private ByteBuffer chunk; // Chunk being filled, guarded by this
+    private IOException writeError;
+
+    private FrameTracer(OutputStream out, boolean systemSections, int chunkBytes, int chunks, Listener listener) {
+        this.out = out;
+        this.systemSections = systemSections;
+        this.listener = listener;
+        if (out == null) {
+            spareChunks = null;
+            writer = null;
+            return;
+        }
+        spareChunks = new ArrayBlockingQueue<>(chunks);
+        for (int i = 1; i < chunks; i++) {
+            spareChunks.add(ByteBuffer.allocate(chunkBytes));
+        }
+        chunk = ByteBuffer.allocate(chunkBytes);
+        chunk.putInt(MAGIC).putInt(VERSION);
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "frame-tracer");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts tracing, replacing any running tracer, which is closed.
+     *
+     * @param file           The binary trace to write, or null for trace sections only.
+     * @param systemSections Whether to emit android.os.Trace sections.
+     * @return The running tracer; close it, or call stop, to finish the file.
+     * @throws IOException If the file cannot be created.
+     */
+    public static FrameTracer start(File file, boolean systemSections) throws IOException {
+        return start(file, systemSections, null);
+    }
+
+    /**
+     * Starts tracing, replacing any running tracer, which is closed.
+     *
+     * @param file           The binary trace to write, or null for trace sections only.
+     * @param systemSections Whether to emit android.os.Trace sections.
+     * @param listener       Told about write failures and dropped events, or null.
+     * @return The running tracer; close it, or call stop, to finish the file.
+     * @throws IOException If the file cannot be created.
+     */
+    public static synchronized FrameTracer start(File file, boolean systemSections, Listener listener)
+            throws IOException {
+        FrameTracer tracer = new FrameTracer(file != null ? new FileOutputStream(file) : null,
+                systemSections, 64 * 1024, 4, listener);
+        FrameTracer previous = active;
+        active = tracer;
+        if (previous != null) {
+            previous.close();
+        }
+        return tracer;
+    }
+
+    /**
+     * Stops tracing and finishes the binary trace, if any.
+     */
+    public static synchronized void stop() {
+        FrameTracer tracer = active;
+        if (tracer != null) {
+            tracer.close();
+        }
+    }
+
+    /**
+     * Returns whether tracing is on. Lets callers skip work that only feeds the trace.
+     *
+     * @return True while a tracer is running.
+     */
+    public static boolean isEnabled() {
+        return active != null;
+    }
+
+    /**
+     * Opens a stage of a frame on the calling thread. Stages nested inside it on the same thread
+     * may omit the frame id.
+     *
+     * @param stage   The stage.
+     * @param frameId The frame's id.
+     */
+    public static void begin(Stage stage, long frameId) {
+        FrameTracer tracer = active;
+        if (tracer == null) {
+            return;
+        }
+        ThreadState state = stateFor(tracer);
+        if (state.depth++ == 0) {
+            state.frameId = frameId;
+        }
+        tracer.event(KIND_BEGIN, stage, frameId, state);
+    }
+
+    /**
+     * Opens a stage of the frame whose section is open on the calling thread, e.g. inside the
+     * model, which does not know frame ids.
+     *
+     * @param stage The stage.
+     */
+    public static void begin(Stage stage) {
+        FrameTracer tracer = active;
+        if (tracer == null) {
+            return;
+        }
+        ThreadState state = stateFor(tracer);
+        tracer.event(KIND_BEGIN, stage, state.depth > 0 ? state.frameId : NO_FRAME, state);
+    }
+
+    /**
+     * Closes a stage opened with begin(stage, frameId).
+     *
+     * @param stage   The stage.
+     * @param frameId The frame's id.
+     */
+    public static void end(Stage stage, long frameId) {
+        FrameTracer tracer = active;
+        if (tracer == null) {
+            return;
+        }
+        ThreadState state = stateFor(tracer);
+        tracer.event(KIND_END, stage, frameId, state);
+        if (state.depth > 0 && --state.depth == 0) {
+            state.frameId = NO_FRAME;
+        }
+    }
+
+    /**
+     * Closes a stage opened with begin(stage).
+     *
+     * @param stage The stage.
+     */
+    public static void end(Stage stage) {
+        FrameTracer tracer = active;
+        if (tracer == null) {
+            return;
+        }
+        ThreadState state = stateFor(tracer);
+        tracer.event(KIND_END, stage, state.depth > 0 ? state.frameId : NO_FRAME, state);
+    }
+
+    // Sections still counted from an earlier tracer, or opened while tracing was off, are forgotten
+    private static ThreadState stateFor(FrameTracer tracer) {
+        ThreadState state = threadState.get();
+        if (state.tracer != tracer) {
+            state.tracer = tracer;
+            state.frameId = NO_FRAME;
+            state.depth = 0;
+            state.named = false;
+        }
+        return state;
+    }
+
+    // Events lost because the disk writer fell behind
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void event(byte kind, Stage stage, long frameId, ThreadState state) {
+        if (systemSections) {
+            if (kind == KIND_BEGIN) {
+                Trace.beginSection(stage.sectionName);
+            } else {
+                Trace.endSection();
+            }
+        }
+        if (out == null) {
+            return;
+        }
+        long timestampNanos = System.nanoTime();
+        Thread thread = Thread.currentThread();
+        synchronized (this) {
+            if (chunk == null) {
+                return;
+            }
+            if (!state.named) {
+                byte[] name = thread.getName().getBytes(UTF_8);
+                int length = Math.min(name.length, MAX_NAME_BYTES);
+                if (!reserve(1 + 8 + 2 + length + EVENT_BYTES)) {
+                    return;
+                }
+                chunk.put(KIND_THREAD).putLong(thread.getId()).putShort((short) length).put(name, 0, length);
+                state.named = true;
+            } else if (!reserve(EVENT_BYTES)) {
+                return;
+            }
+            chunk.put(kind).putLong(frameId).put((byte) stage.ordinal()).putLong(thread.getId()).putLong(timestampNanos);
+        }
+    }
+
+    // Makes room in the current chunk, handing a full one to the writer; false drops the event
+    private boolean reserve(int bytes) {
+        if (chunk.remaining() >= bytes) {
+            return true;
+        }
+        ByteBuffer next = spareChunks.poll();
+        if (next == null) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        ByteBuffer full = chunk;
+        chunk = next;
+        writer.execute(() -> write(full));
+        return true;
+    }
+
+    // Runs on the writer thread
+    private void write(ByteBuffer full) {
+        try {
+            out.write(full.array(), 0, full.position());
+        } catch (IOException e) {
+            boolean first;
+            synchronized (this) {
+                first = writeError == null;
+                if (first) {
+                    writeError = e;
+                }
+            }
+            // Only the first failure is reported; the rest of the file is lost anyway
+            if (first && listener != null) {
+                listener.onWriteFailed(e);
+            }
+        }
+        full.clear();
+        spareChunks.offer(full);
+    }
+
+    /**
+     * Stops tracing if this tracer is running and finishes the binary trace.
+     */
+    @Override
+    public void close() {
+        synchronized (FrameTracer.class) {
+            if (active == this) {
+                active = null;
+            }
+        }
+        if (out == null) {
+            return;
+        }
+        ByteBuffer last;
+        synchronized (this) {
+            last = chunk;
+            chunk = null;
+        }
+        if (last == null) {
+            return;
+        }
+        writer.execute(() -> write(last));
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (listener != null) {
+                listener.onWriteFailed(e);
+            }
+        }
+        if (listener != null) {
+            listener.onClosed(dropped.get());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.signlanguageinterpreter.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts a binary FrameTracer trace into the Chrome trace event JSON format, which opens in
+ * chrome://tracing and ui.perfetto.dev. Stage sections appear on the thread they ran on, and every
+ * frame gets an async row spanning its first to its last event, so slow frames stand out and
+ * their stages can be followed across threads. Runs on a plain JVM, see main.
+ */
+public class TraceConverter {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int PID = 1; // The trace covers one process
+
+    /**
+     * Converts a binary trace. A record torn off at the end, e.g. by a crash, is ignored.
+     *
+     * @param in  The binary trace.
+     * @param out Receives the JSON.
+     * @return The number of stage events converted.
+     * @throws IOException If the trace is not a FrameTracer trace or cannot be read or written.
+     */
+    public static int convert(InputStream in, Writer out) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != FrameTracer.MAGIC) {
+            throw new IOException("Not a frame trace");
+        }
+        int version = data.readInt();
+        if (version != FrameTracer.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        FrameTracer.Stage[] stages = FrameTracer.Stage.values();
+        Map<Long, long[]> frameSpans = new LinkedHashMap<>(); // Frame id to first and last timestamp
+        int events = 0;
+        boolean first = true;
+        out.write("{\"traceEvents\":[\n");
+        try {
+            while (true) {
+                int kind = data.read();
+                if (kind < 0) {
+                    break;
+                }
+                if (kind == FrameTracer.KIND_THREAD) {
+                    long threadId = data.readLong();
+                    byte[] name = new byte[data.readShort()];
+                    data.readFully(name);
+                    first = separate(out, first);
+                    out.write(String.format(Locale.US,
+                            "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":%d,\"tid\":%d,\"args\":{\"name\":\"%s\"}}",
+                            PID, threadId, escape(new String(name, UTF_8))));
+                    continue;
+                }
+                if (kind != FrameTracer.KIND_BEGIN && kind != FrameTracer.KIND_END) {
+                    throw new IOException("Unknown record kind " + kind);
+                }
+                long frameId = data.readLong();
+                int stage = data.readUnsignedByte();
+                long threadId = data.readLong();
+                long timestampNanos = data.readLong();
+                String name = stage < stages.length ? stages[stage].getSectionName() : "stage-" + stage;
+                first = separate(out, first);
+                out.write(String.format(Locale.US,
+                        "{\"name\":\"%s\",\"ph\":\"%s\",\"ts\":%.3f,\"pid\":%d,\"tid\":%d,\"args\":{\"frame\":%d}}",
+                        name, kind == FrameTracer.KIND_BEGIN ? "B" : "E", timestampNanos / 1000.0,
+                        PID, threadId, frameId));
+                events++;
+                if (frameId != FrameTracer.NO_FRAME) {
+                    long[] span = frameSpans.get(frameId);
+                    if (span == null) {
+                        frameSpans.put(frameId, new long[]{timestampNanos, timestampNanos});
+                    } else {
+                        span[0] = Math.min(span[0], timestampNanos);
+                        span[1] = Math.max(span[1], timestampNanos);
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            // Torn last record
+        }
+        for (Map.Entry<Long, long[]> frame : frameSpans.entrySet()) {
+            long[] span = frame.getValue();
+            for (int i = 0; i < 2; i++) {
+                first = separate(out, first);
+                out.write(String.format(Locale.US,
+                        "{\"name\":\"frame %d\",\"cat\":\"frame\",\"ph\":\"%s\",\"id\":%d,\"ts\":%.3f,\"pid\":%d,\"tid\":0}",
+                        frame.getKey(), i == 0 ? "b" : "e", frame.getKey(), span[i] / 1000.0, PID));
+            }
+        }
+        out.write("\n]}\n");
+        out.flush();
+        return events;
+    }
+
+    private static boolean separate(Writer out, boolean first) throws IOException {
+        if (!first) {
+            out.write(",\n");
+        }
+        return false;
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format(Locale.US, "\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Converts a trace pulled from a device: {@code TraceConverter <trace.bin> <trace.json>}
+     *
+     * @param args The command line arguments.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TraceConverter <trace.bin> <trace.json>");
+            System.exit(2);
+        }
+        try (InputStream in = new FileInputStream(args[0]);
+             Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), UTF_8))) {
+            int events = convert(in, out);
+            System.out.println(events + " events written to " + args[1]);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.signlanguageinterpreter.transcript;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Append-only session transcript stored as fixed-size binary records in memory-mapped
+ * segment files. Each segment is preallocated and mapped once, so appending a record is a
+ * plain memory write with no system call; a new segment is only created when the current
+ * one is full. Every segment has a sparse index file holding the timestamp of every
+ * indexInterval-th record, which TranscriptReader uses to seek in O(log n).
+ *
+ * Segment layout: a HEADER_SIZE header followed by RECORD_SIZE records of
+ * (long timestampNanos, int labelIndex, float confidence, int trackId).
+ * Timestamps are kept non-decreasing so the log stays searchable.
+ */
+public class TranscriptLog implements Closeable {
+    static final int MAGIC = 0x534C5452; // "SLTR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 20;
+    static final int INDEX_ENTRY_SIZE = 8;
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+
+    // Header field offsets
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_CAPACITY = 8;
+    static final int OFFSET_INDEX_INTERVAL = 12;
+    static final int OFFSET_COUNT = 16;
+    static final int OFFSET_FIRST_TIMESTAMP = 24;
+
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 64 * 1024; // About 36 minutes at 30 records/s
+    public static final int DEFAULT_INDEX_INTERVAL = 64;
+
+    private final File directory; // Directory holding this session's segments
+    private final int recordsPerSegment; // Capacity of each segment
+    private final int indexInterval; // Records between two sparse index entries
+    private int segmentNumber = -1; // Number of the segment being written
+    private MappedByteBuffer data; // Mapped records of the current segment
+    private MappedByteBuffer index; // Mapped sparse index of the current segment
+    private int count; // Records in the current segment
+    private long lastTimestamp = Long.MIN_VALUE;
+    private boolean closed;
+
+    /**
+     * Opens or creates a transcript log with the default segment size and index interval.
+     *
+     * @param directory The session directory; created if missing.
+     * @throws IOException If the directory or a segment cannot be created.
+     */
+    public TranscriptLog(File directory) throws IOException {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_INDEX_INTERVAL);
+    }
+
+    /**
+     * Opens or creates a transcript log. If the directory already holds segments, appending
+     * continues after the last record written.
+     *
+     * @param directory         The session directory; created if missing.
+     * @param recordsPerSegment The number of records per segment file.
+     * @param indexInterval     The number of records between sparse index entries.
+     * @throws IOException If the directory or a segment cannot be created.
+     */
+    public TranscriptLog(File directory, int recordsPerSegment, int indexInterval) throws IOException {
+        if (recordsPerSegment <= 0 || indexInterval <= 0) {
+            throw new IllegalArgumentException("Segment size and index interval must be positive");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create transcript directory " + directory);
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.indexInterval = indexInterval;
+
+        File[] existing = TranscriptReader.listSegments(directory);
+        if (existing.length > 0) {
+            resume(existing.length - 1);
+        } else {
+            openSegment(0);
+        }
+    }
+
+    /**
+     * Appends one record. This is a memory write into the mapped segment unless the segment
+     * is full, in which case the next segment is created first.
+     *
+     * @param timestampNanos The record time; clamped so timestamps never decrease.
+     * @param labelIndex     The recognized label index.
+     * @param confidence     The confidence of the label.
+     * @param trackId        The id of the tracked hand.
+     * @throws IOException If a new segment cannot be created.
+     */
+    public synchronized void append(long timestampNanos, int labelIndex, float confidence, int trackId)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Transcript log is closed");
+        }
+        if (count == recordsPerSegment) {
+            openSegment(segmentNumber + 1);
+        }
+        long timestamp = Math.max(timestampNanos, lastTimestamp);
+        int position = HEADER_SIZE + count * RECORD_SIZE;
+        data.putLong(position, timestamp);
+        data.putInt(position + 8, labelIndex);
+        data.putFloat(position + 12, confidence);
+        data.putInt(position + 16, trackId);
+        if (count % indexInterval == 0) {
+            index.putLong((count / indexInterval) * INDEX_ENTRY_SIZE, timestamp);
+        }
+        if (count == 0) {
+            data.putLong(OFFSET_FIRST_TIMESTAMP, timestamp);
+        }
+        // Publish the record only after its bytes are in place
+        count++;
+        data.putInt(OFFSET_COUNT, count);
+        lastTimestamp = timestamp;
+    }
+
+    /**
+     * Returns the directory this log writes to.
+     *
+     * @return The session directory.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Flushes the mapped pages of the current segment to storage.
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            data.force();
+            index.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        data = null;
+        index = null;
+    }
+
+    private void resume(int lastSegment) throws IOException {
+        segmentNumber = lastSegment;
+        data = map(segmentFile(directory, lastSegment), segmentSize(readCapacity(lastSegment)));
+        if (data.getInt(OFFSET_MAGIC) != MAGIC) {
+            throw new IOException("Not a transcript segment: " + segmentFile(directory, lastSegment));
+        }
+        int capacity = data.getInt(OFFSET_CAPACITY);
+        int interval = data.getInt(OFFSET_INDEX_INTERVAL);
+        index = map(indexFile(directory, lastSegment), indexSize(capacity, interval));
+        count = data.getInt(OFFSET_COUNT);
+        if (count > 0) {
+            lastTimestamp = data.getLong(HEADER_SIZE + (count - 1) * RECORD_SIZE);
+        }
+        if (capacity != recordsPerSegment || interval != indexInterval) {
+            // Keep old segments readable but write new ones with the requested layout
+            openSegment(lastSegment + 1);
+        }
+    }
+
+    private int readCapacity(int segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(directory, segment), "r")) {
+            file.seek(OFFSET_CAPACITY);
+            return Integer.reverseBytes(file.readInt());
+        }
+    }
+
+    private void openSegment(int number) throws IOException {
+        if (data != null) {
+            data.force();
+            index.force();
+        }
+        segmentNumber = number;
+        count = 0;
+        data = map(segmentFile(directory, number), segmentSize(recordsPerSegment));
+        index = map(indexFile(directory, number), indexSize(recordsPerSegment, indexInterval));
+        data.putInt(OFFSET_MAGIC, MAGIC);
+        data.putInt(OFFSET_VERSION, VERSION);
+        data.putInt(OFFSET_CAPACITY, recordsPerSegment);
+        data.putInt(OFFSET_INDEX_INTERVAL, indexInterval);
+        data.putInt(OFFSET_COUNT, 0);
+    }
+
+    static long segmentSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+    }
+
+    static long indexSize(int capacity, int interval) {
+        return (long) ((capacity + interval - 1) / interval) * INDEX_ENTRY_SIZE;
+    }
+
+    static File segmentFile(File directory, int number) {
+        return new File(directory, String.format(Locale.US, "%08d", number) + SEGMENT_SUFFIX);
+    }
+
+    static File indexFile(File directory, int number) {
+        return new File(directory, String.format(Locale.US, "%08d", number) + INDEX_SUFFIX);
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        // The mapping stays valid after the channel is closed, so no descriptor is held open
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+}
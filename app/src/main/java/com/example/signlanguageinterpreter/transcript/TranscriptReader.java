@@ -0,0 +1,239 @@
+package com.example.signlanguageinterpreter.transcript;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only view of a TranscriptLog directory. Segments are mapped read-only and records
+ * are addressed by a global position across all segments. Seeking by time first binary
+ * searches the segments by their first timestamp, then the segment's sparse index, and then
+ * scans at most one index interval of records.
+ */
+public class TranscriptReader implements Closeable {
+
+    /**
+     * Receives records during replay without allocating an object per record.
+     */
+    public interface RecordVisitor {
+        void visit(long timestampNanos, int labelIndex, float confidence, int trackId);
+    }
+
+    private static class Segment {
+        MappedByteBuffer data;
+        MappedByteBuffer index;
+        int count;
+        int indexInterval;
+        long firstTimestamp;
+        long startPosition; // Global position of the segment's first record
+    }
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final long recordCount;
+
+    /**
+     * Opens all segments in a transcript directory. Records appended after this call are
+     * not visible; open a new reader to see them.
+     *
+     * @param directory The session directory written by a TranscriptLog.
+     * @throws IOException If a segment cannot be read or is not a transcript segment.
+     */
+    public TranscriptReader(File directory) throws IOException {
+        long position = 0;
+        for (File file : listSegments(directory)) {
+            Segment segment = new Segment();
+            segment.data = map(file, file.length());
+            if (segment.data.getInt(TranscriptLog.OFFSET_MAGIC) != TranscriptLog.MAGIC) {
+                throw new IOException("Not a transcript segment: " + file);
+            }
+            segment.count = segment.data.getInt(TranscriptLog.OFFSET_COUNT);
+            if (segment.count == 0) {
+                continue;
+            }
+            String name = file.getName();
+            File indexFile = new File(directory,
+                    name.substring(0, name.length() - TranscriptLog.SEGMENT_SUFFIX.length()) + TranscriptLog.INDEX_SUFFIX);
+            segment.index = map(indexFile, indexFile.length());
+            segment.indexInterval = segment.data.getInt(TranscriptLog.OFFSET_INDEX_INTERVAL);
+            segment.firstTimestamp = segment.data.getLong(TranscriptLog.OFFSET_FIRST_TIMESTAMP);
+            segment.startPosition = position;
+            position += segment.count;
+            segments.add(segment);
+        }
+        recordCount = position;
+    }
+
+    /**
+     * Returns the total number of records across all segments.
+     *
+     * @return The record count.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Finds the position of the first record at or after the given time.
+     *
+     * @param timestampNanos The time to seek to.
+     * @return The global record position, or getRecordCount() if all records are earlier.
+     */
+    public long seek(long timestampNanos) {
+        // Last segment starting before the target; earlier segments cannot hold it
+        int low = 0;
+        int high = segments.size() - 1;
+        int segmentIndex = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).firstTimestamp < timestampNanos) {
+                segmentIndex = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        for (int i = segmentIndex; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            int offset = seekInSegment(segment, timestampNanos);
+            if (offset < segment.count) {
+                return segment.startPosition + offset;
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Reads the record at a global position.
+     *
+     * @param position The position, from 0 to getRecordCount() - 1.
+     * @return The record.
+     */
+    public TranscriptRecord read(long position) {
+        Segment segment = segments.get(segmentIndexAt(position));
+        int base = recordOffset((int) (position - segment.startPosition));
+        return new TranscriptRecord(segment.data.getLong(base), segment.data.getInt(base + 8),
+                segment.data.getFloat(base + 12), segment.data.getInt(base + 16));
+    }
+
+    /**
+     * Visits every record with fromNanos <= timestamp < toNanos, in order.
+     *
+     * @param fromNanos The inclusive start time.
+     * @param toNanos   The exclusive end time.
+     * @param visitor   The visitor receiving the records.
+     * @return The number of records visited.
+     */
+    public long replay(long fromNanos, long toNanos, RecordVisitor visitor) {
+        long visited = 0;
+        long position = seek(fromNanos);
+        int segmentIndex = position >= recordCount ? segments.size() : segmentIndexAt(position);
+        for (int i = segmentIndex; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            int start = i == segmentIndex ? (int) (position - segment.startPosition) : 0;
+            for (int r = start; r < segment.count; r++) {
+                int base = recordOffset(r);
+                long timestamp = segment.data.getLong(base);
+                if (timestamp >= toNanos) {
+                    return visited;
+                }
+                visitor.visit(timestamp, segment.data.getInt(base + 8),
+                        segment.data.getFloat(base + 12), segment.data.getInt(base + 16));
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Collects the records in a time range, optionally filtered by label.
+     *
+     * @param fromNanos  The inclusive start time.
+     * @param toNanos    The exclusive end time.
+     * @param labelIndex The label to keep, or -1 to keep all labels.
+     * @return The matching records in time order.
+     */
+    public List<TranscriptRecord> search(long fromNanos, long toNanos, int labelIndex) {
+        List<TranscriptRecord> results = new ArrayList<>();
+        replay(fromNanos, toNanos, (timestamp, label, confidence, trackId) -> {
+            if (labelIndex < 0 || label == labelIndex) {
+                results.add(new TranscriptRecord(timestamp, label, confidence, trackId));
+            }
+        });
+        return results;
+    }
+
+    @Override
+    public void close() {
+        // Mappings are released when the buffers become unreachable
+        segments.clear();
+    }
+
+    private int seekInSegment(Segment segment, long timestampNanos) {
+        // Last index entry strictly before the target, then scan forward within one interval
+        int entries = (segment.count + segment.indexInterval - 1) / segment.indexInterval;
+        int low = 0;
+        int high = entries - 1;
+        int entry = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segment.index.getLong(mid * TranscriptLog.INDEX_ENTRY_SIZE) < timestampNanos) {
+                entry = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int record = entry * segment.indexInterval;
+        while (record < segment.count && segment.data.getLong(recordOffset(record)) < timestampNanos) {
+            record++;
+        }
+        return record;
+    }
+
+    private int segmentIndexAt(long position) {
+        if (position < 0 || position >= recordCount) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + recordCount);
+        }
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments.get(mid).startPosition <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static int recordOffset(int record) {
+        return TranscriptLog.HEADER_SIZE + record * TranscriptLog.RECORD_SIZE;
+    }
+
+    static File[] listSegments(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(TranscriptLog.SEGMENT_SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        // Zero-padded names sort in segment order
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.signlanguageinterpreter.transcript;
+
+/**
+ * A single record read back from a TranscriptLog.
+ */
+public class TranscriptRecord {
+    private final long timestampNanos; // Frame time on the elapsedRealtimeNanos timebase
+    private final int labelIndex; // Index of the recognized label
+    private final float confidence; // Confidence of the label
+    private final int trackId; // Id of the tracked hand
+
+    public TranscriptRecord(long timestampNanos, int labelIndex, float confidence, int trackId) {
+        this.timestampNanos = timestampNanos;
+        this.labelIndex = labelIndex;
+        this.confidence = confidence;
+        this.trackId = trackId;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public int getLabelIndex() {
+        return labelIndex;
+    }
+
+    public float getConfidence() {
+        return confidence;
+    }
+
+    public int getTrackId() {
+        return trackId;
+    }
+
+    @Override
+    public String toString() {
+        return timestampNanos + " " + labelIndex + " " + confidence + " " + trackId;
+    }
+}
\ No newline at end of file
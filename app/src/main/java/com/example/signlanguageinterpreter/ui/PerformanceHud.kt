@@ -0,0 +1,30 @@
+package com.example.signlanguageinterpreter.ui
+
+import androidx.compose.foundation.background
+import androidx.compose.foundation.layout.padding
+import androidx.compose.material3.Text
+import androidx.compose.runtime.Composable
+import androidx.compose.ui.Modifier
+import androidx.compose.ui.graphics.Color
+import androidx.compose.ui.text.font.FontFamily
+import androidx.compose.ui.unit.dp
+import androidx.compose.ui.unit.sp
+
+// Overlay of the PerformanceHudObserver text; nothing is drawn while the HUD is off. The text is
+// read here, so a new sample only recomposes the overlay and not the screen hosting it
+@Composable
+fun PerformanceHud(text: () -> String, modifier: Modifier = Modifier) {
+    val current = text()
+    if (current.isEmpty()) {
+        return
+    }
+    Text(
+        text = current,
+        modifier = modifier
+            .background(Color.Black.copy(alpha = 0.6f))
+            .padding(8.dp),
+        color = Color.White,
+        fontFamily = FontFamily.Monospace,
+        fontSize = 11.sp
+    )
+}
@@ -0,0 +1,80 @@
+package com.example.signlanguageinterpreter.ui
+
+import android.os.Handler
+import android.os.Looper
+import android.view.Choreographer
+import androidx.compose.material3.MaterialTheme
+import androidx.compose.material3.Text
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.mutableStateOf
+import androidx.compose.runtime.setValue
+import androidx.compose.ui.Modifier
+import com.example.signlanguageinterpreter.observer.Observer
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Compose state of the live result display, fed by the facade as an Observer. Results arrive
+ * from the dispatch thread at the analysis rate; only the newest one is kept and it is copied
+ * into snapshot state from a Choreographer frame callback, so the UI recomposes at most once
+ * per display refresh and only the composables that read the text.
+ */
+class ResultState : Observer {
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val pendingText = AtomicReference<String?>() // Newest result not yet shown
+    private val pendingWord = AtomicReference<String?>() // Newest decoded word not yet shown
+    private val frameScheduled = AtomicBoolean() // Whether a frame callback is already posted
+
+    // Latest result line, e.g. the top labels of the last frame
+    var text by mutableStateOf("")
+        private set
+
+    // Latest word decoded from fingerspelling
+    var word by mutableStateOf("")
+        private set
+
+    private val frameCallback = Choreographer.FrameCallback {
+        // Clear the flag first so a result arriving during this frame schedules the next one
+        frameScheduled.set(false)
+        pendingText.getAndSet(null)?.let { text = it }
+        pendingWord.getAndSet(null)?.let { word = it }
+    }
+
+    override fun update(result: String) {
+        publish(pendingText, result)
+    }
+
+    override fun onPhotoCaptured(photoPath: String) {
+        publish(pendingText, "Photo saved at: $photoPath")
+    }
+
+    override fun onVideoCaptured(videoPath: String) {
+        publish(pendingText, "Video saved at: $videoPath")
+    }
+
+    override fun onWord(word: String, confidence: Float) {
+        publish(pendingWord, word)
+    }
+
+    private fun publish(slot: AtomicReference<String?>, value: String) {
+        slot.set(value)
+        if (!frameScheduled.compareAndSet(false, true)) {
+            // The next frame callback picks up the newest value
+            return
+        }
+        // The Choreographer is per looper, so the callback is always posted from the main thread
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(frameCallback)
+        } else {
+            mainHandler.post { Choreographer.getInstance().postFrameCallback(frameCallback) }
+        }
+    }
+}
+
+// Reads only the result state, so a new result recomposes this text and nothing else
+@Composable
+fun ResultText(state: ResultState, modifier: Modifier = Modifier) {
+    val line = if (state.word.isEmpty()) state.text else "${state.text}\n${state.word}"
+    Text(text = line, modifier = modifier, style = MaterialTheme.typography.bodyLarge)
+}
@@ -0,0 +1,79 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.pool.BufferPool;
+import com.example.signlanguageinterpreter.pool.Lease;
+import com.example.signlanguageinterpreter.pool.SizeClassPool;
+
+import java.nio.ByteBuffer;
+
+public class BufferPoolTest {
+
+    @Test
+    public void testSizeClassesAreRoundedUpToPowersOfTwo() {
+        assertEquals(0, SizeClassPool.sizeClassOf(1));
+        assertEquals(0, SizeClassPool.sizeClassOf(4096));
+        assertEquals(1, SizeClassPool.sizeClassOf(4097));
+        assertEquals(8192, SizeClassPool.classBytes(1));
+        assertEquals(SizeClassPool.MAX_CLASS_BYTES, SizeClassPool.classBytes(SizeClassPool.sizeClassOf(SizeClassPool.MAX_CLASS_BYTES)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequestsAboveLargestClassAreRejected() {
+        SizeClassPool.sizeClassOf(SizeClassPool.MAX_CLASS_BYTES + 1);
+    }
+
+    @Test
+    public void testBufferIsReusedWithinSizeClass() {
+        BufferPool pool = new BufferPool(1 << 20, false, false);
+        Lease<ByteBuffer> first = pool.lease(5000);
+        ByteBuffer buffer = first.get();
+        assertEquals(5000, buffer.limit());
+        assertEquals(8192, buffer.capacity());
+        first.close();
+
+        Lease<ByteBuffer> second = pool.lease(6000);
+        assertSame(buffer, second.get());
+        assertEquals(0, second.get().position());
+        assertEquals(6000, second.get().limit());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+        second.close();
+
+        // A different size class never receives the idle buffer
+        Lease<ByteBuffer> larger = pool.lease(9000);
+        assertNotSame(buffer, larger.get());
+        larger.close();
+    }
+
+    @Test
+    public void testIdleBuffersStayWithinBudget() {
+        BufferPool pool = new BufferPool(8192, false, false);
+        Lease<ByteBuffer> first = pool.lease(8192);
+        Lease<ByteBuffer> second = pool.lease(8192);
+        first.close();
+        second.close();
+        assertEquals(8192, pool.getRetainedBytes());
+        assertEquals(1, pool.getDiscardedCount());
+
+        pool.clear();
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void testClosingTwiceReturnsBufferOnce() {
+        BufferPool pool = new BufferPool(1 << 20, false, false);
+        Lease<ByteBuffer> lease = pool.lease(100);
+        lease.close();
+        lease.close();
+        assertEquals(4096, pool.getRetainedBytes());
+        try {
+            lease.get();
+            fail("A closed lease must not hand out its buffer");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import android.graphics.Bitmap;
+
+import com.example.signlanguageinterpreter.model.CascadeModel;
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CascadeModelTest {
+
+    private static final List<String> LABELS = Arrays.asList("A", "B", "C");
+
+    // Returns queued score vectors instead of running an interpreter
+    private static class FakeStage extends TensorFlowModel {
+        private final float[][] outputs;
+        private int next;
+        boolean closed;
+
+        FakeStage(float[]... outputs) {
+            super(null, LABELS);
+            this.outputs = outputs;
+        }
+
+        @Override
+        public synchronized float[] classifyScores(Bitmap bitmap, int rotation) {
+            return outputs[next++ % outputs.length];
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testTopMargin() {
+        assertEquals(0.5f, CascadeModel.topMargin(new float[]{0.2f, 0.7f, 0.1f}), 1e-6f);
+        assertEquals(0f, CascadeModel.topMargin(new float[]{0.4f, 0.4f, 0.2f}), 1e-6f);
+        assertEquals(0.9f, CascadeModel.topMargin(new float[]{0.9f}), 1e-6f);
+    }
+
+    @Test
+    public void testConfidentSmallModelSkipsLargeModel() {
+        float[] confident = {0.9f, 0.05f, 0.05f};
+        float[] ambiguous = {0.45f, 0.4f, 0.15f};
+        float[] large = {0.1f, 0.8f, 0.1f};
+        FakeStage small = new FakeStage(confident, confident, ambiguous, confident);
+        FakeStage big = new FakeStage(large);
+        CascadeModel cascade = new CascadeModel(Arrays.<TensorFlowModel>asList(small, big),
+                Arrays.asList("small.tflite", "large.tflite"), new float[]{0.3f});
+
+        assertArrayEquals(confident, cascade.classifyScores(null, 0), 0f);
+        assertArrayEquals(confident, cascade.classifyScores(null, 0), 0f);
+        assertArrayEquals(large, cascade.classifyScores(null, 0), 0f);
+        assertArrayEquals(confident, cascade.classifyScores(null, 0), 0f);
+
+        CascadeModel.StageStats smallStats = cascade.getStageStats().get(0);
+        CascadeModel.StageStats largeStats = cascade.getStageStats().get(1);
+        assertEquals(4, smallStats.getInvocations());
+        assertEquals(0.75, smallStats.getHitRate(), 1e-9);
+        assertEquals(1, largeStats.getInvocations());
+        assertEquals(1.0, largeStats.getHitRate(), 1e-9);
+        assertTrue(cascade.getReport().contains("small.tflite: 4 runs, 75.0% hit rate"));
+        assertEquals(LABELS, cascade.getLabels());
+
+        cascade.close();
+        assertTrue(small.closed);
+        assertTrue(big.closed);
+    }
+}
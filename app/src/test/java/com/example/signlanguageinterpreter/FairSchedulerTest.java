@@ -0,0 +1,100 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.service.FairScheduler;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class FairSchedulerTest {
+
+    @Test
+    public void testClientsTakeTurns() throws InterruptedException {
+        FairScheduler<String> scheduler = new FairScheduler<>(8);
+        scheduler.addClient(1);
+        scheduler.addClient(2);
+        // Client 1 floods the queue before client 2 submits anything
+        for (int i = 0; i < 4; i++) {
+            assertNull(scheduler.submit(1, "a" + i));
+        }
+        assertNull(scheduler.submit(2, "b0"));
+        assertNull(scheduler.submit(2, "b1"));
+
+        String[] order = new String[6];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = scheduler.take();
+        }
+        assertEquals(Arrays.asList("a0", "b0", "a1", "b1", "a2", "a3"), Arrays.asList(order));
+    }
+
+    @Test
+    public void testFullQueueDropsOldest() throws InterruptedException {
+        FairScheduler<String> scheduler = new FairScheduler<>(2);
+        scheduler.addClient(1);
+        assertNull(scheduler.submit(1, "f0"));
+        assertNull(scheduler.submit(1, "f1"));
+        assertEquals("f0", scheduler.submit(1, "f2"));
+        assertEquals(2, scheduler.getQueuedCount(1));
+        assertEquals("f1", scheduler.take());
+        assertEquals("f2", scheduler.take());
+    }
+
+    @Test
+    public void testSingleSlotQueueKeepsOneTurn() throws InterruptedException {
+        FairScheduler<String> scheduler = new FairScheduler<>(1);
+        scheduler.addClient(1);
+        scheduler.addClient(2);
+        assertNull(scheduler.submit(1, "a"));
+        assertEquals("a", scheduler.submit(1, "b"));
+        assertNull(scheduler.submit(2, "c"));
+        assertEquals("b", scheduler.take());
+        assertEquals("c", scheduler.take());
+        // No turn is left behind for the replaced frame, so the next take waits for new work
+        assertEquals(0, scheduler.getQueuedCount(1));
+        assertNull(scheduler.submit(1, "d"));
+        assertEquals("d", scheduler.take());
+    }
+
+    @Test
+    public void testUnknownClientIsRejected() {
+        FairScheduler<String> scheduler = new FairScheduler<>(2);
+        assertEquals("x", scheduler.submit(7, "x"));
+        assertEquals(0, scheduler.getQueuedCount(7));
+    }
+
+    @Test
+    public void testRemovedClientReturnsPendingAndLosesTurn() throws InterruptedException {
+        FairScheduler<String> scheduler = new FairScheduler<>(4);
+        scheduler.addClient(1);
+        scheduler.addClient(2);
+        scheduler.submit(1, "a0");
+        scheduler.submit(2, "b0");
+        scheduler.submit(1, "a1");
+
+        List<String> pending = scheduler.removeClient(1);
+        assertEquals(Arrays.asList("a0", "a1"), pending);
+        assertEquals("b0", scheduler.take());
+        assertEquals("x", scheduler.submit(1, "x"));
+    }
+
+    @Test
+    public void testCloseWakesWaitingWorker() throws InterruptedException {
+        FairScheduler<String> scheduler = new FairScheduler<>(2);
+        String[] taken = {"unset"};
+        Thread worker = new Thread(() -> {
+            try {
+                taken[0] = scheduler.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        Thread.sleep(50);
+        assertTrue(scheduler.close().isEmpty());
+        worker.join(2000);
+        assertFalse(worker.isAlive());
+        assertNull(taken[0]);
+    }
+}
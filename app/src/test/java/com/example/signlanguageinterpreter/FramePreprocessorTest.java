@@ -0,0 +1,103 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.preprocess.FramePreprocessor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class FramePreprocessorTest {
+
+    // Gray pixel whose value encodes its position
+    private static int gray(int value) {
+        return 0xFF000000 | value << 16 | value << 8 | value;
+    }
+
+    // Red channel of every output pixel, row-major
+    private static int[] reds(ByteBuffer output, int pixels) {
+        int[] reds = new int[pixels];
+        for (int i = 0; i < pixels; i++) {
+            reds[i] = output.get(i * 3) & 0xFF;
+        }
+        return reds;
+    }
+
+    // 3 x 2 source:  10 20 30
+    //                40 50 60
+    private static final int[] SOURCE = {gray(10), gray(20), gray(30), gray(40), gray(50), gray(60)};
+
+    @Test
+    public void testRotationsWithoutResize() {
+        ByteBuffer output = ByteBuffer.allocate(18);
+        new FramePreprocessor(3, 2).process(SOURCE, 3, 2, 0, output);
+        assertArrayEquals(new int[]{10, 20, 30, 40, 50, 60}, reds(output, 6));
+
+        new FramePreprocessor(3, 2).process(SOURCE, 3, 2, 180, output);
+        assertArrayEquals(new int[]{60, 50, 40, 30, 20, 10}, reds(output, 6));
+
+        // Rotated clockwise the frame is 2 wide and 3 high
+        new FramePreprocessor(2, 3).process(SOURCE, 3, 2, 90, output);
+        assertArrayEquals(new int[]{40, 10, 50, 20, 60, 30}, reds(output, 6));
+
+        new FramePreprocessor(2, 3).process(SOURCE, 3, 2, 270, output);
+        assertArrayEquals(new int[]{30, 60, 20, 50, 10, 40}, reds(output, 6));
+    }
+
+    @Test
+    public void testCenterCropKeepsAspectRatio() {
+        // 4 x 2 source cropped to its middle 2 x 2
+        int[] source = {gray(1), gray(2), gray(3), gray(4), gray(5), gray(6), gray(7), gray(8)};
+        ByteBuffer output = ByteBuffer.allocate(12);
+        new FramePreprocessor(2, 2).process(source, 4, 2, 0, output);
+        assertArrayEquals(new int[]{2, 3, 6, 7}, reds(output, 4));
+    }
+
+    @Test
+    public void testBilinearDownscale() {
+        // 2 x 2 averaged into one pixel
+        int[] source = {gray(0), gray(100), gray(100), gray(200)};
+        ByteBuffer output = ByteBuffer.allocate(3);
+        new FramePreprocessor(1, 1).process(source, 2, 2, 0, output);
+        assertEquals(100, output.get(0) & 0xFF);
+    }
+
+    @Test
+    public void testRgbaBufferAndFloatNormalization() {
+        ByteBuffer rgba = ByteBuffer.allocate(8 * 2);
+        // 2 x 2 pixels with a row stride of 8 bytes, no padding
+        for (int i = 0; i < 4; i++) {
+            rgba.put(i * 4, (byte) 255).put(i * 4 + 1, (byte) 0).put(i * 4 + 2, (byte) 128).put(i * 4 + 3, (byte) 255);
+        }
+        FramePreprocessor preprocessor = new FramePreprocessor(2, 2, true, 127.5f, 127.5f,
+                ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        ByteBuffer output = ByteBuffer.allocate(preprocessor.getOutputBytes()).order(ByteOrder.nativeOrder());
+        preprocessor.process(rgba, 2, 2, 8, 90, output);
+        assertEquals(1f, output.getFloat(0), 1e-6f);
+        assertEquals(-1f, output.getFloat(4), 1e-6f);
+        assertEquals(0.5f / 127.5f, output.getFloat(8), 1e-6f);
+    }
+
+    @Test
+    public void testParallelRowsMatchSequential() {
+        int width = 640;
+        int height = 480;
+        int[] source = new int[width * height];
+        Random random = new Random(7);
+        for (int i = 0; i < source.length; i++) {
+            source[i] = random.nextInt();
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        FramePreprocessor sequential = new FramePreprocessor(300, 300, false, 0, 1, pool, Integer.MAX_VALUE);
+        FramePreprocessor parallel = new FramePreprocessor(300, 300, false, 0, 1, pool, 1);
+        ByteBuffer expected = ByteBuffer.allocate(sequential.getOutputBytes());
+        ByteBuffer actual = ByteBuffer.allocate(parallel.getOutputBytes());
+        sequential.process(source, width, height, 90, expected);
+        parallel.process(source, width, height, 90, actual);
+        pool.shutdown();
+        assertEquals(expected, actual);
+    }
+}
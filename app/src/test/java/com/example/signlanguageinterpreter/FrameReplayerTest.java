@@ -0,0 +1,117 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.replay.FrameRecorder;
+import com.example.signlanguageinterpreter.replay.FrameReplayer;
+import com.example.signlanguageinterpreter.replay.ReplayReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FrameReplayerTest {
+    private static final int WIDTH = 32;
+    private static final int HEIGHT = 24;
+
+    // Pixels derived from the frame number so a replayed frame can be checked byte by byte
+    private static ByteBuffer frame(int n) {
+        ByteBuffer rgba = ByteBuffer.allocateDirect(WIDTH * HEIGHT * 4);
+        for (int i = 0; i < rgba.capacity(); i++) {
+            rgba.put(i, (byte) (n * 31 + i / 7));
+        }
+        return rgba;
+    }
+
+    private static File record(int frames, int chunkBytes) throws IOException {
+        File file = File.createTempFile("frames", ".rec");
+        file.deleteOnExit();
+        try (FrameRecorder recorder = new FrameRecorder(file, chunkBytes, 64)) {
+            for (int n = 0; n < frames; n++) {
+                recorder.record(frame(n), WIDTH, HEIGHT, (n % 4) * 90, 1_000_000L * n);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testReplayReturnsRecordedFramesInOrder() throws IOException {
+        // Three frames per chunk, so the last chunk is partial
+        File file = record(10, 3 * WIDTH * HEIGHT * 4);
+        List<Long> timestamps = new ArrayList<>();
+        ReplayReport report = new FrameReplayer(file).replay((rgba, width, height, rotation, timestampNanos) -> {
+            int n = timestamps.size();
+            assertEquals(WIDTH, width);
+            assertEquals(HEIGHT, height);
+            assertEquals((n % 4) * 90, rotation);
+            assertEquals(WIDTH * HEIGHT * 4, rgba.remaining());
+            ByteBuffer expected = frame(n);
+            for (int i = 0; i < expected.capacity(); i++) {
+                assertEquals(expected.get(i), rgba.get(i));
+            }
+            timestamps.add(timestampNanos);
+        }, false);
+
+        assertEquals(10, report.getFrameCount());
+        for (int n = 0; n < 10; n++) {
+            assertEquals(1_000_000L * n, (long) timestamps.get(n));
+        }
+    }
+
+    @Test
+    public void testRecordingIsCompressed() throws IOException {
+        File file = record(10, 1024 * 1024);
+        assertTrue("Recording should be smaller than the raw frames",
+                file.length() < 10L * WIDTH * HEIGHT * 4);
+    }
+
+    @Test
+    public void testTornChunkAtEndIsIgnored() throws IOException {
+        File file = record(9, 3 * WIDTH * HEIGHT * 4);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        int[] count = new int[1];
+        ReplayReport report = new FrameReplayer(file).replay(
+                (rgba, width, height, rotation, timestampNanos) -> count[0]++, false);
+        assertEquals(6, count[0]);
+        assertEquals(6, report.getFrameCount());
+    }
+
+    @Test
+    public void testRealTimeReplayFollowsRecordedTimestamps() throws IOException {
+        // 10 frames 1 ms apart take at least 9 ms when paced
+        File file = record(10, 1024 * 1024);
+        ReplayReport report = new FrameReplayer(file).replay(
+                (rgba, width, height, rotation, timestampNanos) -> { }, true);
+        assertTrue(report.getWallNanos() >= 9_000_000L);
+    }
+
+    @Test
+    public void testReportPercentiles() {
+        long[] latencies = new long[100];
+        for (int i = 0; i < 100; i++) {
+            latencies[i] = (100 - i) * 1_000_000L; // 1..100 ms, unsorted
+        }
+        ReplayReport report = new ReplayReport(latencies, 100, 1_000_000_000L, 0);
+        assertEquals(50.0, report.getPercentileMillis(50), 1e-9);
+        assertEquals(99.0, report.getPercentileMillis(99), 1e-9);
+        assertEquals(100.0, report.getMaxMillis(), 1e-9);
+        assertEquals(50.5, report.getMeanMillis(), 1e-9);
+        assertEquals(100.0, report.getThroughputFps(), 1e-9);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        File file = File.createTempFile("frames", ".rec");
+        file.deleteOnExit();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeLong(42);
+        }
+        new FrameReplayer(file).replay((rgba, width, height, rotation, timestampNanos) -> { }, false);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.trace.FrameTracer;
+import com.example.signlanguageinterpreter.trace.TraceConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+public class FrameTracerTest {
+
+    private static File traceFile() throws IOException {
+        File file = File.createTempFile("frames", ".trace");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static String convert(File file) throws IOException {
+        StringWriter json = new StringWriter();
+        try (InputStream in = new FileInputStream(file)) {
+            TraceConverter.convert(in, json);
+        }
+        return json.toString();
+    }
+
+    @Test
+    public void testDisabledTracingIsANoOp() {
+        assertFalse(FrameTracer.isEnabled());
+        FrameTracer.begin(FrameTracer.Stage.CAPTURE, 1);
+        FrameTracer.begin(FrameTracer.Stage.INFERENCE);
+        FrameTracer.end(FrameTracer.Stage.INFERENCE);
+        FrameTracer.end(FrameTracer.Stage.CAPTURE, 1);
+    }
+
+    @Test
+    public void testNestedStagesInheritFrameId() throws IOException {
+        File file = traceFile();
+        FrameTracer tracer = FrameTracer.start(file, false);
+        try {
+            assertTrue(FrameTracer.isEnabled());
+            FrameTracer.begin(FrameTracer.Stage.CLASSIFY, 42);
+            FrameTracer.begin(FrameTracer.Stage.INFERENCE);
+            FrameTracer.end(FrameTracer.Stage.INFERENCE);
+            FrameTracer.end(FrameTracer.Stage.CLASSIFY, 42);
+            // Outside any frame section the id is unknown
+            FrameTracer.begin(FrameTracer.Stage.OBSERVER);
+            FrameTracer.end(FrameTracer.Stage.OBSERVER);
+        } finally {
+            tracer.close();
+        }
+        assertFalse(FrameTracer.isEnabled());
+
+        String json = convert(file);
+        assertTrue(json, json.contains("\"name\":\"frame-inference\",\"ph\":\"B\""));
+        assertEquals(4, count(json, "\"frame\":42}"));
+        assertEquals(2, count(json, "\"frame\":-1}"));
+        assertTrue(json.contains("\"name\":\"thread_name\""));
+        // One async row for frame 42, none for events without a frame
+        assertEquals(1, count(json, "\"name\":\"frame 42\",\"cat\":\"frame\",\"ph\":\"b\""));
+        assertFalse(json.contains("\"name\":\"frame -1\""));
+    }
+
+    @Test
+    public void testStagesFromSeveralThreadsAreKept() throws Exception {
+        File file = traceFile();
+        FrameTracer tracer = FrameTracer.start(file, false);
+        Thread[] threads = new Thread[3];
+        try {
+            for (int t = 0; t < threads.length; t++) {
+                int offset = t * 1000;
+                threads[t] = new Thread(() -> {
+                    for (int frame = 0; frame < 2000; frame++) {
+                        FrameTracer.begin(FrameTracer.Stage.DISPATCH, offset + frame);
+                        FrameTracer.end(FrameTracer.Stage.DISPATCH, offset + frame);
+                    }
+                }, "worker-" + t);
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            tracer.close();
+        }
+
+        StringWriter json = new StringWriter();
+        int events;
+        try (InputStream in = new FileInputStream(file)) {
+            events = TraceConverter.convert(in, json);
+        }
+        assertEquals(3 * 2000 * 2 - tracer.getDroppedCount(), events);
+        for (int t = 0; t < threads.length; t++) {
+            assertTrue(json.toString().contains("\"args\":{\"name\":\"worker-" + t + "\"}"));
+        }
+    }
+
+    @Test
+    public void testTornLastRecordIsIgnored() throws IOException {
+        File file = traceFile();
+        FrameTracer tracer = FrameTracer.start(file, false);
+        try {
+            FrameTracer.begin(FrameTracer.Stage.CAPTURE, 7);
+            FrameTracer.end(FrameTracer.Stage.CAPTURE, 7);
+        } finally {
+            tracer.close();
+        }
+
+        byte[] bytes = new byte[(int) file.length()];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(bytes);
+        }
+        byte[] torn = new byte[bytes.length - 5];
+        System.arraycopy(bytes, 0, torn, 0, torn.length);
+        StringWriter json = new StringWriter();
+        assertEquals(1, TraceConverter.convert(new ByteArrayInputStream(torn), json));
+    }
+
+    @Test
+    public void testSectionsLeftOpenByEarlierTracerAreForgotten() throws IOException {
+        FrameTracer first = FrameTracer.start(null, false);
+        try {
+            // Never closed while the first tracer runs
+            FrameTracer.begin(FrameTracer.Stage.CLASSIFY, 5);
+        } finally {
+            first.close();
+        }
+        File file = traceFile();
+        FrameTracer tracer = FrameTracer.start(file, false);
+        try {
+            FrameTracer.begin(FrameTracer.Stage.OBSERVER);
+            FrameTracer.end(FrameTracer.Stage.OBSERVER);
+        } finally {
+            tracer.close();
+        }
+        String json = convert(file);
+        assertEquals(2, count(json, "\"frame\":-1}"));
+        assertFalse(json.contains("\"frame\":5}"));
+    }
+
+    @Test
+    public void testListenerIsToldAboutClose() throws IOException {
+        long[] dropped = {-1};
+        FrameTracer tracer = FrameTracer.start(traceFile(), false, new FrameTracer.Listener() {
+            @Override
+            public void onWriteFailed(IOException error) {
+                fail(error.toString());
+            }
+
+            @Override
+            public void onClosed(long droppedEvents) {
+                dropped[0] = droppedEvents;
+            }
+        });
+        try {
+            FrameTracer.begin(FrameTracer.Stage.CAPTURE, 1);
+            FrameTracer.end(FrameTracer.Stage.CAPTURE, 1);
+        } finally {
+            tracer.close();
+        }
+        assertEquals(0, dropped[0]);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        byte[] other = ByteBuffer.allocate(16).putInt(0x12345678).array();
+        TraceConverter.convert(new ByteArrayInputStream(other), new StringWriter());
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int at = text.indexOf(part); at >= 0; at = text.indexOf(part, at + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.landmark.KnnIndex;
+import com.example.signlanguageinterpreter.landmark.LandmarkFeatures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+public class KnnIndexTest {
+
+    // Samples scattered around one center per label
+    private static KnnIndex clusteredIndex(int labels, int perLabel, int dimension, Random random) {
+        KnnIndex index = new KnnIndex(dimension);
+        float[] vector = new float[dimension];
+        for (int label = 0; label < labels; label++) {
+            for (int i = 0; i < perLabel; i++) {
+                for (int j = 0; j < dimension; j++) {
+                    vector[j] = label * 10 + (float) random.nextGaussian() * 0.5f;
+                }
+                index.add(vector, label);
+            }
+        }
+        return index;
+    }
+
+    private static float[] around(int label, int dimension) {
+        float[] query = new float[dimension];
+        for (int j = 0; j < dimension; j++) {
+            query[j] = label * 10 + 0.1f;
+        }
+        return query;
+    }
+
+    @Test
+    public void testExactSearchReturnsNearestFirst() {
+        KnnIndex index = new KnnIndex(2);
+        index.add(new float[]{0, 0}, 0);
+        index.add(new float[]{3, 0}, 1);
+        index.add(new float[]{1, 0}, 2);
+        int[] ids = new int[2];
+        float[] distances = new float[2];
+
+        assertEquals(2, index.search(new float[]{0.9f, 0}, 2, 1, ids, distances));
+        assertArrayEquals(new int[]{2, 0}, ids);
+        assertEquals(0.01f, distances[0], 1e-5f);
+    }
+
+    @Test
+    public void testClassifyVotesForNearestLabel() {
+        KnnIndex index = clusteredIndex(4, 20, 8, new Random(1));
+        float[] scores = index.classify(around(2, 8), 5, 1, 4);
+        assertEquals(1f, scores[2], 1e-6f);
+    }
+
+    @Test
+    public void testQuantizedSearchAgreesWithExactSearch() {
+        KnnIndex index = clusteredIndex(8, 50, 16, new Random(2));
+        int[] exact = new int[3];
+        int[] approximate = new int[3];
+        float[] distances = new float[3];
+        for (int label = 0; label < 8; label++) {
+            index.search(around(label, 16), 3, 1, exact, distances);
+            assertEquals(label, index.getLabel(exact[0]));
+        }
+        index.buildQuantizer(8, 10, 3);
+        assertTrue(index.hasQuantizer());
+        for (int label = 0; label < 8; label++) {
+            index.search(around(label, 16), 3, 2, approximate, distances);
+            assertEquals(label, index.getLabel(approximate[0]));
+        }
+    }
+
+    @Test
+    public void testRuntimeSamplesAreSearchedWithQuantizer() {
+        KnnIndex index = clusteredIndex(2, 20, 4, new Random(4));
+        index.buildQuantizer(2, 5, 5);
+        // A user's handshape far from the shipped samples
+        int id = index.add(new float[]{100, 100, 100, 100}, 1);
+        int[] ids = new int[1];
+        float[] distances = new float[1];
+        index.search(new float[]{99, 99, 99, 99}, 1, 1, ids, distances);
+        assertEquals(id, ids[0]);
+    }
+
+    @Test
+    public void testWriteAndReadRoundTrip() throws Exception {
+        KnnIndex index = clusteredIndex(3, 5, 4, new Random(5));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        KnnIndex copy = KnnIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(index.size(), copy.size());
+        assertEquals(4, copy.getDimension());
+        assertArrayEquals(index.classify(around(1, 4), 3, 1, 3), copy.classify(around(1, 4), 3, 1, 3), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchRejectsZeroNeighbors() {
+        KnnIndex index = clusteredIndex(2, 3, 4, new Random(7));
+        index.search(around(0, 4), 0, 1, new int[0], new float[0]);
+    }
+
+    @Test
+    public void testAddRejectsNegativeLabel() {
+        KnnIndex index = clusteredIndex(2, 3, 4, new Random(7));
+        int size = index.size();
+        try {
+            index.add(around(0, 4), -1);
+            fail("Accepted label -1");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        // The rejected sample never reaches a vote
+        assertEquals(size, index.size());
+        assertEquals(1, index.getMaxLabel());
+        assertEquals(2, index.classify(around(0, 4), 3, 1, 2).length);
+    }
+
+    @Test
+    public void testReadRejectsInvalidHeader() throws Exception {
+        for (int[] header : new int[][]{{0, 3}, {-4, 3}, {4, -1}, {1 << 20, 1}, {4096, 1 << 20}}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0x4B4E4E31);
+            out.writeInt(header[0]);
+            out.writeInt(header[1]);
+            try {
+                KnnIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                fail("Accepted dimension " + header[0] + " and count " + header[1]);
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkFeaturesIgnorePositionAndScale() {
+        float[] hand = new float[LandmarkFeatures.DIMENSION];
+        Random random = new Random(6);
+        for (int i = 0; i < hand.length; i++) {
+            hand[i] = random.nextFloat();
+        }
+        float[] moved = new float[hand.length];
+        for (int i = 0; i < hand.length; i++) {
+            moved[i] = hand[i] * 3 + 40;
+        }
+        assertArrayEquals(LandmarkFeatures.normalize(hand), LandmarkFeatures.normalize(moved), 1e-4f);
+        assertEquals(0f, hand[0], 0f);
+    }
+}
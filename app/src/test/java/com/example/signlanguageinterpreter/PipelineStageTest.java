@@ -0,0 +1,142 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.pipeline.DropPolicy;
+import com.example.signlanguageinterpreter.pipeline.PipelineStage;
+import com.example.signlanguageinterpreter.pipeline.SpscRingBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PipelineStageTest {
+
+    private static class Slot {
+        int value;
+    }
+
+    @Test
+    public void testRingBufferIsBoundedAndFifo() {
+        SpscRingBuffer<Integer> ring = new SpscRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(Integer.valueOf(0), ring.poll());
+        assertTrue(ring.offer(4));
+        assertEquals(4, ring.size());
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    public void testDropOldestNeverBlocksProducerAndKeepsNewestFrames() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        PipelineStage<Slot> stage = new PipelineStage<>("test-drop", 2, DropPolicy.DROP_OLDEST, Slot::new, slot -> {
+            entered.countDown();
+            try {
+                gate.await(); // Simulates a slow consumer
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(slot.value);
+        });
+        stage.start();
+
+        Slot first = stage.acquire();
+        first.value = 0;
+        stage.submit(first);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 100; i++) {
+            Slot slot = stage.acquire();
+            slot.value = i;
+            stage.submit(slot);
+        }
+        // The worker holds frame 0; every other slot is queued with the newest frames
+        assertEquals(stage.getSlotCount() - 1, stage.getQueueDepth());
+        assertEquals(100 - 1 - stage.getQueueDepth(), stage.getDroppedCount());
+        gate.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stage.getProcessedCount() + stage.getDroppedCount() < 100 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        stage.stop();
+
+        assertEquals(100, stage.getSubmittedCount());
+        assertEquals(100, stage.getProcessedCount() + stage.getDroppedCount());
+        assertEquals(Arrays.asList(0, 97, 98, 99), seen);
+    }
+
+    @Test
+    public void testPostedTaskCanDiscardQueuedSlots() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        PipelineStage<Slot> stage = new PipelineStage<>("test-discard", 2, DropPolicy.BLOCK, Slot::new, slot -> {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(slot.value);
+        });
+        stage.start();
+        for (int i = 0; i < 3; i++) {
+            Slot slot = stage.acquire();
+            slot.value = i;
+            stage.submit(slot);
+            if (i == 0) {
+                assertTrue(entered.await(5, TimeUnit.SECONDS));
+            }
+        }
+        CountDownLatch ran = new CountDownLatch(1);
+        int[] discarded = new int[1];
+        stage.post(() -> {
+            discarded[0] = stage.discardQueued();
+            ran.countDown();
+        });
+        gate.countDown();
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        stage.stop();
+
+        // The task runs after the slot in progress and before the queued ones
+        assertEquals(2, discarded[0]);
+        assertEquals(Collections.singletonList(0), seen);
+        assertEquals(2, stage.getDroppedCount());
+    }
+
+    @Test
+    public void testBlockDeliversEverythingInOrder() throws Exception {
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        PipelineStage<Slot> stage = new PipelineStage<>("test-block", 2, DropPolicy.BLOCK, Slot::new,
+                slot -> seen.add(slot.value));
+        stage.start();
+        for (int i = 0; i < 1000; i++) {
+            Slot slot = stage.acquire();
+            slot.value = i;
+            stage.submit(slot);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stage.getProcessedCount() < 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        stage.stop();
+
+        assertEquals(0, stage.getDroppedCount());
+        assertEquals(1000, seen.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), seen.get(i));
+        }
+    }
+}
\ No newline at end of file
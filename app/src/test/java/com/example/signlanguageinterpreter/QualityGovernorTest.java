@@ -0,0 +1,91 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.governor.DeviceConditions;
+import com.example.signlanguageinterpreter.governor.QualityGovernor;
+import com.example.signlanguageinterpreter.governor.QualityLadder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class QualityGovernorTest {
+
+    private static class FakeConditions implements DeviceConditions {
+        int thermalStatus = THERMAL_NONE;
+        boolean powerSave;
+
+        @Override
+        public int getThermalStatus() {
+            return thermalStatus;
+        }
+
+        @Override
+        public boolean isPowerSaveMode() {
+            return powerSave;
+        }
+    }
+
+    private final FakeConditions conditions = new FakeConditions();
+    private final List<Integer> changes = new ArrayList<>();
+
+    private QualityGovernor newGovernor() {
+        // Default ladder: 30, 15, 10 and 5 fps, i.e. budgets of 33, 66, 100 and 200 ms
+        return new QualityGovernor(conditions, QualityLadder.defaultLadder(),
+                (level, index, reason) -> changes.add(index))
+                .setDwellMillis(2_000, 10_000);
+    }
+
+    @Test
+    public void testThermalStatusCapsQualityImmediately() {
+        QualityGovernor governor = newGovernor();
+        assertEquals(0, governor.evaluate(0, 10));
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_SEVERE;
+        assertEquals(2, governor.evaluate(100, 10));
+
+        conditions.thermalStatus = DeviceConditions.THERMAL_CRITICAL;
+        assertEquals(3, governor.evaluate(200, 10));
+        assertEquals("minimal", governor.getLevel().getName());
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void testPowerSaveCapsQuality() {
+        QualityGovernor governor = newGovernor();
+        conditions.powerSave = true;
+        assertEquals(QualityLadder.defaultLadder().getPowerSaveIndex(), governor.evaluate(0, -1));
+    }
+
+    @Test
+    public void testLatencyStepsDownAfterDwell() {
+        QualityGovernor governor = newGovernor();
+        // Over the 33 ms budget, but the governor has only just started at time 0
+        assertEquals(0, governor.evaluate(1_000, 50));
+        assertEquals(1, governor.evaluate(2_000, 50));
+        // 50 ms fits the 66 ms budget of the new level
+        assertEquals(1, governor.evaluate(10_000, 50));
+        // Still slower: one step at a time, separated by the dwell time
+        assertEquals(2, governor.evaluate(12_000, 80));
+        assertEquals(2, governor.evaluate(13_000, 500));
+        assertEquals(3, governor.evaluate(14_000, 500));
+        assertEquals(3, governor.evaluate(20_000, 500));
+    }
+
+    @Test
+    public void testStepsUpOnlyWithHeadroomAndBelowCeiling() {
+        QualityGovernor governor = newGovernor();
+        conditions.thermalStatus = DeviceConditions.THERMAL_CRITICAL;
+        assertEquals(3, governor.evaluate(0, 10));
+
+        // Cooled down to moderate: the ceiling is level 1, reached one step per up dwell
+        conditions.thermalStatus = DeviceConditions.THERMAL_MODERATE;
+        assertEquals(3, governor.evaluate(5_000, 10));
+        assertEquals(2, governor.evaluate(10_000, 10));
+        // Without enough headroom under the 100 ms budget it stays put
+        assertEquals(2, governor.evaluate(20_000, 60));
+        assertEquals(1, governor.evaluate(20_000, 40));
+        assertEquals(1, governor.evaluate(40_000, 1));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.replay.FrameRecorder;
+import com.example.signlanguageinterpreter.replay.GoldenSet;
+import com.example.signlanguageinterpreter.replay.RegressionSuite;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+public class RegressionSuiteTest {
+    private static final List<String> LABELS = Arrays.asList("A", "B", "C", "D", "E", "F", "G");
+
+    // Golden set of 7 frames; frame n shows label n, encoded in its first pixel
+    private static File goldenDirectory(int version) throws IOException {
+        File dir = File.createTempFile("golden", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        dir.deleteOnExit();
+        try (FrameRecorder recorder = new FrameRecorder(new File(dir, "frames.rec"), 1024, 8)) {
+            for (int n = 0; n < LABELS.size(); n++) {
+                ByteBuffer rgba = ByteBuffer.allocate(4 * 4 * 4);
+                rgba.put(0, (byte) n);
+                recorder.record(rgba, 4, 4, 0, n * 33_000_000L);
+            }
+        }
+        try (Writer out = new FileWriter(new File(dir, "expected.txt"))) {
+            for (String label : LABELS) {
+                out.write(label + "\n");
+            }
+        }
+        try (Writer out = new FileWriter(new File(dir, GoldenSet.MANIFEST))) {
+            out.write("version=" + version + "\nrecording=frames.rec\nlabels=expected.txt\n");
+        }
+        return dir;
+    }
+
+    // Scores exactly rankOfTruth other labels above the encoded one
+    private static RegressionSuite.Classifier classifierRanking(int rankOfTruth) {
+        return (rgba, width, height, rotation) -> {
+            int truth = rgba.get(0);
+            float[] scores = new float[LABELS.size()];
+            scores[truth] = 0.5f;
+            for (int i = 0, above = 0; i < scores.length && above < rankOfTruth; i++) {
+                if (i != truth) {
+                    scores[i] = 1f;
+                    above++;
+                }
+            }
+            return scores;
+        };
+    }
+
+    @Test
+    public void testRankCountsStrictlyHigherScores() {
+        float[] scores = {0.1f, 0.7f, 0.2f, 0.7f};
+        assertEquals(0, RegressionSuite.rankOf(scores, 1));
+        assertEquals(2, RegressionSuite.rankOf(scores, 2));
+        assertEquals(Integer.MAX_VALUE, RegressionSuite.rankOf(scores, -1));
+    }
+
+    @Test
+    public void testTopOneAndTopFiveAccuracy() throws IOException {
+        GoldenSet golden = GoldenSet.load(goldenDirectory(1));
+        assertEquals(1, golden.getVersion());
+        assertEquals(LABELS, golden.getExpectedLabels());
+        RegressionSuite suite = new RegressionSuite(golden, RegressionSuite.Tolerance.defaults(), false);
+
+        RegressionSuite.Result perfect = suite.evaluate(
+                new RegressionSuite.Configuration("perfect", LABELS, classifierRanking(0)));
+        assertEquals(1.0, perfect.getTop1(), 1e-9);
+        assertEquals(1.0, perfect.getTop5(), 1e-9);
+        assertEquals(7, perfect.getLatency().getFrameCount());
+
+        RegressionSuite.Result third = suite.evaluate(
+                new RegressionSuite.Configuration("third", LABELS, classifierRanking(2)));
+        assertEquals(0.0, third.getTop1(), 1e-9);
+        assertEquals(1.0, third.getTop5(), 1e-9);
+
+        RegressionSuite.Result sixth = suite.evaluate(
+                new RegressionSuite.Configuration("sixth", LABELS, classifierRanking(5)));
+        assertEquals(0.0, sixth.getTop5(), 1e-9);
+    }
+
+    @Test
+    public void testAccuracyDropBeyondToleranceRegresses() throws IOException {
+        GoldenSet golden = GoldenSet.load(goldenDirectory(2));
+        // Latency is not under test here, so allow any slowdown
+        RegressionSuite suite = new RegressionSuite(golden, new RegressionSuite.Tolerance(0.01, 1e6, 1), false);
+        Properties baseline = new Properties();
+        RegressionSuite.record(suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, classifierRanking(0))), baseline);
+
+        assertTrue(suite.compare(suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, classifierRanking(0))), baseline).isEmpty());
+        List<String> regressions = suite.compare(suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, classifierRanking(1))), baseline);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).contains("top1"));
+    }
+
+    @Test
+    public void testLatencyGrowthBeyondToleranceRegresses() throws IOException {
+        GoldenSet golden = GoldenSet.load(goldenDirectory(3));
+        RegressionSuite suite = new RegressionSuite(golden, RegressionSuite.Tolerance.defaults(), false);
+        Properties baseline = new Properties();
+        RegressionSuite.record(suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, classifierRanking(0))), baseline);
+        // Pretend the baseline ran in 1 us per frame
+        baseline.setProperty("model.p50Millis", "0.001");
+        baseline.setProperty("model.p99Millis", "0.001");
+
+        RegressionSuite.Classifier slow = (rgba, width, height, rotation) -> {
+            long end = System.nanoTime() + 2_000_000L;
+            while (System.nanoTime() < end) {
+                Thread.yield();
+            }
+            return classifierRanking(0).classify(rgba, width, height, rotation);
+        };
+        List<String> regressions = suite.compare(suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, slow)), baseline);
+        assertTrue(regressions.toString(), regressions.size() >= 2);
+    }
+
+    @Test
+    public void testBaselineOfOtherGoldenVersionIsNotCompared() throws IOException {
+        RegressionSuite suite = new RegressionSuite(GoldenSet.load(goldenDirectory(5)),
+                RegressionSuite.Tolerance.defaults(), false);
+        Properties baseline = new Properties();
+        baseline.setProperty("golden.version", "4");
+        baseline.setProperty("model.top1", "1.0");
+        RegressionSuite.Result result = suite.evaluate(
+                new RegressionSuite.Configuration("model", LABELS, classifierRanking(3)));
+        assertTrue(suite.compare(result, baseline).isEmpty());
+
+        RegressionSuite.record(result, baseline);
+        assertEquals("5", baseline.getProperty("golden.version"));
+    }
+}
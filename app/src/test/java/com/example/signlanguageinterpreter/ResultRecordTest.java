@@ -0,0 +1,33 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.service.ResultRecord;
+
+public class ResultRecordTest {
+
+    @Test
+    public void testKeepsBestScoresInOrder() {
+        float[] scores = {0.1f, 0.5f, 0.05f, 0.9f, 0.3f, 0.7f};
+        ResultRecord record = ResultRecord.fromScores(42, 1, scores, 3, 1000);
+        assertEquals(ResultRecord.Status.OK, record.getStatus());
+        assertArrayEquals(new int[]{3, 5, 1}, record.getLabelIndices());
+        assertArrayEquals(new float[]{0.9f, 0.7f, 0.5f}, record.getScores(), 0f);
+        assertEquals(42, record.getFrameId());
+        assertEquals(1, record.getSlot());
+    }
+
+    @Test
+    public void testFewerLabelsThanRequested() {
+        ResultRecord record = ResultRecord.fromScores(1, 0, new float[]{0.2f, 0.8f}, 5, 0);
+        assertArrayEquals(new int[]{1, 0}, record.getLabelIndices());
+    }
+
+    @Test
+    public void testUnclassifiedHasNoLabels() {
+        ResultRecord record = ResultRecord.unclassified(7, 2, ResultRecord.Status.DROPPED);
+        assertEquals(ResultRecord.Status.DROPPED, record.getStatus());
+        assertEquals(0, record.getLabelIndices().length);
+    }
+}
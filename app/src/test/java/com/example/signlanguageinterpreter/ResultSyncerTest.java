@@ -0,0 +1,87 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.sync.ResultSyncer;
+import com.example.signlanguageinterpreter.sync.SyncBackend;
+import com.example.signlanguageinterpreter.sync.SyncQueue;
+import com.example.signlanguageinterpreter.sync.SyncRecord;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ResultSyncerTest {
+
+    // In-process stand-in for the backend that fails a configurable number of uploads
+    private static class FakeBackend implements SyncBackend {
+        int failuresLeft;
+        final List<Integer> batchSizes = new ArrayList<>();
+        final Set<String> documentIds = new HashSet<>();
+
+        @Override
+        public void upload(List<SyncRecord> batch) throws Exception {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new Exception("offline");
+            }
+            batchSizes.add(batch.size());
+            for (SyncRecord record : batch) {
+                documentIds.add(record.getSessionId() + "/" + record.getId());
+            }
+        }
+    }
+
+    @Test
+    public void testRecordsSurviveFailuresAndAreDeliveredInBatches() throws Exception {
+        File dir = Files.createTempDirectory("sync").toFile();
+        FakeBackend backend = new FakeBackend();
+        backend.failuresLeft = 1;
+        ResultSyncer syncer = new ResultSyncer(new SyncQueue(dir), backend, "session", 100, 1000, 10, 100);
+
+        for (int i = 0; i < 250; i++) {
+            syncer.enqueueResult(i, "A", 0, 0.9f);
+        }
+        assertEquals(0, syncer.flush());
+        assertEquals(250, syncer.getBacklog());
+        assertEquals("Failed records must be durable", 250, new SyncQueue(dir).size());
+
+        assertEquals(250, syncer.flush());
+        assertEquals(0, syncer.getBacklog());
+        assertEquals(3, backend.batchSizes.size());
+        assertEquals(Integer.valueOf(100), backend.batchSizes.get(0));
+        assertEquals(Integer.valueOf(50), backend.batchSizes.get(2));
+        assertEquals(250, backend.documentIds.size());
+        assertEquals(0, new SyncQueue(dir).size());
+    }
+
+    @Test
+    public void testQueueCompactsAfterAcknowledgement() throws Exception {
+        File dir = Files.createTempDirectory("sync").toFile();
+        SyncQueue queue = new SyncQueue(dir);
+        List<SyncRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            records.add(SyncRecord.telemetry("session", i, i, "fps", 30));
+        }
+        queue.append(records);
+        long fullSize = queue.getFileBytes();
+
+        queue.acknowledge(4000);
+        assertEquals(1000, queue.size());
+        assertTrue("Acknowledged records should be compacted away", queue.getFileBytes() < fullSize / 2);
+        assertEquals(4000, queue.peek(1).get(0).getSequence());
+        assertEquals(1000, new SyncQueue(dir).size());
+    }
+
+    @Test
+    public void testBackoffGrowsAndIsCapped() {
+        ResultSyncer syncer = new ResultSyncer(null, null, "session", 100, 1000, 100, 1000);
+        assertTrue(syncer.getBackoffMillis(1) >= 100 && syncer.getBackoffMillis(1) <= 120);
+        assertTrue(syncer.getBackoffMillis(3) >= 400 && syncer.getBackoffMillis(3) <= 480);
+        assertTrue(syncer.getBackoffMillis(30) >= 1000 && syncer.getBackoffMillis(30) <= 1200);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.model.TensorFlowModel;
+import com.example.signlanguageinterpreter.shadow.ShadowEvaluator;
+import com.example.signlanguageinterpreter.shadow.ShadowMetrics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ShadowEvaluatorTest {
+
+    // Always answers the second label
+    private static class FakeCandidate extends TensorFlowModel {
+        boolean closed;
+
+        FakeCandidate() {
+            super(null, Arrays.asList("A", "B"));
+        }
+
+        @Override
+        public synchronized float[] classifyScores(ByteBuffer rgba, int width, int height, int rotation) {
+            assertEquals(4 * 4 * 4, rgba.remaining());
+            return new float[]{0.3f, 0.7f};
+        }
+
+        @Override
+        public synchronized void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void testMetricsCompareModels() {
+        ShadowMetrics metrics = new ShadowMetrics();
+        metrics.record(new float[]{0.9f, 0.1f}, new float[]{0.8f, 0.2f}, 10_000_000, 14_000_000);
+        metrics.record(new float[]{0.6f, 0.4f}, new float[]{0.3f, 0.7f}, 10_000_000, 8_000_000);
+
+        assertEquals(2, metrics.getSamples());
+        assertEquals(0.5, metrics.getAgreementRate(), 1e-9);
+        assertEquals(1.0, metrics.getAverageLatencyDeltaMillis(), 1e-9);
+        assertEquals(4.0, metrics.getMaxLatencyDeltaMillis(), 1e-9);
+        // (0.8 - 0.9 + 0.7 - 0.6) / 2
+        assertEquals(0.0, metrics.getAverageConfidenceDrift(), 1e-6);
+        // (0.1 + 0.3) / 2
+        assertEquals(0.2, metrics.getAverageScoreDistance(), 1e-6);
+    }
+
+    @Test
+    public void testCpuBudget() {
+        assertTrue(ShadowEvaluator.isWithinBudget(0, 0, 0.1));
+        assertFalse(ShadowEvaluator.isWithinBudget(20_000_000, 100_000_000, 0.1));
+        assertTrue(ShadowEvaluator.isWithinBudget(20_000_000, 200_000_000, 0.1));
+    }
+
+    @Test
+    public void testEvaluatesSampledFrameAndClosesCandidate() throws Exception {
+        FakeCandidate candidate = new FakeCandidate();
+        Thread[] loadedOn = new Thread[1];
+        ShadowEvaluator evaluator = new ShadowEvaluator(() -> {
+            loadedOn[0] = Thread.currentThread();
+            return candidate;
+        }, 1.0, 1.0);
+        ShadowMetrics[] reported = new ShadowMetrics[1];
+        evaluator.setListener(new ShadowEvaluator.Listener() {
+            @Override
+            public void onCandidateFailed(Exception error) {
+                fail(error.toString());
+            }
+
+            @Override
+            public void onClosed(ShadowMetrics metrics) {
+                reported[0] = metrics;
+            }
+        });
+        evaluator.start();
+        ByteBuffer frame = ByteBuffer.allocateDirect(4 * 4 * 4);
+
+        // Offered until the candidate is loaded and takes one
+        while (evaluator.getMetrics().getSkippedBusy() == evaluator.getMetrics().getOffered()) {
+            evaluator.offer(frame, 4, 4, 0, new float[]{0.9f, 0.1f}, 1_000_000);
+            Thread.sleep(1);
+        }
+        evaluator.close();
+
+        ShadowMetrics metrics = evaluator.getMetrics();
+        assertEquals(1, metrics.getOffered() - metrics.getSkippedBusy());
+        assertEquals(1, metrics.getSamples());
+        assertEquals(0.0, metrics.getAgreementRate(), 1e-9);
+        assertTrue(candidate.closed);
+        assertSame(metrics, reported[0]);
+        assertNotSame(Thread.currentThread(), loadedOn[0]);
+    }
+
+    @Test
+    public void testFailedLoadSkipsEveryFrame() {
+        ShadowEvaluator evaluator = new ShadowEvaluator(() -> {
+            throw new IllegalStateException("No model");
+        }, 1.0, 1.0);
+        Exception[] failure = new Exception[1];
+        evaluator.setListener(new ShadowEvaluator.Listener() {
+            @Override
+            public void onCandidateFailed(Exception error) {
+                failure[0] = error;
+            }
+
+            @Override
+            public void onClosed(ShadowMetrics metrics) {
+            }
+        });
+        evaluator.start();
+        evaluator.offer(ByteBuffer.allocateDirect(16), 2, 2, 0, new float[]{1f}, 1);
+        evaluator.close();
+
+        assertEquals(0, evaluator.getMetrics().getSamples());
+        assertEquals(1, evaluator.getMetrics().getSkippedBusy());
+        assertTrue(failure[0] instanceof IllegalStateException);
+        assertNull(evaluator.getCandidate());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.model.Recognition;
+import com.example.signlanguageinterpreter.observer.SubtitleObserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class SubtitleObserverTest {
+
+    @Test
+    public void testCuesAreMergedAndAlignedToRecordingStart() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+        long anchor = 5_000_000_000L; // Recording started 5 s into the elapsed clock
+
+        observer.startTrack("lesson", anchor);
+        observer.onRecognition(new Recognition(anchor + 1_000_000_000L, 0, "A", 0.9f));
+        observer.onRecognition(new Recognition(anchor + 1_500_000_000L, 0, "A", 0.8f));
+        observer.onRecognition(new Recognition(anchor + 2_000_000_000L, 1, "B", 0.9f));
+        observer.onRecognition(new Recognition(anchor + 2_500_000_000L, 1, "B", 0.1f)); // Ends cue B
+        File track = observer.finishTrack(true).get();
+
+        assertNotNull("Finished track should be kept", track);
+        assertEquals("lesson.vtt", track.getName());
+        String expected = "WEBVTT\n\n"
+                + "1\n00:00:01.000 --> 00:00:01.500\nA\n\n"
+                + "2\n00:00:02.000 --> 00:00:02.300\nB\n\n";
+        assertEquals(expected, new String(Files.readAllBytes(track.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEarliestAnchorEstimateIsKept() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+        long anchor = 5_000_000_000L;
+
+        // The start event arrived 80 ms late; a status event delivered sooner refines it
+        observer.startTrack("anchored", anchor + 80_000_000L);
+        observer.syncTimeline(anchor);
+        observer.syncTimeline(anchor + 40_000_000L); // Later estimates never move it back
+        observer.onRecognition(new Recognition(anchor + 1_000_000_000L, 0, "A", 0.9f));
+        observer.onRecognition(new Recognition(anchor + 2_000_000_000L, 0, "A", 0.9f));
+        File track = observer.finishTrack(true).get();
+
+        assertEquals("WEBVTT\n\n1\n00:00:01.000 --> 00:00:02.000\nA\n\n", read(track));
+    }
+
+    @Test
+    public void testFramesBeforeRecordingStartAreNotCaptioned() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+        long anchor = 5_000_000_000L;
+
+        observer.startTrack("early", anchor);
+        // Captured before the first recorded frame, e.g. still in flight when recording started
+        observer.onRecognition(new Recognition(anchor - 100_000_000L, 0, "A", 0.9f));
+        observer.onRecognition(new Recognition(anchor + 500_000_000L, 1, "B", 0.9f));
+        observer.onRecognition(new Recognition(anchor + 1_200_000_000L, 1, "B", 0.9f));
+        File track = observer.finishTrack(true).get();
+
+        assertEquals("WEBVTT\n\n1\n00:00:00.500 --> 00:00:01.200\nB\n\n", read(track));
+    }
+
+    @Test
+    public void testShortCuesLastTheMinimumDuration() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+
+        observer.startTrack("short", 0);
+        observer.onRecognition(new Recognition(1_000_000_000L, 0, "A", 0.9f)); // A single frame
+        observer.onRecognition(new Recognition(1_100_000_000L, 1, "B", 0.9f));
+        observer.onRecognition(new Recognition(1_250_000_000L, 1, "B", 0.9f));
+        File track = observer.finishTrack(true).get();
+
+        // Cues may overlap rather than flash by too quickly to read
+        assertEquals("WEBVTT\n\n"
+                + "1\n00:00:01.000 --> 00:00:01.300\nA\n\n"
+                + "2\n00:00:01.100 --> 00:00:01.400\nB\n\n", read(track));
+    }
+
+    @Test
+    public void testNewTrackFinishesThePreviousOne() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+
+        observer.startTrack("first", 0);
+        observer.onRecognition(new Recognition(1_000_000_000L, 0, "A", 0.9f));
+        observer.onRecognition(new Recognition(2_000_000_000L, 0, "A", 0.9f));
+        // The second track starts its own timeline and numbering
+        observer.startTrack("second", 10_000_000_000L);
+        observer.onRecognition(new Recognition(10_500_000_000L, 1, "B", 0.9f));
+        observer.onRecognition(new Recognition(11_000_000_000L, 1, "B", 0.9f));
+        File second = observer.finishTrack(true).get();
+
+        assertEquals("WEBVTT\n\n1\n00:00:01.000 --> 00:00:02.000\nA\n\n", read(new File(dir, "first.vtt")));
+        assertEquals("WEBVTT\n\n1\n00:00:00.500 --> 00:00:01.000\nB\n\n", read(second));
+    }
+
+    @Test
+    public void testSrtHasNoHeaderAndUsesCommas() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.SRT, 0.5f);
+
+        observer.startTrack("lesson", 0);
+        observer.onRecognition(new Recognition(3_723_004_000_000L, 0, "A", 0.9f)); // 1:02:03.004
+        observer.onRecognition(new Recognition(3_724_000_000_000L, 0, "A", 0.9f));
+        File track = observer.finishTrack(true).get();
+
+        assertEquals("lesson.srt", track.getName());
+        assertEquals("1\n01:02:03,004 --> 01:02:04,000\nA\n\n", read(track));
+        assertFalse(new File(dir, "lesson.srt.part").exists());
+    }
+
+    @Test
+    public void testCloseFinishesTrackWithoutWaiting() throws Exception {
+        File dir = Files.createTempDirectory("subtitles").toFile();
+        SubtitleObserver observer = new SubtitleObserver(dir, SubtitleObserver.Format.WEBVTT, 0.5f);
+        CountDownLatch finished = new CountDownLatch(1);
+        File[] result = new File[1];
+        observer.setListener(new SubtitleObserver.Listener() {
+            @Override
+            public void onTrackFinished(File track) {
+                result[0] = track;
+                finished.countDown();
+            }
+
+            @Override
+            public void onWriteFailed(File track, IOException error) {
+                fail(error.toString());
+            }
+        });
+
+        observer.startTrack("closed", 0);
+        observer.onRecognition(new Recognition(1_000_000_000L, 0, "A", 0.9f));
+        observer.close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("WEBVTT\n\n1\n00:00:01.000 --> 00:00:01.300\nA\n\n", read(result[0]));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.transcript.TranscriptLog;
+import com.example.signlanguageinterpreter.transcript.TranscriptReader;
+import com.example.signlanguageinterpreter.transcript.TranscriptRecord;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+public class TranscriptLogTest {
+
+    @Test
+    public void testSeekAndReplayAcrossSegments() throws Exception {
+        File dir = Files.createTempDirectory("transcript").toFile();
+        // Small segments force several rotations
+        TranscriptLog log = new TranscriptLog(dir, 100, 8);
+        for (int i = 0; i < 1000; i++) {
+            log.append(i * 1000L, i % 26, i / 1000f, 1);
+        }
+        log.close();
+
+        TranscriptReader reader = new TranscriptReader(dir);
+        assertEquals(1000, reader.getRecordCount());
+        assertEquals(0, reader.seek(-5));
+        assertEquals(437, reader.seek(436_500));
+        assertEquals(500, reader.seek(500_000));
+        assertEquals(1000, reader.seek(2_000_000));
+
+        TranscriptRecord record = reader.read(437);
+        assertEquals(437_000L, record.getTimestampNanos());
+        assertEquals(437 % 26, record.getLabelIndex());
+        assertEquals(1, record.getTrackId());
+
+        List<TranscriptRecord> matches = reader.search(100_000, 300_000, 0);
+        assertEquals(8, matches.size()); // 104, 130, ..., 286
+        assertEquals(104_000L, matches.get(0).getTimestampNanos());
+
+        long[] visited = new long[1];
+        assertEquals(200, reader.replay(150_000, 350_000, (ts, label, conf, track) -> visited[0]++));
+        assertEquals(200, visited[0]);
+    }
+
+    @Test
+    public void testReopenContinuesAppending() throws Exception {
+        File dir = Files.createTempDirectory("transcript").toFile();
+        TranscriptLog log = new TranscriptLog(dir, 100, 8);
+        log.append(10, 1, 0.5f, 0);
+        log.close();
+
+        log = new TranscriptLog(dir, 100, 8);
+        log.append(5, 2, 0.5f, 0); // Earlier time is clamped to keep the log sorted
+        log.close();
+
+        TranscriptReader reader = new TranscriptReader(dir);
+        assertEquals(2, reader.getRecordCount());
+        assertEquals(10L, reader.read(1).getTimestampNanos());
+        assertEquals(2, reader.read(1).getLabelIndex());
+    }
+}
\ No newline at end of file
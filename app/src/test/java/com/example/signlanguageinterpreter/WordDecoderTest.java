@@ -0,0 +1,101 @@
+package com.example.signlanguageinterpreter;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.signlanguageinterpreter.decoder.LexiconTrie;
+import com.example.signlanguageinterpreter.decoder.WordDecoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class WordDecoderTest {
+
+    private static final List<String> LABELS =
+            Arrays.asList("A", "C", "D", "G", "O", "S", "T", "nothing", "space");
+    private static final int BLANK = 7;
+    private static final int SPACE = 8;
+    private static final List<String> LEXICON = Arrays.asList("cat", "cats", "dog", "too", "c-3po");
+
+    private final List<String> words = new ArrayList<>();
+
+    private WordDecoder newDecoder() {
+        return new WordDecoder(LexiconTrie.build(LEXICON, LABELS), LABELS, BLANK, SPACE,
+                8, 0.8f, 0.01f, 0, (word, confidence, timestampNanos) -> words.add(word));
+    }
+
+    // 0.9 on one label, the rest spread over the others
+    private static float[] frame(String label) {
+        float[] scores = new float[LABELS.size()];
+        Arrays.fill(scores, 0.1f / (scores.length - 1));
+        scores[LABELS.indexOf(label)] = 0.9f;
+        return scores;
+    }
+
+    private void spell(WordDecoder decoder, String... frames) {
+        for (String label : frames) {
+            decoder.onScores(frame(label), 0);
+        }
+    }
+
+    @Test
+    public void testTrieIsPacked() {
+        LexiconTrie trie = LexiconTrie.build(LEXICON, LABELS);
+        // c-3po cannot be spelled with the labels
+        assertEquals(4, trie.getWordCount());
+        // root, C, CA, CAT, CATS, D, DO, DOG, T, TO, TOO
+        assertEquals(11, trie.getNodeCount());
+        int cat = trie.find("CAT", LABELS);
+        assertEquals("CAT", trie.getPrefix(cat, LABELS));
+        assertEquals("CAT", trie.getWord(trie.getWordAt(cat)));
+        assertEquals(LexiconTrie.MANY_WORDS, trie.getOnlyWord(cat));
+        assertEquals("DOG", trie.getWord(trie.getOnlyWord(trie.find("D", LABELS))));
+        assertEquals(-1, trie.find("CO", LABELS));
+    }
+
+    @Test
+    public void testEmitsUnambiguousWordWithoutBoundary() {
+        WordDecoder decoder = newDecoder();
+        spell(decoder, "D", "D", "O", "O", "O");
+        assertTrue(words.isEmpty());
+        assertEquals("DO", decoder.getPartial());
+        spell(decoder, "G");
+        assertEquals(Arrays.asList("DOG"), words);
+        // The held G does not start a new word
+        spell(decoder, "G", "G");
+        assertEquals("", decoder.getPartial());
+    }
+
+    @Test
+    public void testPrefixOfLongerWordWaitsForBoundary() {
+        WordDecoder decoder = newDecoder();
+        spell(decoder, "C", "A", "A", "T", "T");
+        assertTrue(words.isEmpty());
+        spell(decoder, "space");
+        assertEquals(Arrays.asList("CAT"), words);
+        spell(decoder, "C", "A", "T", "S");
+        assertEquals(Arrays.asList("CAT", "CATS"), words);
+    }
+
+    @Test
+    public void testDoubledLetterNeedsBlank() {
+        WordDecoder decoder = newDecoder();
+        spell(decoder, "T", "O", "O", "O");
+        assertEquals("TO", decoder.getPartial());
+        assertFalse(decoder.flush(0));
+        spell(decoder, "T", "O", "nothing", "O");
+        assertEquals(Arrays.asList("TOO"), words);
+    }
+
+    @Test
+    public void testBeamStaysBounded() {
+        WordDecoder decoder = newDecoder();
+        float[] uniform = new float[LABELS.size()];
+        Arrays.fill(uniform, 1f / uniform.length);
+        for (int i = 0; i < 100; i++) {
+            decoder.onScores(uniform, i);
+            assertTrue(decoder.getBeamSize() <= 8);
+        }
+    }
+}
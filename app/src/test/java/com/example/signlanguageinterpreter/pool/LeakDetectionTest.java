@@ -0,0 +1,41 @@
+package com.example.signlanguageinterpreter.pool;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// In the pool package so it can stand in for the garbage collector through the lease's tracker
+public class LeakDetectionTest {
+
+    @Test
+    public void testUnclosedLeaseIsReportedAsLeak() {
+        BufferPool pool = new BufferPool(1 << 20, false, true);
+        List<Throwable> origins = new ArrayList<>();
+        pool.setLeakReporter((poolName, origin) -> origins.add(origin));
+        pool.lease(100).close();
+        Lease<ByteBuffer> leaked = pool.lease(100);
+
+        // Enqueued as the collector would once the lease is unreachable
+        leaked.getTracker().enqueue();
+
+        assertEquals(1, pool.getLeakCount());
+        assertEquals(1, origins.size());
+        assertEquals("HeapBufferPool lease taken here", origins.get(0).getMessage());
+    }
+
+    @Test
+    public void testClosedLeaseIsNotReported() {
+        BufferPool pool = new BufferPool(1 << 20, false, true);
+        pool.setLeakReporter((poolName, origin) -> fail("Reported " + poolName));
+        Lease<ByteBuffer> lease = pool.lease(100);
+        SizeClassPool.LeakTracker tracker = lease.getTracker();
+        lease.close();
+
+        // Closed leases are no longer outstanding, even if their tracker is enqueued later
+        tracker.enqueue();
+        assertEquals(0, pool.getLeakCount());
+    }
+}